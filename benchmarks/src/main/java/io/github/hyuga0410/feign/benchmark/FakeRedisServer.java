@@ -0,0 +1,267 @@
+package io.github.hyuga0410.feign.benchmark;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * FakeRedisServer
+ * <p>
+ * 进程内RESP协议Redis替身，只实现{@code RedisIsolationRegistry}用到的命令：
+ * PING/AUTH/SELECT、GET/SET/SETEX/DEL/EXPIRE、CONFIG GET/SET、PSUBSCRIBE/PUNSUBSCRIBE（只确认订阅，不推送键空间通知）
+ *
+ * @author hyuga
+ * @since 2026/10/17
+ */
+final class FakeRedisServer implements Closeable {
+
+    private final ServerSocket serverSocket;
+    private final Map<String, Entry> data = new ConcurrentHashMap<>();
+    private final Map<String, String> config = new ConcurrentHashMap<>();
+    private volatile boolean running = true;
+
+    FakeRedisServer() throws IOException {
+        this.serverSocket = new ServerSocket(0, 128, InetAddress.getLoopbackAddress());
+        Thread acceptor = new Thread(this::accept, "fake-redis-acceptor");
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    int port() {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * 直接写入不过期的key，用于预置隔离服务
+     */
+    void set(String key, String value) {
+        data.put(key, new Entry(value, Long.MAX_VALUE));
+    }
+
+    @Override
+    public void close() throws IOException {
+        running = false;
+        serverSocket.close();
+    }
+
+    private void accept() {
+        while (running) {
+            try {
+                Socket socket = serverSocket.accept();
+                Thread connection = new Thread(() -> serve(socket), "fake-redis-connection");
+                connection.setDaemon(true);
+                connection.start();
+            } catch (IOException e) {
+                if (running) {
+                    System.err.println("fake redis accept failed: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    private void serve(Socket socket) {
+        try (socket) {
+            socket.setTcpNoDelay(true);
+            InputStream in = new BufferedInputStream(socket.getInputStream());
+            OutputStream out = new BufferedOutputStream(socket.getOutputStream());
+            int subscriptions = 0;
+            while (running) {
+                List<String> command = readCommand(in);
+                if (command == null) {
+                    return;
+                }
+                final String name = command.get(0).toUpperCase(Locale.ROOT);
+                switch (name) {
+                    case "PSUBSCRIBE":
+                        for (int i = 1; i < command.size(); i++) {
+                            writeSubscription(out, "psubscribe", command.get(i), ++subscriptions);
+                        }
+                        break;
+                    case "PUNSUBSCRIBE":
+                        subscriptions = 0;
+                        writeSubscription(out, "punsubscribe", command.size() > 1 ? command.get(1) : null, 0);
+                        break;
+                    case "QUIT":
+                        writeSimple(out, "OK");
+                        out.flush();
+                        return;
+                    default:
+                        execute(name, command, out);
+                        break;
+                }
+                // pipeline中的命令读完后再统一刷出
+                if (in.available() == 0) {
+                    out.flush();
+                }
+            }
+        } catch (IOException e) {
+            // 客户端断开
+        }
+    }
+
+    private void execute(String name, List<String> command, OutputStream out) throws IOException {
+        switch (name) {
+            case "PING":
+                writeSimple(out, "PONG");
+                break;
+            case "AUTH":
+            case "SELECT":
+            case "CLIENT":
+                writeSimple(out, "OK");
+                break;
+            case "GET":
+                writeBulk(out, get(command.get(1)));
+                break;
+            case "SET":
+                data.put(command.get(1), new Entry(command.get(2), Long.MAX_VALUE));
+                writeSimple(out, "OK");
+                break;
+            case "SETEX":
+                data.put(command.get(1), new Entry(command.get(3),
+                        System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(Long.parseLong(command.get(2)))));
+                writeSimple(out, "OK");
+                break;
+            case "DEL":
+                int deleted = 0;
+                for (int i = 1; i < command.size(); i++) {
+                    deleted += data.remove(command.get(i)) == null ? 0 : 1;
+                }
+                writeInteger(out, deleted);
+                break;
+            case "EXPIRE":
+                final String key = command.get(1);
+                final String value = get(key);
+                if (value != null) {
+                    data.put(key, new Entry(value, System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(Long.parseLong(command.get(2)))));
+                }
+                writeInteger(out, value == null ? 0 : 1);
+                break;
+            case "CONFIG":
+                if ("GET".equalsIgnoreCase(command.get(1))) {
+                    final String parameter = command.get(2);
+                    writeArray(out, parameter, config.getOrDefault(parameter, ""));
+                } else {
+                    config.put(command.get(2), command.get(3));
+                    writeSimple(out, "OK");
+                }
+                break;
+            default:
+                out.write(("-ERR unknown command '" + name + "'\r\n").getBytes(StandardCharsets.UTF_8));
+                break;
+        }
+    }
+
+    private String get(String key) {
+        final Entry entry = data.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expireAt < System.currentTimeMillis()) {
+            data.remove(key, entry);
+            return null;
+        }
+        return entry.value;
+    }
+
+    /**
+     * 读取一条RESP数组命令，连接关闭时返回null
+     */
+    private static List<String> readCommand(InputStream in) throws IOException {
+        final String header = readLine(in);
+        if (header == null) {
+            return null;
+        }
+        if (header.charAt(0) != '*') {
+            // inline命令
+            return List.of(header.trim().split("\\s+"));
+        }
+        final int count = Integer.parseInt(header.substring(1));
+        List<String> command = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            final String length = readLine(in);
+            if (length == null) {
+                throw new EOFException();
+            }
+            final byte[] bytes = in.readNBytes(Integer.parseInt(length.substring(1)));
+            // 跳过\r\n
+            if (in.read() < 0 || in.read() < 0) {
+                throw new EOFException();
+            }
+            command.add(new String(bytes, StandardCharsets.UTF_8));
+        }
+        return command;
+    }
+
+    private static String readLine(InputStream in) throws IOException {
+        StringBuilder line = new StringBuilder();
+        int b;
+        while ((b = in.read()) >= 0) {
+            if (b == '\r') {
+                in.read();
+                return line.toString();
+            }
+            line.append((char) b);
+        }
+        return line.length() == 0 ? null : line.toString();
+    }
+
+    private static void writeSimple(OutputStream out, String value) throws IOException {
+        out.write(("+" + value + "\r\n").getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void writeInteger(OutputStream out, long value) throws IOException {
+        out.write((":" + value + "\r\n").getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void writeBulk(OutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.write("$-1\r\n".getBytes(StandardCharsets.UTF_8));
+            return;
+        }
+        final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.write(("$" + bytes.length + "\r\n").getBytes(StandardCharsets.UTF_8));
+        out.write(bytes);
+        out.write("\r\n".getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void writeArray(OutputStream out, String... values) throws IOException {
+        out.write(("*" + values.length + "\r\n").getBytes(StandardCharsets.UTF_8));
+        for (String value : values) {
+            writeBulk(out, value);
+        }
+    }
+
+    private static void writeSubscription(OutputStream out, String kind, String pattern, int count) throws IOException {
+        out.write("*3\r\n".getBytes(StandardCharsets.UTF_8));
+        writeBulk(out, kind);
+        writeBulk(out, pattern);
+        writeInteger(out, count);
+    }
+
+    private static final class Entry {
+
+        private final String value;
+        private final long expireAt;
+
+        private Entry(String value, long expireAt) {
+            this.value = value;
+            this.expireAt = expireAt;
+        }
+
+    }
+
+}
@@ -0,0 +1,118 @@
+package io.github.hyuga0410.feign.benchmark;
+
+import io.github.hyuga0410.feign.EnvironmentConstants;
+import io.github.hyuga0410.feign.proxy.FeignBeanPostProcessor;
+import io.github.hyuga0410.feign.proxy.FeignProvider;
+import io.github.hyuga0410.feign.proxy.FeignProviderCapability;
+import io.github.hyuga0410.feign.proxy.FeignProxyConstants;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.core.env.MapPropertySource;
+
+import javax.annotation.Resource;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * FeignBeanPostProcessor#postProcessBeforeInitialization，模拟容器启动时对一批Bean的处理
+ * <p>
+ * Bean图由无注入点的基础设施Bean、带@Resource的业务Bean及带@FeignProvider的业务Bean组成，含多层继承
+ *
+ * @author hyuga
+ * @since 2026/10/17
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FeignBeanPostProcessorBenchmark {
+
+    private static final int BEANS = 100;
+
+    private GenericApplicationContext applicationContext;
+    private FeignBeanPostProcessor processor;
+    private Object[] beans;
+
+    @Setup
+    public void setup() {
+        applicationContext = new GenericApplicationContext();
+        applicationContext.getEnvironment().getPropertySources().addFirst(new MapPropertySource("benchmark",
+                Map.of(FeignProxyConstants.SPRING_CONFIG_ACTIVATE_ON_PROFILE, EnvironmentConstants.DEV)));
+        applicationContext.registerBean(FeignProviderCapability.class);
+        applicationContext.refresh();
+
+        processor = new FeignBeanPostProcessor();
+        processor.setApplicationContext(applicationContext);
+
+        beans = new Object[BEANS];
+        for (int i = 0; i < BEANS; i++) {
+            switch (i % 4) {
+                case 0:
+                    beans[i] = new InfrastructureBean();
+                    break;
+                case 1:
+                    beans[i] = new ResourceBean();
+                    break;
+                case 2:
+                    beans[i] = new ProviderBean();
+                    break;
+                default:
+                    beans[i] = new DeepProviderBean();
+                    break;
+            }
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        applicationContext.close();
+    }
+
+    @Benchmark
+    public void postProcessBeforeInitialization(Blackhole blackhole) {
+        for (int i = 0; i < beans.length; i++) {
+            blackhole.consume(processor.postProcessBeforeInitialization(beans[i], "bean" + i));
+        }
+    }
+
+    static class InfrastructureBean {
+        private String name;
+        private int order;
+        private Object delegate;
+        private Map<String, Object> attributes;
+    }
+
+    static class ResourceBean extends InfrastructureBean {
+        @Resource
+        private Object repository;
+        @Resource
+        private Object service;
+    }
+
+    static class ProviderBean extends ResourceBean {
+        @Resource
+        @FeignProvider(value = "hyuga")
+        private IsolationFixture.DictClient dictClient;
+    }
+
+    static class DeepProviderBean extends ProviderBean {
+        @Resource
+        @FeignProvider(value = "hyuga")
+        private IsolationFixture.DictClient anotherDictClient;
+        private String extra;
+    }
+
+}
@@ -0,0 +1,72 @@
+package io.github.hyuga0410.feign.benchmark;
+
+import feign.Client;
+import feign.Request;
+import feign.RequestTemplate;
+import feign.Response;
+import feign.Target;
+import io.github.hyuga0410.feign.proxy.FeignProviderCapability;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * FeignProviderCapability包装后Client的execute()，下游Client直接返回固定响应，只统计重定向开销
+ *
+ * @author hyuga
+ * @since 2026/10/17
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FeignProviderCapabilityBenchmark {
+
+    /**
+     * 服务后缀，空字符串为默认环境
+     */
+    @Param({"hyuga", ""})
+    public String suffix;
+
+    private Client client;
+    private Request request;
+    private Request.Options options;
+
+    @Setup
+    public void setup() {
+        FeignProviderCapability capability = new FeignProviderCapability();
+        capability.register(IsolationFixture.DictClient.class, suffix);
+
+        Target.HardCodedTarget<IsolationFixture.DictClient> target =
+                new Target.HardCodedTarget<>(IsolationFixture.DictClient.class, IsolationFixture.SERVICE, IsolationFixture.URL);
+        RequestTemplate template = new RequestTemplate();
+        template.feignTarget(target);
+        request = Request.create(Request.HttpMethod.GET, IsolationFixture.URL + "/1?type=2", Map.of(), null,
+                StandardCharsets.UTF_8, template);
+        options = new Request.Options();
+
+        final Response response = Response.builder().status(200).request(request).headers(Map.of()).build();
+        client = capability.enrich((Client) (redirected, requestOptions) -> response);
+    }
+
+    @Benchmark
+    public Response execute() throws IOException {
+        return client.execute(request, options);
+    }
+
+}
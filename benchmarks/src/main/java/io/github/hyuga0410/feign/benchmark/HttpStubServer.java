@@ -0,0 +1,63 @@
+package io.github.hyuga0410.feign.benchmark;
+
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * HttpStubServer
+ * <p>
+ * 本地HTTP桩服务，所有路径固定返回一段短文本，隔离与非隔离场景的下游耗时相同
+ *
+ * @author hyuga
+ * @since 2026/10/17
+ */
+final class HttpStubServer implements Closeable {
+
+    private static final byte[] BODY = "ok".getBytes(StandardCharsets.UTF_8);
+
+    static {
+        // 响应头与响应体分两次写出，开启Nagle时与客户端延迟确认叠加，每次请求额外增加约40ms
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+    }
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    HttpStubServer(int workers) throws IOException {
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 1024);
+        this.executor = Executors.newFixedThreadPool(workers, runnable -> {
+            Thread thread = new Thread(runnable, "http-stub-worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.createContext("/", exchange -> {
+            exchange.getRequestBody().readAllBytes();
+            exchange.getResponseHeaders().add("Content-Type", "text/plain");
+            exchange.sendResponseHeaders(200, BODY.length);
+            try (OutputStream body = exchange.getResponseBody()) {
+                body.write(BODY);
+            }
+        });
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    String uri() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+}
@@ -0,0 +1,107 @@
+package io.github.hyuga0410.feign.benchmark;
+
+import cn.hyugatool.core.number.NumberUtil;
+import cn.hyugatool.core.uri.URLUtil;
+import cn.hyugatool.system.NetworkUtil;
+import feign.InvocationHandlerFactory;
+import feign.Target;
+import io.github.hyuga0410.feign.EnvironmentConstants;
+import io.github.hyuga0410.feign.isolation.FeignBuilderHelper;
+import io.github.hyuga0410.feign.isolation.FeignIsolation;
+import io.github.hyuga0410.feign.isolation.FeignIsolationConfiguration;
+import io.github.hyuga0410.feign.isolation.FeignIsolationConstants;
+import io.github.hyuga0410.feign.isolation.FeignIsolationSettings;
+import io.github.hyuga0410.feign.isolation.registry.IsolationRegistryType;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.core.type.AnnotationMetadata;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * IsolationFixture
+ * <p>
+ * 基准测试公共夹具：以编程方式初始化{@link FeignIsolationConfiguration}，并取出{@link FeignBuilderHelper}包装后的Target
+ *
+ * @author hyuga
+ * @since 2026/10/17
+ */
+final class IsolationFixture {
+
+    static final String SERVICE = "service-hyuga-dict";
+    static final String URL = "http://" + SERVICE + "/dict";
+    static final String SERVICE_SIGN = "-hyuga-";
+    static final String LOCAL_IP = NetworkUtil.getLocalIpAddr();
+    /**
+     * 当前IP下的隔离服务名
+     */
+    static final String ISOLATION_SERVICE = SERVICE + FeignIsolationConstants.ISOLATION_SYMBOL + NumberUtil.getNumber(LOCAL_IP);
+    /**
+     * skipIsolationServices匹配的目标服务标识，与FeignBuilderHelper的解析方式一致
+     */
+    static final String SERVICE_URI = URLUtil.getHost(URLUtil.url(URL)).toString();
+
+    private IsolationFixture() {
+    }
+
+    interface DictClient {
+    }
+
+    /**
+     * 模拟启动类上的@FeignIsolation注解，初始化隔离配置
+     *
+     * @return 注册到容器中的隔离配置
+     */
+    static FeignIsolationSettings configure(String defaultIp, String isolationIps, String skipIsolationServices, String serviceSign) {
+        Map<String, Object> attributes = new HashMap<>();
+        // 未显式指定的属性取注解默认值
+        for (Method attribute : FeignIsolation.class.getDeclaredMethods()) {
+            attributes.put(attribute.getName(), attribute.getDefaultValue());
+        }
+        attributes.put("environments", new String[]{EnvironmentConstants.DEV});
+        attributes.put("defaultIp", defaultIp);
+        attributes.put("isolationIps", isolationIps);
+        attributes.put("skipIsolationServices", skipIsolationServices);
+        attributes.put("serviceSign", serviceSign);
+        attributes.put("registry", IsolationRegistryType.REDIS);
+        for (String path : new String[]{"redisUrlPath", "redisPortPath", "redisUserPath", "redisPwdPath", "nacosServerAddrPath",
+                "nacosNamespacePath", "nacosGroupPath", "nacosUserPath", "nacosPwdPath"}) {
+            attributes.put(path, "");
+        }
+
+        AnnotationMetadata metadata = (AnnotationMetadata) Proxy.newProxyInstance(IsolationFixture.class.getClassLoader(),
+                new Class<?>[]{AnnotationMetadata.class}, (proxy, method, args) -> {
+                    if ("getAnnotationAttributes".equals(method.getName()) && FeignIsolation.class.getName().equals(args[0])) {
+                        return attributes;
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+
+        StandardEnvironment environment = new StandardEnvironment();
+        environment.setActiveProfiles(EnvironmentConstants.DEV);
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        beanFactory.registerSingleton("environment", environment);
+
+        new FeignIsolationConfiguration().registerBeanDefinitions(metadata, beanFactory);
+        return beanFactory.getBean(FeignIsolationSettings.class);
+    }
+
+    /**
+     * 通过FeignBuilderHelper创建客户端，取出其包装后的Target
+     */
+    static Target<?> isolationTarget(FeignBuilderHelper helper) {
+        AtomicReference<Target<?>> captured = new AtomicReference<>();
+        InvocationHandlerFactory factory = (target, dispatch) -> {
+            captured.set(target);
+            return (proxy, method, args) -> null;
+        };
+        helper.invocationHandlerFactory(factory);
+        helper.target(new Target.HardCodedTarget<>(DictClient.class, SERVICE, URL));
+        return captured.get();
+    }
+
+}
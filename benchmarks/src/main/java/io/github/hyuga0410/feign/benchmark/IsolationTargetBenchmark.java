@@ -0,0 +1,123 @@
+package io.github.hyuga0410.feign.benchmark;
+
+import feign.Target;
+import io.github.hyuga0410.feign.isolation.FeignBuilderHelper;
+import io.github.hyuga0410.feign.isolation.FeignIsolationSettings;
+import io.github.hyuga0410.feign.isolation.registry.InMemoryIsolationRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+import static io.github.hyuga0410.feign.benchmark.IsolationFixture.ISOLATION_SERVICE;
+import static io.github.hyuga0410.feign.benchmark.IsolationFixture.LOCAL_IP;
+import static io.github.hyuga0410.feign.benchmark.IsolationFixture.SERVICE_SIGN;
+import static io.github.hyuga0410.feign.benchmark.IsolationFixture.SERVICE_URI;
+import static io.github.hyuga0410.feign.benchmark.IsolationFixture.URL;
+
+/**
+ * FeignBuilderHelper包装后的Target#url()，覆盖所有路由分支
+ *
+ * @author hyuga
+ * @since 2026/10/17
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IsolationTargetBenchmark {
+
+    public enum Branch {
+        /**
+         * 环境未命中
+         */
+        NON_ISOLATED,
+        /**
+         * 当前IP为默认环境IP
+         */
+        DEFAULT_IP,
+        /**
+         * 请求服务不含隔离服务标识
+         */
+        NO_SERVICE_SIGN,
+        /**
+         * 强制隔离IP
+         */
+        FORCED_ISOLATION,
+        /**
+         * 强制隔离IP，但目标服务在skipIsolationServices中
+         */
+        SKIPPED,
+        /**
+         * 注册中心存在隔离服务
+         */
+        REGISTRY_HIT,
+        /**
+         * 注册中心不存在隔离服务
+         */
+        REGISTRY_MISS
+    }
+
+    @Param
+    public Branch branch;
+
+    private Target<?> target;
+
+    @Setup
+    public void setup() throws InterruptedException {
+        InMemoryIsolationRegistry registry = new InMemoryIsolationRegistry();
+        boolean isolation = true;
+        final FeignIsolationSettings settings;
+        switch (branch) {
+            case NON_ISOLATED:
+                isolation = false;
+                settings = IsolationFixture.configure("", "", "", SERVICE_SIGN);
+                break;
+            case DEFAULT_IP:
+                settings = IsolationFixture.configure(LOCAL_IP, "", "", SERVICE_SIGN);
+                break;
+            case NO_SERVICE_SIGN:
+                settings = IsolationFixture.configure("", "", "", "-other-");
+                break;
+            case FORCED_ISOLATION:
+                settings = IsolationFixture.configure("", LOCAL_IP, "", SERVICE_SIGN);
+                break;
+            case SKIPPED:
+                settings = IsolationFixture.configure("", LOCAL_IP, SERVICE_URI, SERVICE_SIGN);
+                break;
+            case REGISTRY_HIT:
+                registry.register(LOCAL_IP, ISOLATION_SERVICE);
+                settings = IsolationFixture.configure("", "", "", SERVICE_SIGN);
+                break;
+            default:
+                settings = IsolationFixture.configure("", "", "", SERVICE_SIGN);
+                break;
+        }
+        target = IsolationFixture.isolationTarget(new FeignBuilderHelper(settings, isolation, registry));
+
+        // 等待隔离路由缓存完成首次后台加载
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(1);
+        target.url();
+        while (branch == Branch.REGISTRY_HIT && URL.equals(target.url()) && System.nanoTime() < deadline) {
+            TimeUnit.MILLISECONDS.sleep(10);
+        }
+        TimeUnit.MILLISECONDS.sleep(50);
+    }
+
+    @Benchmark
+    public String url() {
+        return target.url();
+    }
+
+}
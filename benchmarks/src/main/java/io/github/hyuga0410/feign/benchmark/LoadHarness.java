@@ -0,0 +1,309 @@
+package io.github.hyuga0410.feign.benchmark;
+
+import io.github.hyuga0410.feign.EnvironmentConstants;
+import io.github.hyuga0410.feign.isolation.FeignIsolation;
+import io.github.hyuga0410.feign.isolation.FeignIsolationConstants;
+import io.github.hyuga0410.feign.proxy.FeignBeanPostProcessor;
+import io.github.hyuga0410.feign.proxy.FeignProvider;
+import io.github.hyuga0410.feign.proxy.FeignProviderCapability;
+import io.github.hyuga0410.feign.proxy.FeignProxyConstants;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.cloud.openfeign.EnableFeignClients;
+import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Import;
+import org.springframework.web.bind.annotation.GetMapping;
+
+import javax.annotation.Resource;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static io.github.hyuga0410.feign.benchmark.IsolationFixture.ISOLATION_SERVICE;
+import static io.github.hyuga0410.feign.benchmark.IsolationFixture.LOCAL_IP;
+import static io.github.hyuga0410.feign.benchmark.IsolationFixture.SERVICE;
+import static io.github.hyuga0410.feign.benchmark.IsolationFixture.SERVICE_SIGN;
+
+/**
+ * LoadHarness
+ * <p>
+ * 端到端压测：分别启动原生OpenFeign与启用{@link FeignIsolation}、{@link FeignProvider}的Spring容器，
+ * 以进程内Redis替身与本地HTTP桩服务代替外部依赖，N个并发客户端持续调用，
+ * 输出吞吐、p50/p99/p999延迟、每次调用的分配量，以及相对原生OpenFeign增加的延迟，全程无需网络
+ * <p>
+ * 参数：--threads=32 --warmup=10 --duration=30（秒），例如：
+ * java -cp target/benchmarks.jar io.github.hyuga0410.feign.benchmark.LoadHarness --threads=64
+ *
+ * @author hyuga
+ * @since 2026/10/17
+ */
+public final class LoadHarness {
+
+    /**
+     * 不等于本机IP的默认环境IP，使本机按隔离环境路由
+     */
+    private static final String DEFAULT_IP = "0.0.0.0";
+    private static final String PROVIDER = "hyuga";
+    private static final String PROVIDER_SERVICE = SERVICE + FeignIsolationConstants.ISOLATION_SYMBOL + PROVIDER;
+    private static final String REDIS_HOST_PATH = "harness.redis.host";
+    private static final String REDIS_PORT_PATH = "harness.redis.port";
+
+    private LoadHarness() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        final Map<String, String> options = options(args);
+        final int threads = Integer.parseInt(options.getOrDefault("threads", "32"));
+        final long warmupSeconds = Long.parseLong(options.getOrDefault("warmup", "10"));
+        final long durationSeconds = Long.parseLong(options.getOrDefault("duration", "30"));
+
+        try (HttpStubServer stub = new HttpStubServer(threads);
+             FakeRedisServer redis = new FakeRedisServer()) {
+            // 预置当前IP下的隔离服务，隔离场景走注册中心命中分支
+            redis.set(FeignIsolationConstants.FEIGN_REDIS_KEY_PREFIX + LOCAL_IP + ":" + ISOLATION_SERVICE, "1");
+
+            final Map<String, Object> properties = properties(stub.uri(), redis.port());
+            final List<Result> results = new ArrayList<>();
+
+            // 隔离配置只写入各自容器的Environment，两个容器互不影响；原生OpenFeign先运行作为对比基准
+            final Map<String, Object> plainProperties = new HashMap<>(properties);
+            plainProperties.put("spring.autoconfigure.exclude",
+                    FeignBeanPostProcessor.class.getName() + "," + FeignProviderCapability.class.getName());
+            try (ConfigurableApplicationContext context = start(PlainApplication.class, plainProperties)) {
+                final DictApi dictApi = context.getBean(DictApi.class);
+                results.add(drive("openfeign", dictApi::dict, threads, warmupSeconds, durationSeconds));
+            }
+
+            try (ConfigurableApplicationContext context = start(IsolationApplication.class, properties)) {
+                final DictApi dictApi = context.getBean(DictApi.class);
+                final ProviderDictApi providerDictApi = context.getBean(ProviderDictApi.class);
+                results.add(drive("feign-isolation", dictApi::dict, threads, warmupSeconds, durationSeconds));
+                results.add(drive("feign-provider", providerDictApi::dict, threads, warmupSeconds, durationSeconds));
+            }
+
+            report(results, threads, durationSeconds);
+        }
+    }
+
+    private static Map<String, String> options(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (arg.startsWith("--") && arg.contains("=")) {
+                options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+            }
+        }
+        return options;
+    }
+
+    private static Map<String, Object> properties(String stubUri, int redisPort) {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("spring.application.name", "feign-load-harness");
+        properties.put("spring.main.banner-mode", "off");
+        properties.put("logging.level.root", "warn");
+        properties.put(FeignProxyConstants.SPRING_CONFIG_ACTIVATE_ON_PROFILE, EnvironmentConstants.DEV);
+        properties.put(REDIS_HOST_PATH, "127.0.0.1");
+        properties.put(REDIS_PORT_PATH, String.valueOf(redisPort));
+        // 默认服务、隔离服务与@FeignProvider指定的服务都指向同一个桩服务，下游耗时一致
+        for (String serviceId : new String[]{SERVICE, ISOLATION_SERVICE, PROVIDER_SERVICE}) {
+            properties.put("spring.cloud.discovery.client.simple.instances." + serviceId + "[0].uri", stubUri);
+        }
+        return properties;
+    }
+
+    private static ConfigurableApplicationContext start(Class<?> application, Map<String, Object> properties) {
+        return new SpringApplicationBuilder(application)
+                .web(WebApplicationType.NONE)
+                .profiles(EnvironmentConstants.DEV)
+                .properties(properties)
+                .run();
+    }
+
+    /**
+     * 预热后按固定时长压测，每个线程独立记录延迟与分配量，结束后合并
+     */
+    private static Result drive(String scenario, Supplier<String> call, int threads, long warmupSeconds, long durationSeconds)
+            throws InterruptedException {
+        final long warmupEnd = System.nanoTime() + TimeUnit.SECONDS.toNanos(warmupSeconds);
+        final long measureEnd = warmupEnd + TimeUnit.SECONDS.toNanos(durationSeconds);
+        final Worker[] workers = new Worker[threads];
+        final Thread[] runners = new Thread[threads];
+        for (int i = 0; i < threads; i++) {
+            workers[i] = new Worker(call, warmupEnd, measureEnd);
+            runners[i] = new Thread(workers[i], "load-client-" + i);
+            runners[i].start();
+        }
+        for (Thread runner : runners) {
+            runner.join();
+        }
+
+        int total = 0;
+        long errors = 0;
+        long allocatedBytes = 0;
+        for (Worker worker : workers) {
+            total += worker.count;
+            errors += worker.errors;
+            allocatedBytes += worker.allocatedBytes;
+        }
+        final long[] latencies = new long[total];
+        int offset = 0;
+        for (Worker worker : workers) {
+            System.arraycopy(worker.latencies, 0, latencies, offset, worker.count);
+            offset += worker.count;
+        }
+        Arrays.sort(latencies);
+        return new Result(scenario, latencies, errors, total == 0 ? 0 : allocatedBytes / total, durationSeconds);
+    }
+
+    private static void report(List<Result> results, int threads, long durationSeconds) {
+        final Result baseline = results.get(0);
+        System.out.printf("%nthreads=%d duration=%ds%n", threads, durationSeconds);
+        System.out.printf("%-16s %12s %10s %10s %10s %12s %8s%n",
+                "scenario", "ops/s", "p50(us)", "p99(us)", "p999(us)", "alloc(B/op)", "errors");
+        for (Result result : results) {
+            System.out.printf("%-16s %12.0f %10.1f %10.1f %10.1f %12d %8d%n", result.scenario, result.throughput(),
+                    micros(result.percentile(0.5)), micros(result.percentile(0.99)), micros(result.percentile(0.999)),
+                    result.allocatedBytesPerCall, result.errors);
+        }
+        System.out.printf("%nadded vs %s%n", baseline.scenario);
+        System.out.printf("%-16s %12s %10s %10s %10s %12s%n", "scenario", "ops/s", "p50(us)", "p99(us)", "p999(us)", "alloc(B/op)");
+        for (Result result : results.subList(1, results.size())) {
+            System.out.printf("%-16s %+12.0f %+10.1f %+10.1f %+10.1f %+12d%n", result.scenario,
+                    result.throughput() - baseline.throughput(),
+                    micros(result.percentile(0.5) - baseline.percentile(0.5)),
+                    micros(result.percentile(0.99) - baseline.percentile(0.99)),
+                    micros(result.percentile(0.999) - baseline.percentile(0.999)),
+                    result.allocatedBytesPerCall - baseline.allocatedBytesPerCall);
+        }
+    }
+
+    private static double micros(long nanos) {
+        return nanos / 1000.0;
+    }
+
+    @EnableAutoConfiguration
+    @EnableFeignClients(clients = DictApi.class)
+    static class PlainApplication {
+    }
+
+    @EnableAutoConfiguration
+    @EnableFeignClients(clients = {DictApi.class, ProviderDictApi.class})
+    @FeignIsolation(defaultIp = DEFAULT_IP, serviceSign = SERVICE_SIGN,
+            redisUrlPath = REDIS_HOST_PATH, redisPortPath = REDIS_PORT_PATH)
+    @Import(ProviderConsumer.class)
+    static class IsolationApplication {
+    }
+
+    @FeignClient(name = SERVICE, contextId = "dictApi")
+    public interface DictApi {
+
+        @GetMapping("/dict")
+        String dict();
+
+    }
+
+    @FeignClient(name = SERVICE, contextId = "providerDictApi")
+    public interface ProviderDictApi {
+
+        @GetMapping("/dict")
+        String dict();
+
+    }
+
+    /**
+     * 通过@FeignProvider将ProviderDictApi的请求重定向到service-hyuga-dict-hyuga
+     */
+    static class ProviderConsumer {
+
+        @Resource
+        @FeignProvider(PROVIDER)
+        private ProviderDictApi providerDictApi;
+
+    }
+
+    private static final class Worker implements Runnable {
+
+        private static final com.sun.management.ThreadMXBean THREAD_MX_BEAN =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+        private final Supplier<String> call;
+        private final long warmupEnd;
+        private final long measureEnd;
+        private long[] latencies = new long[1 << 14];
+        private int count;
+        private long errors;
+        private long allocatedBytes;
+
+        private Worker(Supplier<String> call, long warmupEnd, long measureEnd) {
+            this.call = call;
+            this.warmupEnd = warmupEnd;
+            this.measureEnd = measureEnd;
+        }
+
+        @Override
+        public void run() {
+            while (System.nanoTime() < warmupEnd) {
+                invoke();
+            }
+            errors = 0;
+            final long allocatedBefore = THREAD_MX_BEAN.getCurrentThreadAllocatedBytes();
+            long now;
+            while ((now = System.nanoTime()) < measureEnd) {
+                invoke();
+                final long latency = System.nanoTime() - now;
+                if (count == latencies.length) {
+                    latencies = Arrays.copyOf(latencies, count << 1);
+                }
+                latencies[count++] = latency;
+            }
+            // 延迟数组扩容产生的分配计入压测本身，不计入被测调用，数量级可忽略
+            allocatedBytes = THREAD_MX_BEAN.getCurrentThreadAllocatedBytes() - allocatedBefore;
+        }
+
+        private void invoke() {
+            try {
+                call.get();
+            } catch (RuntimeException e) {
+                errors++;
+            }
+        }
+
+    }
+
+    private static final class Result {
+
+        private final String scenario;
+        private final long[] sortedLatencies;
+        private final long errors;
+        private final long allocatedBytesPerCall;
+        private final long durationSeconds;
+
+        private Result(String scenario, long[] sortedLatencies, long errors, long allocatedBytesPerCall, long durationSeconds) {
+            this.scenario = scenario;
+            this.sortedLatencies = sortedLatencies;
+            this.errors = errors;
+            this.allocatedBytesPerCall = allocatedBytesPerCall;
+            this.durationSeconds = durationSeconds;
+        }
+
+        private double throughput() {
+            return (double) sortedLatencies.length / durationSeconds;
+        }
+
+        private long percentile(double quantile) {
+            if (sortedLatencies.length == 0) {
+                return 0;
+            }
+            final int index = (int) Math.ceil(quantile * sortedLatencies.length) - 1;
+            return sortedLatencies[Math.max(0, index)];
+        }
+
+    }
+
+}
@@ -0,0 +1,37 @@
+package io.github.hyuga0410.feign.isolation;
+
+import feign.AsyncFeign;
+import feign.Target;
+
+/**
+ * AsyncFeignBuilderHelper
+ * <p>
+ * {@link AsyncFeign}的隔离版本，Target由{@link FeignBuilderHelper}包装，与同步客户端的路由决策完全一致
+ * <p>
+ * 路由决策只读取本地路由缓存，未命中时由后台线程异步加载、本次先走默认服务，不会阻塞调用线程，可在事件循环线程中发起调用；
+ * 启动预热同样覆盖由本类创建的Target
+ *
+ * @param <C> 请求上下文类型
+ * @author hyuga
+ * @since 2026/10/17
+ */
+public class AsyncFeignBuilderHelper<C> extends AsyncFeign.AsyncBuilder<C> {
+
+    private final FeignBuilderHelper feignBuilderHelper;
+
+    public AsyncFeignBuilderHelper(FeignBuilderHelper feignBuilderHelper) {
+        super();
+        this.feignBuilderHelper = feignBuilderHelper;
+    }
+
+    @Override
+    public <T> T target(Target<T> target) {
+        return super.target(feignBuilderHelper.isolationTarget(target));
+    }
+
+    @Override
+    public <T> T target(Target<T> target, C context) {
+        return super.target(feignBuilderHelper.isolationTarget(target), context);
+    }
+
+}
@@ -1,19 +1,38 @@
 package io.github.hyuga0410.feign.isolation;
 
-import cn.hyugatool.core.collection.ListUtil;
-import cn.hyugatool.core.number.NumberUtil;
-import cn.hyugatool.core.string.StringUtil;
 import cn.hyugatool.core.uri.URLUtil;
 import cn.hyugatool.system.NetworkUtil;
+import feign.Capability;
+import feign.Client;
 import feign.Feign;
+import feign.Request;
+import feign.RequestTemplate;
+import feign.Response;
 import feign.Target;
+import io.github.hyuga0410.feign.isolation.registry.IsolationRegistry;
+import io.github.hyuga0410.feign.isolation.registry.RedisIsolationRegistry;
 import lombok.extern.slf4j.Slf4j;
 
-import java.math.BigDecimal;
+import java.io.IOException;
 import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
-import static io.github.hyuga0410.feign.isolation.FeignIsolationConstants.FEIGN_REDIS_KEY_PREFIX;
+import static io.github.hyuga0410.feign.isolation.FeignIsolationConstants.DECISION_TRACE_CAPACITY;
+import static io.github.hyuga0410.feign.isolation.FeignIsolationConstants.DECISION_TRACE_SAMPLE_RATE;
+import static io.github.hyuga0410.feign.isolation.FeignIsolationConstants.HEARTBEAT_EXPIRE_SECONDS;
 
 /**
  * FeignBuilderHelper
@@ -24,53 +43,87 @@ import static io.github.hyuga0410.feign.isolation.FeignIsolationConstants.FEIGN_
 @Slf4j
 public class FeignBuilderHelper extends Feign.Builder {
 
+    /**
+     * 当前容器的隔离配置
+     */
+    private final FeignIsolationSettings settings;
     /**
      * 是否需要隔离
      */
     private final boolean isolation;
-    private final JedisTools jedisTools;
     /**
-     * 服务IP
+     * 隔离路由本地缓存
+     */
+    private final IsolationRouteCache routeCache;
+    /**
+     * 指标埋点
+     */
+    private final IsolationMetrics metrics;
+    /**
+     * 路由决策采样记录
+     */
+    private final IsolationDecisionRecorder recorder = new IsolationDecisionRecorder(DECISION_TRACE_CAPACITY, DECISION_TRACE_SAMPLE_RATE);
+    /**
+     * 隔离服务名后缀（数值IP），与配置刷新无关
+     */
+    private final String serviceIsolationSuffix;
+    /**
+     * 是否按上游透传的隔离标签路由
      */
-    private final String localIpAddr = NetworkUtil.getLocalIpAddr();
+    private final boolean propagateTag;
     /**
-     * 默认环境IP
+     * 是否由LoadBalancer按实例元数据选择隔离实例
      */
-    private final String defaultIp = FeignIsolationConfiguration.defaultIp();
+    private final boolean instanceMetadata;
     /**
-     * 强制隔离IPS
+     * 隔离服务连续失败降级阈值，小于等于0时不降级
      */
-    private final List<String> isolationIps = FeignIsolationConfiguration.isolationIps();
+    private final int routeFailureThreshold;
+    private final long routeCoolOffSeconds;
     /**
-     * 需要跳过隔离的服务
+     * 隔离服务慢调用阈值（纳秒），小于等于0时不统计慢调用
      */
-    private final List<String> skipIsolationServices = FeignIsolationConfiguration.skipIsolationServices();
+    private final long routeSlowCallNanos;
     /**
-     * 隔离服务标识
+     * 已创建的隔离Target，供启动预热使用，预热时取出
      */
-    private final String serviceSign = FeignIsolationConfiguration.serviceSign();
+    private final Queue<IsolationTarget<?>> targets = new ConcurrentLinkedQueue<>();
     /**
-     * 数值IP
+     * 是否登记隔离Target，未开启预热或预热执行后不再登记，避免运行期创建的Target持续堆积
      */
-    private final BigDecimal ipNumber = NumberUtil.getNumber(localIpAddr);
+    private volatile boolean prewarmPending;
     /**
-     * 自定义后缀
+     * 已添加的Capability，容器中所有FeignClient共用同一个构建器，同一Capability只添加一次
      */
-    private final String serviceIsolationSuffix = String.valueOf(ipNumber);
+    private final Set<Capability> capabilities = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    public FeignBuilderHelper(FeignIsolationSettings settings, boolean isolation, JedisTools jedisTools) {
+        this(settings, isolation, jedisTools == null ? null : new RedisIsolationRegistry(jedisTools));
+    }
+
+    public FeignBuilderHelper(FeignIsolationSettings settings, boolean isolation, IsolationRegistry registry) {
+        this(settings, isolation, registry == null ? null : new IsolationRouteCache(registry, NetworkUtil.getLocalIpAddr(), HEARTBEAT_EXPIRE_SECONDS));
+    }
 
-    public FeignBuilderHelper(boolean isolation, JedisTools jedisTools) {
+    FeignBuilderHelper(FeignIsolationSettings settings, boolean isolation, IsolationRouteCache routeCache) {
+        this(settings, isolation, routeCache, IsolationMetrics.NOOP);
+    }
+
+    FeignBuilderHelper(FeignIsolationSettings settings, boolean isolation, IsolationRouteCache routeCache, IsolationMetrics metrics) {
         super();
+        this.settings = settings;
         this.isolation = isolation;
-        this.jedisTools = jedisTools;
+        this.routeCache = routeCache;
+        this.metrics = metrics;
+        this.serviceIsolationSuffix = settings.decisionPlan().serviceIsolationSuffix();
+        this.propagateTag = settings.propagateTag();
+        this.instanceMetadata = settings.routing() == IsolationRoutingMode.INSTANCE_METADATA;
+        this.routeFailureThreshold = settings.routeFailureThreshold();
+        this.routeCoolOffSeconds = settings.routeCoolOffSeconds();
+        this.routeSlowCallNanos = TimeUnit.MILLISECONDS.toNanos(settings.routeSlowCallMillis());
+        this.prewarmPending = isolation && settings.prewarmTimeoutMillis() > 0;
     }
 
-    /**
-     * index1:uri
-     * index2:suffix
-     * index3:path
-     */
-    private static final String DYNAMIC_URL = "%s" + FeignIsolationConstants.ISOLATION_SYMBOL + "%s%s";
-
     /**
      * 发起feign请求时触发
      *
@@ -79,50 +132,440 @@ public class FeignBuilderHelper extends Feign.Builder {
      */
     @Override
     public <T> T target(Target<T> target) {
-        return super.target(new Target.HardCodedTarget<>(target.type(), target.name(), target.url()) {
-            @Override
-            public String url() {
-                if (!isolation) {
-                    // 环境未命中，不启用隔离
-                    return super.url();
-                }
+        return super.target(isolationTarget(target));
+    }
 
-                final String urlStr = super.url();
-                final URL url = URLUtil.url(urlStr);
-                final String host = url.getHost();
-                final String uri = URLUtil.getHost(url).toString();
-                final String path = url.getPath();
+    /**
+     * 环境命中时包装Client，按调用结果统计隔离服务健康度
+     */
+    @Override
+    public Feign.Builder client(Client client) {
+        return super.client(isolation && routeFailureThreshold > 0 ? new HealthTrackingClient(client) : client);
+    }
 
-                if (StringUtil.equals(defaultIp, localIpAddr)) {
-                    // 当前IP地址为默认服务IP地址，无需隔离
-                    return super.url();
-                }
+    /**
+     * FeignClientFactoryBean每构建一个客户端都会添加一次容器中的Capability，Feign按添加次数逐层包装Client，
+     * 共用构建器时忽略已添加的Capability，避免第N个客户端被包装N层
+     */
+    @Override
+    public synchronized Feign.Builder addCapability(Capability capability) {
+        if (!capabilities.add(capability)) {
+            return this;
+        }
+        return super.addCapability(capability);
+    }
 
-                if (!urlStr.contains(serviceSign)) {
-                    // 请求url不是指定的服务标识不隔离
-                    return super.url();
+    /**
+     * 包装隔离Target，同步客户端与{@link AsyncFeignBuilderHelper}共用同一份路由缓存与预热登记
+     *
+     * @param target Feign#Target
+     * @return 隔离Target
+     */
+    <T> Target<T> isolationTarget(Target<T> target) {
+        final IsolationTarget<T> isolationTarget = new IsolationTarget<>(target);
+        if (prewarmPending) {
+            targets.add(isolationTarget);
+        }
+        return isolationTarget;
+    }
+
+    /**
+     * 启动预热：批量解析已创建Target的隔离决策，需查询注册中心的目标服务合并为一次批量加载
+     * <p>
+     * 只执行一次，取出已登记的Target后不再登记；解析不经过请求路径，不消耗半开探测机会，也不记录指标与决策采样
+     *
+     * @param timeoutMillis 等待注册中心查询的最长时间（毫秒）
+     * @return 各Target按当前决策实际调用的serviceId，显式指定端口的Target不经过LoadBalancer，不包含在内
+     */
+    Set<String> prewarm(long timeoutMillis) {
+        prewarmPending = false;
+        final List<IsolationTarget<?>> pending = new ArrayList<>();
+        for (IsolationTarget<?> target = targets.poll(); target != null; target = targets.poll()) {
+            pending.add(target);
+        }
+        if (pending.isEmpty()) {
+            return Collections.emptySet();
+        }
+        if (routeCache != null && !instanceMetadata) {
+            final Map<String, String> services = new HashMap<>();
+            for (IsolationTarget<?> target : pending) {
+                if (target.resolution().fixedDecision == null) {
+                    services.put(target.host, target.isolationService);
                 }
+            }
+            try {
+                routeCache.prefetch(services).get(timeoutMillis, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException | ExecutionException e) {
+                // 未完成的查询继续在后台执行，首次请求先走默认服务
+                log.warn("Feign isolation route prewarm incomplete, services:{}", services.keySet());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        final Set<String> serviceIds = new LinkedHashSet<>();
+        for (IsolationTarget<?> target : pending) {
+            final String serviceId = target.serviceId();
+            if (serviceId != null) {
+                serviceIds.add(serviceId);
+            }
+        }
+        return serviceIds;
+    }
+
+    IsolationRouteCache routeCache() {
+        return routeCache;
+    }
+
+    IsolationDecisionRecorder recorder() {
+        return recorder;
+    }
+
+    /**
+     * 隔离Target
+     * <p>
+     * 同一Target的url、host、path、隔离服务名及隔离/默认两个候选地址都是固定的，创建时一次性解析；
+     * 与注册中心无关的决策按当前{@link IsolationDecisionPlan}计算后缓存，配置刷新后的首次请求重新计算，
+     * 每次请求最多查询一次本地路由缓存
+     */
+    private class IsolationTarget<T> extends Target.HardCodedTarget<T> {
+
+        /**
+         * 目标服务host
+         */
+        private final String host;
+        /**
+         * 协议+host
+         */
+        private final String uri;
+        /**
+         * 隔离服务名：host-suffix
+         */
+        private final String isolationService;
+        /**
+         * 隔离服务名在过滤器中的哈希，创建时计算一次
+         */
+        private final long isolationServiceHash;
+        /**
+         * 默认服务地址
+         */
+        private final String defaultUrl;
+        /**
+         * 隔离服务地址：uri-suffix/path
+         */
+        private final String isolationUrl;
+        /**
+         * 请求路径
+         */
+        private final String path;
+        /**
+         * 按当前隔离决策计划解析的决策
+         */
+        private volatile Resolution resolution;
+        /**
+         * 是否通过LoadBalancer按服务名调用，地址中显式指定端口时为false
+         */
+        private final boolean loadBalanced;
+        /**
+         * 隔离服务健康度，连续失败后在冷却期内降级到默认服务，不降级时为null
+         */
+        private final IsolationCircuitBreaker health;
+        /**
+         * 路由决策指标
+         */
+        private final IsolationMetrics.RouteMeter meter;
+        /**
+         * 上一次透传标签对应的其他环境隔离服务，标签不变时直接复用
+         */
+        private volatile TaggedRoute taggedRoute;
+
+        private IsolationTarget(Target<T> target) {
+            super(target.type(), target.name(), target.url());
+            this.defaultUrl = target.url();
+            if (!isolation) {
+                this.resolution = Resolution.DISABLED;
+                this.meter = IsolationMetrics.RouteMeter.NOOP;
+                // 环境未命中，无需解析
+                this.host = null;
+                this.uri = null;
+                this.isolationService = null;
+                this.isolationServiceHash = 0L;
+                this.isolationUrl = defaultUrl;
+                this.path = null;
+                this.loadBalanced = false;
+                this.health = null;
+                return;
+            }
+            final URL url = URLUtil.url(defaultUrl);
+            this.host = url.getHost();
+            this.uri = URLUtil.getHost(url).toString();
+            this.isolationService = host + FeignIsolationConstants.ISOLATION_SYMBOL + serviceIsolationSuffix;
+            this.isolationServiceHash = IsolationServiceFilter.hash(isolationService);
+            this.path = url.getPath();
+            this.isolationUrl = uri + FeignIsolationConstants.ISOLATION_SYMBOL + serviceIsolationSuffix + path;
+            this.resolution = Resolution.of(settings.decisionPlan(), defaultUrl, uri);
+            this.loadBalanced = url.getPort() < 0;
+            // 配置刷新后固定决策可能变化，健康度按是否可能查询注册中心创建
+            this.health = routeFailureThreshold > 0 && !instanceMetadata ?
+                    new IsolationCircuitBreaker("route " + isolationService, routeFailureThreshold, routeCoolOffSeconds) : null;
+            this.meter = metrics.route(host);
+        }
 
-                // 符合强制隔离IP要求
-                if (ListUtil.anyMatch(isolationIps, isolationIp -> isolationIp.equals(localIpAddr))) {
-                    if (ListUtil.anyMatch(skipIsolationServices, skipIsolationService -> skipIsolationService.equals(uri))) {
-                        // 需要强制隔离的ip，但同时又配置在了skipIsolationServices中
-                        return super.url();
-                    } else {
-                        // 需要强制隔离的ip
-                        return String.format(DYNAMIC_URL, uri, serviceIsolationSuffix, path);
-                    }
+        @Override
+        public String url() {
+            if (instanceMetadata) {
+                // 保持原serviceId，隔离实例由请求头指定
+                return defaultUrl;
+            }
+            final long start = meter.start();
+            final long traceStart = recorder.start();
+            final Resolution resolved = resolution();
+            final String tag = resolved.fixedDecision == null && propagateTag ? IsolationTagContext.get() : null;
+            final RouteDecision decision = decide(resolved, tag);
+            meter.record(decision, start);
+            recorder.record(traceStart, name(), isolationService, decision, tag);
+            if (decision == RouteDecision.TAGGED) {
+                return taggedRoute(tag, IsolationTagContext.ip()).url;
+            }
+            return decision.isolated() ? isolationUrl : defaultUrl;
+        }
+
+        @Override
+        public Request apply(RequestTemplate input) {
+            if (instanceMetadata && isolation) {
+                // 重试时会再次执行，先移除上一次的请求头
+                input.removeHeader(FeignIsolationConstants.ISOLATION_INSTANCE_HEADER);
+                final String instance = isolationInstance();
+                if (instance != null) {
+                    input.header(FeignIsolationConstants.ISOLATION_INSTANCE_HEADER, instance);
                 }
+            }
+            return super.apply(input);
+        }
+
+        /**
+         * INSTANCE_METADATA模式下的目标隔离实例后缀
+         *
+         * @return 隔离后缀，调用默认实例时为null
+         */
+        private String isolationInstance() {
+            final long start = meter.start();
+            final long traceStart = recorder.start();
+            final Resolution resolved = resolution();
+            final String tag = resolved.fixedDecision == null && propagateTag ? IsolationTagContext.get() : null;
+            final RouteDecision decision = decide(resolved, tag);
+            meter.record(decision, start);
+            recorder.record(traceStart, name(), isolationService, decision, tag);
+            if (decision == RouteDecision.TAGGED) {
+                return tag;
+            }
+            return decision.isolated() ? serviceIsolationSuffix : null;
+        }
+
+        /**
+         * 按当前决策实际调用的serviceId，不经过LoadBalancer时为null
+         * <p>
+         * 只读取路由缓存与健康度的当前状态，不触发后台刷新与半开探测
+         */
+        private String serviceId() {
+            if (!loadBalanced) {
+                return null;
+            }
+            if (instanceMetadata) {
+                return host;
+            }
+            final Resolution resolved = resolution();
+            if (resolved.fixedDecision != null) {
+                return resolved.fixedDecision.isolated() ? isolationService : host;
+            }
+            final boolean isolated = routeCache.peek(host, isolationServiceHash) && (health == null || !health.isOpen());
+            return isolated ? isolationService : host;
+        }
+
+        /**
+         * 当前隔离决策计划下的决策，计划被刷新替换时重新解析
+         */
+        private Resolution resolution() {
+            final Resolution current = resolution;
+            if (!isolation) {
+                return current;
+            }
+            final IsolationDecisionPlan plan = settings.decisionPlan();
+            if (current.plan == plan) {
+                return current;
+            }
+            // 并发重新解析时结果相同，无需加锁
+            final Resolution next = Resolution.of(plan, defaultUrl, uri);
+            resolution = next;
+            return next;
+        }
 
-                String key = FEIGN_REDIS_KEY_PREFIX + localIpAddr + ":" + host + FeignIsolationConstants.ISOLATION_SYMBOL + serviceIsolationSuffix;
-                String applicationName = jedisTools.get(key);
-                if (StringUtil.hasText(applicationName)) {
-                    return String.format(DYNAMIC_URL, uri, serviceIsolationSuffix, path);
-                } else {
-                    return super.url();
+        private RouteDecision decide(Resolution resolved, String tag) {
+            if (resolved.fixedDecision != null) {
+                return resolved.fixedDecision;
+            }
+            if (tag != null) {
+                if (resolved.skipped) {
+                    return RouteDecision.SKIPPED;
+                }
+                if (instanceMetadata) {
+                    // 隔离实例由LoadBalancer按标签选择，不存在时回退到默认实例
+                    return RouteDecision.TAGGED;
                 }
+                if (!tag.equals(serviceIsolationSuffix)) {
+                    // 标签指向其他环境，按标签所属IP确认该环境部署了目标服务，未部署或未透传IP时调用默认服务
+                    final TaggedRoute tagged = taggedRoute(tag, IsolationTagContext.ip());
+                    return tagged.ip != null && routeCache.isolatedAt(tagged.routeKey, tagged.ip, tagged.serviceName) ?
+                            RouteDecision.TAGGED : RouteDecision.REGISTRY_MISS;
+                }
+                // 标签即当前环境，与未透传标签时一样由注册中心确认
+            }
+            if (instanceMetadata) {
+                // 是否存在隔离实例由LoadBalancer判断，不存在时回退到默认实例
+                return RouteDecision.INSTANCE_METADATA;
+            }
+            if (!routeCache.isolated(host, isolationService, isolationServiceHash)) {
+                return RouteDecision.REGISTRY_MISS;
+            }
+            return health == null || health.allowRequest() ? RouteDecision.REGISTRY_HIT : RouteDecision.UNHEALTHY;
+        }
+
+        /**
+         * 请求是否发往本Target的隔离服务：uri-suffix，其后为路径、参数或结尾
+         */
+        private boolean routedIsolated(String requestUrl) {
+            final int end = isolationUrl.length() - path.length();
+            if (!requestUrl.regionMatches(0, isolationUrl, 0, end)) {
+                return false;
+            }
+            return requestUrl.length() == end || requestUrl.charAt(end) == '/' || requestUrl.charAt(end) == '?';
+        }
+
+        /**
+         * 隔离标签对应的其他环境隔离服务
+         */
+        private TaggedRoute taggedRoute(String tag, String ip) {
+            final TaggedRoute current = taggedRoute;
+            if (current != null && current.tag.equals(tag) && Objects.equals(current.ip, ip)) {
+                return current;
+            }
+            final String serviceName = host + FeignIsolationConstants.ISOLATION_SYMBOL + tag;
+            final TaggedRoute next = new TaggedRoute(tag, ip, serviceName,
+                    ip == null ? null : IsolationRouteCache.routeKey(ip, serviceName),
+                    uri + FeignIsolationConstants.ISOLATION_SYMBOL + tag + path);
+            taggedRoute = next;
+            return next;
+        }
+
+    }
+
+    /**
+     * 透传标签对应的其他环境隔离服务，不可变
+     */
+    private static final class TaggedRoute {
+
+        private final String tag;
+        /**
+         * 标签所属IP，上游未透传时为null
+         */
+        private final String ip;
+        /**
+         * 隔离服务名：host-tag
+         */
+        private final String serviceName;
+        /**
+         * 路由缓存key
+         */
+        private final String routeKey;
+        /**
+         * 隔离服务地址：uri-tag/path
+         */
+        private final String url;
+
+        private TaggedRoute(String tag, String ip, String serviceName, String routeKey, String url) {
+            this.tag = tag;
+            this.ip = ip;
+            this.serviceName = serviceName;
+            this.routeKey = routeKey;
+            this.url = url;
+        }
+
+    }
+
+    /**
+     * 隔离Target在某一隔离决策计划下的解析结果，不可变
+     */
+    private static final class Resolution {
+
+        private static final Resolution DISABLED = new Resolution(null, false, RouteDecision.DISABLED);
+
+        /**
+         * 解析时使用的隔离决策计划
+         */
+        private final IsolationDecisionPlan plan;
+        /**
+         * 是否为需要跳过隔离的服务
+         */
+        private final boolean skipped;
+        /**
+         * 与注册中心无关的固定决策，需查询注册中心时为null
+         */
+        private final RouteDecision fixedDecision;
+
+        private Resolution(IsolationDecisionPlan plan, boolean skipped, RouteDecision fixedDecision) {
+            this.plan = plan;
+            this.skipped = skipped;
+            this.fixedDecision = fixedDecision;
+        }
+
+        private static Resolution of(IsolationDecisionPlan plan, String url, String uri) {
+            return new Resolution(plan, plan.skipped(uri), plan.decide(url, uri));
+        }
+
+    }
+
+    /**
+     * 统计发往隔离服务的调用结果：连接异常、429/502/503/504及慢调用视为失败，其余视为成功
+     */
+    private final class HealthTrackingClient implements Client {
+
+        private final Client delegate;
+
+        private HealthTrackingClient(Client delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public Response execute(Request request, Request.Options options) throws IOException {
+            final Target<?> target = request.requestTemplate() == null ? null : request.requestTemplate().feignTarget();
+            if (!(target instanceof IsolationTarget)) {
+                return delegate.execute(request, options);
+            }
+            final IsolationTarget<?> isolationTarget = (IsolationTarget<?>) target;
+            final IsolationCircuitBreaker health = isolationTarget.health;
+            if (health == null || isolationTarget.resolution().fixedDecision != null || !isolationTarget.routedIsolated(request.url())) {
+                return delegate.execute(request, options);
+            }
+            final long start = System.nanoTime();
+            final Response response;
+            try {
+                response = delegate.execute(request, options);
+            } catch (IOException | RuntimeException e) {
+                health.onFailure();
+                throw e;
             }
-        });
+            final long nanos = System.nanoTime() - start;
+            if (unhealthy(response.status()) || routeSlowCallNanos > 0 && nanos > routeSlowCallNanos) {
+                health.onFailure();
+            } else {
+                health.onSuccess();
+            }
+            return response;
+        }
+
+        private boolean unhealthy(int status) {
+            return status == 429 || status == 502 || status == 503 || status == 504;
+        }
+
     }
 
 }
@@ -2,6 +2,7 @@ package io.github.hyuga0410.feign.isolation;
 
 import cn.hyugatool.core.string.StringUtil;
 import io.github.hyuga0410.feign.EnvironmentConstants;
+import io.github.hyuga0410.feign.isolation.registry.IsolationRegistryType;
 import org.springframework.context.annotation.Import;
 
 import java.lang.annotation.*;
@@ -55,14 +56,76 @@ public @interface FeignIsolation {
     String serviceSign() default StringUtil.EMPTY;
 
     /**
-     * Redis地址配置路径
+     * 隔离路由方式
+     * <p>
+     * INSTANCE_METADATA模式下隔离服务保持原服务名注册，隔离后缀写入实例元数据，不使用隔离服务注册中心，需引入spring-cloud-loadbalancer
+     */
+    IsolationRoutingMode routing() default IsolationRoutingMode.SERVICE_ID;
+
+    /**
+     * 是否透传隔离标签
+     * <p>
+     * 开启后入口服务通过请求头{@value FeignIsolationConstants#ISOLATION_TAG_HEADER}向下游透传隔离后缀及其所属IP，
+     * 下游的隔离环境服务按标签调用同一环境的服务，调用前在注册中心确认该环境部署了被调用的服务，未部署时调用默认服务；
+     * 默认环境服务只透传标签，不按标签路由
+     */
+    boolean propagateTag() default false;
+
+    /**
+     * 隔离服务注册中心，声明{@link io.github.hyuga0410.feign.isolation.registry.IsolationRegistry}类型的Bean时以Bean为准
+     */
+    IsolationRegistryType registry() default IsolationRegistryType.REDIS;
+
+    /**
+     * 注册中心单次查询耗时预算（毫秒），超出预算视为失败
+     */
+    long registryTimeoutMillis() default FeignIsolationConstants.REGISTRY_TIMEOUT_MILLIS;
+
+    /**
+     * 注册中心连续失败熔断阈值，熔断期间路由使用本地缓存的旧值，无缓存时走默认服务
+     */
+    int circuitBreakerFailureThreshold() default FeignIsolationConstants.CIRCUIT_BREAKER_FAILURE_THRESHOLD;
+
+    /**
+     * 注册中心熔断时间（秒），结束后在后台进行一次半开探测
+     */
+    long circuitBreakerOpenSeconds() default FeignIsolationConstants.CIRCUIT_BREAKER_OPEN_SECONDS;
+
+    /**
+     * 隔离服务连续调用失败（连接异常、429/502/503/504或慢调用）降级阈值，小于等于0时不降级，默认不降级
+     * <p>
+     * 心跳key在隔离服务失去响应后仍会保留一段时间，达到阈值后该隔离服务在冷却期内改为调用默认服务，
+     * 冷却结束后放行一次探测请求，成功即恢复；只作用于注册中心命中的隔离路由，强制隔离与透传标签不降级
+     */
+    int routeFailureThreshold() default FeignIsolationConstants.ROUTE_FAILURE_THRESHOLD;
+
+    /**
+     * 隔离服务降级冷却时间（秒）
      */
-    String redisUrlPath();
+    long routeCoolOffSeconds() default FeignIsolationConstants.ROUTE_COOL_OFF_SECONDS;
 
     /**
-     * Redis端口配置路径
+     * 隔离服务慢调用阈值（毫秒），耗时超出时视为一次失败，小于等于0时不统计慢调用
      */
-    String redisPortPath();
+    long routeSlowCallMillis() default FeignIsolationConstants.ROUTE_SLOW_CALL_MILLIS;
+
+    /**
+     * 启动预热最长等待时间（毫秒），小于等于0时不预热
+     * <p>
+     * 应用就绪前批量解析所有Feign客户端的隔离路由，并初始化对应serviceId的LoadBalancer子容器与实例列表，
+     * 超时未完成的部分在后台继续执行，不阻塞启动
+     */
+    long prewarmTimeoutMillis() default FeignIsolationConstants.PREWARM_TIMEOUT_MILLIS;
+
+    /**
+     * Redis地址配置路径，registry为REDIS/LETTUCE/REDIS_HASH时必填
+     */
+    String redisUrlPath() default StringUtil.EMPTY;
+
+    /**
+     * Redis端口配置路径，registry为REDIS/LETTUCE/REDIS_HASH时必填
+     */
+    String redisPortPath() default StringUtil.EMPTY;
 
     /**
      * Redis用户名配置路径
@@ -74,4 +137,54 @@ public @interface FeignIsolation {
      */
     String redisPwdPath() default StringUtil.EMPTY;
 
+    /**
+     * 是否自动开启Redis键空间通知，registry为REDIS/LETTUCE/SPRING_DATA_REDIS时使用
+     * <p>
+     * 开启后启动时通过CONFIG SET补齐notify-keyspace-events（Kg$x），该配置对Redis中所有key生效，共享Redis请谨慎开启；
+     * 关闭时只校验并输出警告，需在服务端手动配置，否则隔离服务上下线只能随路由缓存过期生效
+     */
+    boolean configureKeyspaceEvents() default false;
+
+    /**
+     * Redis连接池最大连接数，registry为REDIS/REDIS_HASH时使用
+     * <p>
+     * feign请求线程不直接访问Redis，只有路由刷新、心跳与键空间订阅三个后台线程使用连接
+     */
+    int redisPoolMaxTotal() default FeignIsolationConstants.REDIS_POOL_MAX_TOTAL;
+
+    /**
+     * Redis连接池最小空闲连接数，registry为REDIS/REDIS_HASH时使用
+     */
+    int redisPoolMinIdle() default FeignIsolationConstants.REDIS_POOL_MIN_IDLE;
+
+    /**
+     * Redis连接池获取连接最大等待时间（毫秒），registry为REDIS/REDIS_HASH时使用
+     */
+    long redisPoolMaxWaitMillis() default FeignIsolationConstants.REDIS_POOL_MAX_WAIT_MILLIS;
+
+    /**
+     * Nacos地址配置路径，registry为NACOS时使用
+     */
+    String nacosServerAddrPath() default "spring.cloud.nacos.discovery.server-addr";
+
+    /**
+     * Nacos命名空间配置路径
+     */
+    String nacosNamespacePath() default "spring.cloud.nacos.discovery.namespace";
+
+    /**
+     * Nacos分组配置路径
+     */
+    String nacosGroupPath() default "spring.cloud.nacos.discovery.group";
+
+    /**
+     * Nacos用户名配置路径
+     */
+    String nacosUserPath() default "spring.cloud.nacos.discovery.username";
+
+    /**
+     * Nacos密码配置路径
+     */
+    String nacosPwdPath() default "spring.cloud.nacos.discovery.password";
+
 }
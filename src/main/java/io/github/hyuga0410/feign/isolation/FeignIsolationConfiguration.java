@@ -2,25 +2,35 @@ package io.github.hyuga0410.feign.isolation;
 
 import cn.hyugatool.core.collection.ArrayUtil;
 import cn.hyugatool.core.number.NumberUtil;
-import cn.hyugatool.core.string.StringPoundSignUtil;
 import cn.hyugatool.core.string.StringUtil;
 import cn.hyugatool.system.NetworkUtil;
+import io.github.hyuga0410.feign.isolation.loadbalancer.IsolationLoadBalancerConfiguration;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.support.AbstractBeanDefinition;
+import org.springframework.beans.factory.support.BeanDefinitionBuilder;
 import org.springframework.beans.factory.support.BeanDefinitionRegistry;
 import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.cloud.loadbalancer.annotation.LoadBalancerClientSpecification;
 import org.springframework.context.annotation.ImportBeanDefinitionRegistrar;
+import org.springframework.core.env.ConfigurableEnvironment;
 import org.springframework.core.env.Environment;
+import org.springframework.core.env.MapPropertySource;
 import org.springframework.core.type.AnnotationMetadata;
 import org.springframework.lang.NonNull;
 import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
 
 import java.math.BigDecimal;
 import java.util.Arrays;
-import java.util.List;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.Map;
 
 /**
  * Feign Isolation Configuration
+ * <p>
+ * 注解属性读取为{@link FeignIsolationSettings}并注册到当前容器，隔离后缀写入当前容器的环境，
+ * 同一JVM中隔离配置不同的多个容器可并行启动
  *
  * @author hyuga
  * @since 2022/01/07
@@ -29,60 +39,26 @@ import java.util.Map;
 @Component
 public class FeignIsolationConfiguration implements ImportBeanDefinitionRegistrar {
 
+    private static final String SERVLET_FILTER_CLASS = "javax.servlet.Filter";
+    private static final String ENVIRONMENT_CHANGE_EVENT_CLASS = "org.springframework.cloud.context.environment.EnvironmentChangeEvent";
+    private static final String ACTUATOR_ENDPOINT_CLASS = "org.springframework.boot.actuate.endpoint.annotation.Endpoint";
+    private static final String LOAD_BALANCER_SPECIFICATION_CLASS = "org.springframework.cloud.loadbalancer.annotation.LoadBalancerClientSpecification";
+    private static final String LOAD_BALANCER_SPECIFICATION_NAME = "default." + IsolationLoadBalancerConfiguration.class.getName();
+    private static final String INSTANCE_METADATA_PROPERTY_SOURCE = "feignIsolationInstanceMetadata";
+    private static final String SUFFIX_PROPERTY_SOURCE = "feignIsolationSuffix";
+    /**
+     * 各注册中心的实例元数据配置前缀
+     */
+    private static final String[] INSTANCE_METADATA_PREFIXES = {
+            "spring.cloud.nacos.discovery.metadata.",
+            "eureka.instance.metadata-map.",
+            "spring.cloud.consul.discovery.metadata."
+    };
+
     // Server IP address
 
     private final String localIpAddr = NetworkUtil.getLocalIpAddr();
 
-    // Configuration attributes
-
-    private static String DEFAULT_IP;
-    private static String SERVICE_SIGN;
-    private static String[] ENVIRONMENTS;
-    private static List<String> ISOLATION_IPS;
-    private static List<String> SKIP_ISOLATION_SERVICES;
-    private static String REDIS_URL_PATH;
-    private static String REDIS_PORT_PATH;
-    private static String REDIS_USER_PATH;
-    private static String REDIS_PWD_PATH;
-
-    // Configuration attribute acquisition method
-
-    public static String defaultIp() {
-        return DEFAULT_IP;
-    }
-
-    public static String serviceSign() {
-        return SERVICE_SIGN;
-    }
-
-    public static String[] environments() {
-        return ENVIRONMENTS;
-    }
-
-    public static List<String> isolationIps() {
-        return ISOLATION_IPS;
-    }
-
-    public static List<String> skipIsolationServices() {
-        return SKIP_ISOLATION_SERVICES;
-    }
-
-    public static String redisUrlPath() {
-        return REDIS_URL_PATH;
-    }
-
-    public static String redisPortPath() {
-        return REDIS_PORT_PATH;
-    }
-
-    public static String redisUserPath() {
-        return REDIS_USER_PATH;
-    }
-
-    public static String redisPwdPath() {
-        return REDIS_PWD_PATH;
-    }
-
     /**
      * 根据导入{@code @Configuration}类的给定注释元数据，根据需要注册bean定义
      *
@@ -97,27 +73,53 @@ public class FeignIsolationConfiguration implements ImportBeanDefinitionRegistra
             return;
         }
 
-        DEFAULT_IP = (String) defaultAttrs.get("defaultIp");
-        ENVIRONMENTS = (String[]) defaultAttrs.get("environments");
-        SERVICE_SIGN = String.valueOf(defaultAttrs.get("serviceSign"));
-        ISOLATION_IPS = StringPoundSignUtil.parseSign((String) defaultAttrs.get("isolationIps"));
-        SKIP_ISOLATION_SERVICES = StringPoundSignUtil.parseSign((String) defaultAttrs.get("skipIsolationServices"));
-        REDIS_URL_PATH = (String) defaultAttrs.get("redisUrlPath");
-        REDIS_PORT_PATH = (String) defaultAttrs.get("redisPortPath");
-        REDIS_USER_PATH = (String) defaultAttrs.get("redisUserPath");
-        REDIS_PWD_PATH = (String) defaultAttrs.get("redisPwdPath");
-
-        boolean isDefaultEnv = StringUtil.equals(DEFAULT_IP, localIpAddr);
+        ConfigurableEnvironment environment = (ConfigurableEnvironment) ((DefaultListableBeanFactory) registry).getBean(Environment.class);
+        final FeignIsolationSettings settings = FeignIsolationSettings.of(defaultAttrs, environment);
+        final IsolationDecisionPlan plan = settings.decisionPlan();
+        registry.registerBeanDefinition(FeignIsolationSettings.class.getName(), BeanDefinitionBuilder
+                .genericBeanDefinition(FeignIsolationSettings.class, () -> settings)
+                .getBeanDefinition());
+        if (ClassUtils.isPresent(ENVIRONMENT_CHANGE_EVENT_CLASS, getClass().getClassLoader())) {
+            // 配置中心推送变更时刷新
+            registry.registerBeanDefinition(IsolationConfigRefresher.class.getName(), BeanDefinitionBuilder
+                    .genericBeanDefinition(IsolationConfigRefresher.class)
+                    .addConstructorArgValue(settings)
+                    .getBeanDefinition());
+        }
+
+        if (ClassUtils.isPresent(ACTUATOR_ENDPOINT_CLASS, getClass().getClassLoader())) {
+            // 诊断端点，是否对外暴露由management.endpoints配置决定
+            registry.registerBeanDefinition(FeignIsolationEndpoint.class.getName(), BeanDefinitionBuilder
+                    .genericBeanDefinition(FeignIsolationEndpoint.class)
+                    .setAutowireMode(AbstractBeanDefinition.AUTOWIRE_CONSTRUCTOR)
+                    .getBeanDefinition());
+        }
+
+        String[] activeProfiles = environment.getActiveProfiles();
+        boolean isolation = needIsolation(settings.environments(), activeProfiles);
+        boolean isDefaultEnv = plan.defaultEnvironment();
+        if (settings.propagateTag() && isolation) {
+            // 默认环境只透传上游标签
+            tagPropagation(registry, isDefaultEnv ? null : plan.serviceIsolationSuffix(), isDefaultEnv ? null : localIpAddr);
+        }
+        boolean instanceMetadata = isolation && settings.routing() == IsolationRoutingMode.INSTANCE_METADATA;
+        if (instanceMetadata) {
+            // 隔离实例与默认实例共用serviceId，默认环境同样需要按元数据选择实例
+            instanceSelection(registry);
+        }
+
         if (isDefaultEnv) {
             // 做为默认环境后缀为空
-            System.setProperty(FeignIsolationConstants.FEIGN_SUFFIX, StringUtil.EMPTY);
+            isolationSuffix(environment, StringUtil.EMPTY);
             return;
         }
 
-        String[] activeProfiles = ((DefaultListableBeanFactory) registry).getBean(Environment.class).getActiveProfiles();
-        if (needIsolation(activeProfiles)) {
+        if (instanceMetadata) {
+            // 非默认环境且环境命中，保持原服务名，隔离后缀写入实例元数据
+            instanceMetadataIsolation(environment, plan.serviceIsolationSuffix());
+        } else if (isolation) {
             // 非默认环境且环境命中
-            feignIsolation(localIpAddr);
+            feignIsolation(environment, localIpAddr);
         }
 
         log.info("Feign isolation successful initialization ~~~");
@@ -128,23 +130,88 @@ public class FeignIsolationConfiguration implements ImportBeanDefinitionRegistra
      *
      * @return - true:环境变量命中启用隔离 - false:环境变量未命中不启用隔离
      */
-    private boolean needIsolation(String[] activeProfiles) {
-        final String[] environments = FeignIsolationConfiguration.environments();
+    private boolean needIsolation(String[] environments, String[] activeProfiles) {
         final long count = Arrays.stream(activeProfiles).filter(profile -> ArrayUtil.contains(environments, profile)).count();
         return count > 0;
     }
 
+    /**
+     * 注册隔离标签透传：feign请求拦截器，以及Servlet环境下的请求头过滤器
+     *
+     * @param registry 当前bean定义注册表
+     * @param localTag 当前服务的隔离标签，默认环境为null
+     * @param localIp  当前服务IP，默认环境为null
+     */
+    private void tagPropagation(BeanDefinitionRegistry registry, String localTag, String localIp) {
+        registry.registerBeanDefinition(IsolationTagInterceptor.class.getName(), BeanDefinitionBuilder
+                .genericBeanDefinition(IsolationTagInterceptor.class)
+                .addConstructorArgValue(localTag)
+                .addConstructorArgValue(localIp)
+                .getBeanDefinition());
+        if (ClassUtils.isPresent(SERVLET_FILTER_CLASS, getClass().getClassLoader())) {
+            registry.registerBeanDefinition(IsolationTagFilter.class.getName(), BeanDefinitionBuilder
+                    .genericBeanDefinition(IsolationTagFilter.class)
+                    .getBeanDefinition());
+        }
+    }
+
+    /**
+     * 为所有LoadBalancer客户端注册按实例元数据选择实例的默认配置，与@LoadBalancerClients(defaultConfiguration = ...)等价，
+     * 该配置只包装各客户端已有的实例列表，不替换实例列表配置
+     *
+     * @param registry 当前bean定义注册表
+     */
+    private void instanceSelection(BeanDefinitionRegistry registry) {
+        if (!ClassUtils.isPresent(LOAD_BALANCER_SPECIFICATION_CLASS, getClass().getClassLoader())) {
+            throw new IllegalStateException("spring-cloud-loadbalancer is required for INSTANCE_METADATA routing.");
+        }
+        registry.registerBeanDefinition(LOAD_BALANCER_SPECIFICATION_NAME, BeanDefinitionBuilder
+                .genericBeanDefinition(LoadBalancerClientSpecification.class)
+                .addConstructorArgValue(LOAD_BALANCER_SPECIFICATION_NAME)
+                .addConstructorArgValue(new Class<?>[]{IsolationLoadBalancerConfiguration.class})
+                .getBeanDefinition());
+    }
+
+    /**
+     * 隔离后缀写入服务注册的实例元数据
+     *
+     * @param environment 当前环境
+     * @param suffix      隔离后缀
+     */
+    private void instanceMetadataIsolation(ConfigurableEnvironment environment, String suffix) {
+        // 服务名不追加后缀
+        isolationSuffix(environment, StringUtil.EMPTY);
+
+        Map<String, Object> metadata = new HashMap<>(4);
+        for (String metadataPrefix : INSTANCE_METADATA_PREFIXES) {
+            metadata.put(metadataPrefix + FeignIsolationConstants.FEIGN_SUFFIX, suffix);
+        }
+        environment.getPropertySources().addFirst(new MapPropertySource(INSTANCE_METADATA_PROPERTY_SOURCE, metadata));
+    }
+
     /**
      * 进此方法所有服务都将启用隔离
      *
+     * @param environment 当前环境
      * @param localIpAddr 当前服务IP
      */
-    private void feignIsolation(String localIpAddr) {
+    private void feignIsolation(ConfigurableEnvironment environment, String localIpAddr) {
         BigDecimal ipNumber = NumberUtil.getNumber(localIpAddr);
 
         String serviceIsolationSuffix = String.valueOf(FeignIsolationConstants.ISOLATION_SYMBOL) + ipNumber;
 
-        System.setProperty(FeignIsolationConstants.FEIGN_SUFFIX, serviceIsolationSuffix);
+        isolationSuffix(environment, serviceIsolationSuffix);
+    }
+
+    /**
+     * 隔离后缀写入当前容器的环境，只对当前容器的{@code ${feign-isolation-suffix}}生效
+     *
+     * @param environment 当前环境
+     * @param suffix      服务名后缀
+     */
+    private void isolationSuffix(ConfigurableEnvironment environment, String suffix) {
+        environment.getPropertySources().addFirst(new MapPropertySource(SUFFIX_PROPERTY_SOURCE,
+                Collections.singletonMap(FeignIsolationConstants.FEIGN_SUFFIX, suffix)));
     }
 
-}
\ No newline at end of file
+}
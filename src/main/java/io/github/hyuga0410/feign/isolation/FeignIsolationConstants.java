@@ -25,9 +25,119 @@ public interface FeignIsolationConstants {
      */
     String SPRING_APPLICATION_NAME = "spring.application.name";
 
+    /**
+     * 可刷新隔离配置的属性前缀，属性未设置时使用{@link FeignIsolation}中的值
+     */
+    String PROPERTY_PREFIX = "feign.isolation.";
+
+    /**
+     * 默认环境IP配置路径
+     */
+    String DEFAULT_IP_PROPERTY = PROPERTY_PREFIX + "default-ip";
+
+    /**
+     * 强制隔离IPS配置路径，多IP使用#拼接
+     */
+    String ISOLATION_IPS_PROPERTY = PROPERTY_PREFIX + "isolation-ips";
+
+    /**
+     * 跳过隔离的服务配置路径，#拼接
+     */
+    String SKIP_ISOLATION_SERVICES_PROPERTY = PROPERTY_PREFIX + "skip-isolation-services";
+
+    /**
+     * 隔离服务标识配置路径
+     */
+    String SERVICE_SIGN_PROPERTY = PROPERTY_PREFIX + "service-sign";
+
     /**
      * Feign隔离后缀
      */
     String FEIGN_SUFFIX = "feign-isolation-suffix";
 
+    /**
+     * 隔离标签请求头，值为入口服务的隔离后缀
+     */
+    String ISOLATION_TAG_HEADER = "X-Feign-Isolation";
+
+    /**
+     * 隔离标签所属环境的IP，下游按该IP在注册中心确认标签对应的隔离服务
+     */
+    String ISOLATION_TAG_IP_HEADER = "X-Feign-Isolation-Ip";
+
+    /**
+     * 目标隔离实例请求头，INSTANCE_METADATA模式下由LoadBalancer按实例元数据选择实例
+     */
+    String ISOLATION_INSTANCE_HEADER = "X-Feign-Isolation-Instance";
+
+    /**
+     * 服务名心跳注册间隔（秒）
+     */
+    long HEARTBEAT_INTERVAL_SECONDS = 6;
+
+    /**
+     * 服务名心跳注册过期时间（秒），同时做为本地隔离路由缓存的有效期
+     */
+    long HEARTBEAT_EXPIRE_SECONDS = 8;
+
+    /**
+     * 注册中心单次查询耗时预算（毫秒）
+     */
+    long REGISTRY_TIMEOUT_MILLIS = 200;
+
+    /**
+     * 注册中心连续失败熔断阈值
+     */
+    int CIRCUIT_BREAKER_FAILURE_THRESHOLD = 5;
+
+    /**
+     * 注册中心熔断时间（秒），结束后进行半开探测
+     */
+    long CIRCUIT_BREAKER_OPEN_SECONDS = 5;
+
+    /**
+     * Redis连接池最大连接数
+     */
+    int REDIS_POOL_MAX_TOTAL = 8;
+
+    /**
+     * Redis连接池最小空闲连接数
+     */
+    int REDIS_POOL_MIN_IDLE = 0;
+
+    /**
+     * Redis连接池获取连接最大等待时间（毫秒）
+     */
+    long REDIS_POOL_MAX_WAIT_MILLIS = 2000;
+
+    /**
+     * 启动预热最长等待时间（毫秒）
+     */
+    long PREWARM_TIMEOUT_MILLIS = 3000;
+
+    /**
+     * 隔离服务连续调用失败降级阈值，默认不降级，需显式开启
+     */
+    int ROUTE_FAILURE_THRESHOLD = 0;
+
+    /**
+     * 隔离服务降级冷却时间（秒）
+     */
+    long ROUTE_COOL_OFF_SECONDS = 10;
+
+    /**
+     * 隔离服务慢调用阈值（毫秒）
+     */
+    long ROUTE_SLOW_CALL_MILLIS = 3000;
+
+    /**
+     * 路由决策采样记录容量
+     */
+    int DECISION_TRACE_CAPACITY = 1024;
+
+    /**
+     * 路由决策采样率，每N次决策记录一次
+     */
+    int DECISION_TRACE_SAMPLE_RATE = 64;
+
 }
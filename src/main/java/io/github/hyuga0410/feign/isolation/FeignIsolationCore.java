@@ -2,22 +2,42 @@ package io.github.hyuga0410.feign.isolation;
 
 import cn.hyugatool.core.collection.ArrayUtil;
 import cn.hyugatool.core.lang.Assert;
-import cn.hyugatool.extra.concurrent.SleuthThreadScheduledPool;
+import cn.hyugatool.core.string.StringUtil;
 import cn.hyugatool.system.NetworkUtil;
+import com.alibaba.nacos.api.PropertyKeyConst;
+import com.alibaba.nacos.api.common.Constants;
+import com.alibaba.nacos.api.exception.NacosException;
+import com.alibaba.nacos.api.naming.NamingFactory;
+import io.github.hyuga0410.feign.isolation.loadbalancer.IsolationLoadBalancerWarmer;
+import io.github.hyuga0410.feign.isolation.registry.IsolationRegistry;
+import io.github.hyuga0410.feign.isolation.registry.IsolationRegistryType;
+import io.github.hyuga0410.feign.isolation.registry.LettuceIsolationRegistry;
+import io.github.hyuga0410.feign.isolation.registry.NacosIsolationRegistry;
+import io.github.hyuga0410.feign.isolation.registry.RedisHashIsolationRegistry;
+import io.github.hyuga0410.feign.isolation.registry.RedisIsolationRegistry;
+import io.github.hyuga0410.feign.isolation.registry.SpringDataRedisIsolationRegistry;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.config.ConfigurableBeanFactory;
 import org.springframework.boot.ApplicationArguments;
 import org.springframework.boot.ApplicationRunner;
+import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.context.ApplicationContext;
 import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Scope;
 import org.springframework.core.env.Environment;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
 
 import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import javax.annotation.Resource;
 import java.util.Arrays;
 import java.util.Objects;
-import java.util.concurrent.TimeUnit;
+import java.util.Properties;
+import java.util.Set;
 
-import static io.github.hyuga0410.feign.isolation.FeignIsolationConstants.FEIGN_REDIS_KEY_PREFIX;
+import static io.github.hyuga0410.feign.isolation.FeignIsolationConstants.HEARTBEAT_EXPIRE_SECONDS;
 
 /**
  * feign isolation核心类
@@ -29,20 +49,75 @@ import static io.github.hyuga0410.feign.isolation.FeignIsolationConstants.FEIGN_
 @Component
 public class FeignIsolationCore implements ApplicationRunner {
 
+    private static final String MICROMETER_REGISTRY_CLASS = "io.micrometer.core.instrument.MeterRegistry";
+    private static final String REDIS_CONNECTION_FACTORY_CLASS = "org.springframework.data.redis.connection.RedisConnectionFactory";
+    private static final String LOAD_BALANCER_CLIENT_FACTORY_CLASS = "org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory";
+
     @Resource
     private Environment environment;
 
-    private JedisTools jedisTools;
+    @Resource
+    private ApplicationContext applicationContext;
+
+    @Resource
+    private FeignIsolationSettings settings;
+
+    private IsolationRegistry registry;
+    /**
+     * 注册中心由组件创建时，随容器关闭一并释放
+     */
+    private boolean registryCreated;
+    private IsolationRouteCache routeCache;
+    private IsolationHeartbeat heartbeat;
+    private IsolationMetrics metrics = IsolationMetrics.NOOP;
 
     @PostConstruct
-    void jedisTools() {
+    void isolationRegistry() {
         if (!needIsolation()) {
             return;
         }
-        final String redisUrlPath = FeignIsolationConfiguration.redisUrlPath();
-        final String redisPortPath = FeignIsolationConfiguration.redisPortPath();
-        final String redisUserPath = FeignIsolationConfiguration.redisUserPath();
-        final String redisPwdPath = FeignIsolationConfiguration.redisPwdPath();
+        metrics = isolationMetrics();
+        if (instanceMetadataRouting()) {
+            // 由LoadBalancer按实例元数据选择隔离实例，无需隔离服务注册中心
+            return;
+        }
+        registry = applicationContext.getBeanProvider(IsolationRegistry.class).getIfAvailable();
+        if (registry == null) {
+            registry = createRegistry();
+            registryCreated = true;
+        }
+        final IsolationCircuitBreaker circuitBreaker = new IsolationCircuitBreaker(
+                settings.circuitBreakerFailureThreshold(), settings.circuitBreakerOpenSeconds());
+        routeCache = new IsolationRouteCache(registry, NetworkUtil.getLocalIpAddr(), HEARTBEAT_EXPIRE_SECONDS,
+                settings.registryTimeoutMillis(), circuitBreaker, metrics);
+    }
+
+    /**
+     * 引入Micrometer时启用指标，否则为空实现
+     */
+    private IsolationMetrics isolationMetrics() {
+        if (!ClassUtils.isPresent(MICROMETER_REGISTRY_CLASS, applicationContext.getClassLoader())) {
+            return IsolationMetrics.NOOP;
+        }
+        return MicrometerIsolationMetrics.of(applicationContext);
+    }
+
+    private IsolationRegistry createRegistry() {
+        final IsolationRegistryType registryType = settings.registry();
+        if (registryType == IsolationRegistryType.NACOS) {
+            return nacosRegistry();
+        }
+        if (registryType == IsolationRegistryType.SPRING_DATA_REDIS) {
+            return springDataRedisRegistry();
+        }
+        return redisRegistry(registryType);
+    }
+
+    private IsolationRegistry redisRegistry(IsolationRegistryType registryType) {
+        final String redisUrlPath = settings.redisUrlPath();
+        final String redisPortPath = settings.redisPortPath();
+        final String redisUserPath = settings.redisUserPath();
+        final String redisPwdPath = settings.redisPwdPath();
 
         Assert.notBlank(redisUrlPath, "redis url config path can not be null.");
         Assert.notBlank(redisPortPath, "redis url port config path can not be null.");
@@ -55,7 +130,71 @@ public class FeignIsolationCore implements ApplicationRunner {
         final String redisUser = environment.getProperty(redisUserPath);
         final String redisPassword = environment.getProperty(redisPwdPath);
 
-        jedisTools = new JedisTools(redisUrl, redisPort, redisUser, redisPassword);
+        if (registryType == IsolationRegistryType.LETTUCE) {
+            return new LettuceIsolationRegistry(redisUrl, redisPort, redisUser, redisPassword, settings.configureKeyspaceEvents());
+        }
+        final JedisTools jedisTools = new JedisTools(redisUrl, redisPort, redisUser, redisPassword,
+                settings.redisPoolMaxTotal(),
+                settings.redisPoolMinIdle(),
+                settings.redisPoolMaxWaitMillis());
+        metrics.pool(jedisTools);
+        if (registryType == IsolationRegistryType.REDIS_HASH) {
+            return new RedisHashIsolationRegistry(jedisTools);
+        }
+        return new RedisIsolationRegistry(jedisTools, settings.configureKeyspaceEvents());
+    }
+
+    /**
+     * 复用宿主应用的RedisConnectionFactory
+     */
+    private IsolationRegistry springDataRedisRegistry() {
+        if (!ClassUtils.isPresent(REDIS_CONNECTION_FACTORY_CLASS, applicationContext.getClassLoader())) {
+            throw new IllegalStateException("spring-data-redis is required for SPRING_DATA_REDIS registry.");
+        }
+        RedisConnectionFactory connectionFactory = applicationContext.getBeanProvider(RedisConnectionFactory.class).getIfAvailable();
+        if (connectionFactory == null) {
+            throw new IllegalStateException("RedisConnectionFactory bean can not be null.");
+        }
+        return new SpringDataRedisIsolationRegistry(connectionFactory, settings.configureKeyspaceEvents());
+    }
+
+    private IsolationRegistry nacosRegistry() {
+        final String serverAddr = environment.getProperty(settings.nacosServerAddrPath());
+        Assert.notBlank(serverAddr, "nacos server addr config can not be null.");
+
+        Properties properties = new Properties();
+        properties.setProperty(PropertyKeyConst.SERVER_ADDR, serverAddr);
+        putIfHasText(properties, PropertyKeyConst.NAMESPACE, settings.nacosNamespacePath());
+        putIfHasText(properties, PropertyKeyConst.USERNAME, settings.nacosUserPath());
+        putIfHasText(properties, PropertyKeyConst.PASSWORD, settings.nacosPwdPath());
+        final String group = environment.getProperty(settings.nacosGroupPath(), Constants.DEFAULT_GROUP);
+
+        try {
+            return new NacosIsolationRegistry(NamingFactory.createNamingService(properties), group);
+        } catch (NacosException e) {
+            throw new IllegalStateException("nacos naming service create failed.", e);
+        }
+    }
+
+    private void putIfHasText(Properties properties, String key, String configPath) {
+        final String value = StringUtil.hasText(configPath) ? environment.getProperty(configPath) : null;
+        if (StringUtil.hasText(value)) {
+            properties.setProperty(key, value);
+        }
+    }
+
+    @PreDestroy
+    void destroy() {
+        if (heartbeat != null) {
+            heartbeat.stop();
+        }
+        if (routeCache != null) {
+            // 先停止刷新线程，再关闭其使用的注册中心
+            routeCache.close();
+        }
+        if (registryCreated) {
+            registry.close();
+        }
     }
 
     /**
@@ -64,19 +203,32 @@ public class FeignIsolationCore implements ApplicationRunner {
      * @return - true:环境变量命中启用隔离 - false:环境变量未命中不启用隔离
      */
     private boolean needIsolation() {
-        final String[] environments = FeignIsolationConfiguration.environments();
+        final String[] environments = settings.environments();
         final String[] profiles = environment.getActiveProfiles();
         final long count = Arrays.stream(profiles).filter(profile -> ArrayUtil.contains(environments, profile)).count();
         return count > 0;
     }
 
+    private boolean instanceMetadataRouting() {
+        return settings.routing() == IsolationRoutingMode.INSTANCE_METADATA;
+    }
+
     /**
      * 创建FeignBuilderHelper，feign调用时执行
      */
     @Bean
     public FeignBuilderHelper feignBuilderHelper() {
         final boolean isolation = needIsolation();
-        return new FeignBuilderHelper(isolation, jedisTools);
+        return new FeignBuilderHelper(settings, isolation, routeCache, metrics);
+    }
+
+    /**
+     * 创建AsyncFeignBuilderHelper，与FeignBuilderHelper共用路由缓存；构建器有状态，每次注入一个新实例
+     */
+    @Bean
+    @Scope(ConfigurableBeanFactory.SCOPE_PROTOTYPE)
+    public AsyncFeignBuilderHelper<Object> asyncFeignBuilderHelper(FeignBuilderHelper feignBuilderHelper) {
+        return new AsyncFeignBuilderHelper<>(feignBuilderHelper);
     }
 
     @Override
@@ -88,25 +240,59 @@ public class FeignIsolationCore implements ApplicationRunner {
             return;
         }
 
-        String defaultIp = FeignIsolationConfiguration.defaultIp();
+        String defaultIp = settings.defaultIp();
         String localIpAddr = NetworkUtil.getLocalIpAddr();
         if (defaultIp.equals(localIpAddr)) {
             return;
         }
 
-        heartbeatRegistration(localIpAddr);
+        if (!instanceMetadataRouting()) {
+            heartbeatRegistration(localIpAddr);
+            routeSubscription(localIpAddr);
+        }
+
+        prewarm();
 
         log.info("Feign isolation startup successful ~~~");
     }
 
+    /**
+     * 启动预热，在应用就绪前完成：
+     * 1.实例化所有Feign客户端，批量解析隔离路由
+     * 2.初始化路由结果对应serviceId的LoadBalancer子容器并拉取实例列表
+     */
+    private void prewarm() {
+        final long timeoutMillis = settings.prewarmTimeoutMillis();
+        if (timeoutMillis <= 0) {
+            return;
+        }
+        final FeignBuilderHelper feignBuilderHelper = applicationContext.getBeanProvider(FeignBuilderHelper.class).getIfAvailable();
+        if (feignBuilderHelper == null) {
+            return;
+        }
+        final long start = System.currentTimeMillis();
+        // 延迟初始化的Feign客户端在此创建，Target经FeignBuilderHelper登记
+        applicationContext.getBeansWithAnnotation(FeignClient.class);
+        final Set<String> serviceIds = feignBuilderHelper.prewarm(timeoutMillis);
+        final long remainingMillis = timeoutMillis - (System.currentTimeMillis() - start);
+        if (remainingMillis > 0 && ClassUtils.isPresent(LOAD_BALANCER_CLIENT_FACTORY_CLASS, applicationContext.getClassLoader())) {
+            IsolationLoadBalancerWarmer.warm(applicationContext, serviceIds, remainingMillis);
+        }
+        log.info("Feign isolation prewarm finished, services:{}, cost:{}ms", serviceIds, System.currentTimeMillis() - start);
+    }
+
     private void heartbeatRegistration(String localIpAddr) {
         String springApplicationName = environment.getProperty(FeignIsolationConstants.SPRING_APPLICATION_NAME);
-        SleuthThreadScheduledPool.scheduleWithFixedDelay(() ->
-                {
-                    String key = FEIGN_REDIS_KEY_PREFIX + localIpAddr + ":" + springApplicationName;
-                    jedisTools.set(key, springApplicationName, 8);
-                }
-                , 1, 6, TimeUnit.SECONDS);
+        heartbeat = new IsolationHeartbeat(registry, metrics);
+        heartbeat.register(localIpAddr, springApplicationName);
+        heartbeat.start();
+    }
+
+    /**
+     * 订阅当前IP下隔离服务的上下线事件，实时更新本地隔离路由
+     */
+    private void routeSubscription(String localIpAddr) {
+        registry.subscribe(localIpAddr, routeCache);
     }
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,67 @@
+package io.github.hyuga0410.feign.isolation;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * FeignIsolationEndpoint
+ * <p>
+ * 隔离诊断端点：/actuator/feignisolation，输出当前隔离配置、路由缓存状态及最近采样的路由决策
+ * <p>
+ * 只在classpath中存在spring-boot-actuator时注册，需通过management.endpoints.web.exposure.include暴露
+ *
+ * @author hyuga
+ * @since 2026/10/17
+ */
+@Endpoint(id = "feignisolation")
+public class FeignIsolationEndpoint {
+
+    private final FeignIsolationSettings settings;
+    private final FeignBuilderHelper feignBuilderHelper;
+
+    public FeignIsolationEndpoint(FeignIsolationSettings settings, FeignBuilderHelper feignBuilderHelper) {
+        this.settings = settings;
+        this.feignBuilderHelper = feignBuilderHelper;
+    }
+
+    @ReadOperation
+    public Map<String, Object> isolation() {
+        final IsolationRouteCache routeCache = feignBuilderHelper.routeCache();
+        final IsolationDecisionRecorder recorder = feignBuilderHelper.recorder();
+        final Map<String, Object> decisions = new LinkedHashMap<>();
+        decisions.put("capacity", recorder.capacity());
+        decisions.put("sampleRate", recorder.sampleRate());
+        decisions.put("records", recorder.snapshot());
+
+        final Map<String, Object> result = new LinkedHashMap<>();
+        result.put("config", config());
+        result.put("cache", routeCache == null ? null : routeCache.state());
+        result.put("decisions", decisions);
+        return result;
+    }
+
+    private Map<String, Object> config() {
+        final Map<String, Object> config = new LinkedHashMap<>();
+        config.put("defaultIp", settings.defaultIp());
+        config.put("serviceSign", settings.serviceSign());
+        config.put("environments", settings.environments());
+        config.put("isolationIps", settings.isolationIps());
+        config.put("skipIsolationServices", settings.skipIsolationServices());
+        config.put("registry", settings.registry());
+        config.put("routing", settings.routing());
+        config.put("propagateTag", settings.propagateTag());
+        config.put("serviceIsolationSuffix", settings.decisionPlan().serviceIsolationSuffix());
+        config.put("registryTimeoutMillis", settings.registryTimeoutMillis());
+        config.put("circuitBreakerFailureThreshold", settings.circuitBreakerFailureThreshold());
+        config.put("circuitBreakerOpenSeconds", settings.circuitBreakerOpenSeconds());
+        config.put("prewarmTimeoutMillis", settings.prewarmTimeoutMillis());
+        config.put("routeFailureThreshold", settings.routeFailureThreshold());
+        config.put("routeCoolOffSeconds", settings.routeCoolOffSeconds());
+        config.put("routeSlowCallMillis", settings.routeSlowCallMillis());
+        return config;
+    }
+
+}
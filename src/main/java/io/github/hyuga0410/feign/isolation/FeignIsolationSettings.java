@@ -0,0 +1,245 @@
+package io.github.hyuga0410.feign.isolation;
+
+import cn.hyugatool.core.string.StringPoundSignUtil;
+import cn.hyugatool.core.string.StringUtil;
+import cn.hyugatool.system.NetworkUtil;
+import io.github.hyuga0410.feign.isolation.registry.IsolationRegistryType;
+import org.springframework.core.env.Environment;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * FeignIsolationSettings
+ * <p>
+ * 单个ApplicationContext的隔离配置，由{@link FeignIsolationConfiguration}按{@link FeignIsolation}属性创建并注册为Bean，
+ * 同一JVM中的多个容器各自持有一份，互不影响
+ * <p>
+ * defaultIp、isolationIps、skipIsolationServices、serviceSign编译为不可变的{@link IsolationDecisionPlan}，
+ * 可由{@value FeignIsolationConstants#PROPERTY_PREFIX}属性覆盖并在刷新时整体替换；其余配置启动后不变
+ *
+ * @author hyuga
+ * @since 2026/10/17
+ */
+public final class FeignIsolationSettings {
+
+    private final String[] environments;
+    /**
+     * 注解中的defaultIp、isolationIps、skipIsolationServices、serviceSign，配置属性未设置时使用
+     */
+    private final String defaultIp;
+    private final String isolationIps;
+    private final String skipIsolationServices;
+    private final String serviceSign;
+    private final String redisUrlPath;
+    private final String redisPortPath;
+    private final String redisUserPath;
+    private final String redisPwdPath;
+    private final IsolationRegistryType registry;
+    private final boolean configureKeyspaceEvents;
+    private final String nacosServerAddrPath;
+    private final String nacosNamespacePath;
+    private final String nacosGroupPath;
+    private final String nacosUserPath;
+    private final String nacosPwdPath;
+    private final long registryTimeoutMillis;
+    private final int circuitBreakerFailureThreshold;
+    private final long circuitBreakerOpenSeconds;
+    private final long prewarmTimeoutMillis;
+    private final int routeFailureThreshold;
+    private final long routeCoolOffSeconds;
+    private final long routeSlowCallMillis;
+    private final boolean propagateTag;
+    private final IsolationRoutingMode routing;
+    private final int redisPoolMaxTotal;
+    private final int redisPoolMinIdle;
+    private final long redisPoolMaxWaitMillis;
+    /**
+     * defaultIp、isolationIps、skipIsolationServices、serviceSign的当前生效值，刷新时整体替换
+     */
+    private volatile IsolationDecisionPlan decisionPlan;
+
+    private FeignIsolationSettings(Map<String, Object> attributes) {
+        this.environments = (String[]) attributes.get("environments");
+        this.defaultIp = (String) attributes.get("defaultIp");
+        this.isolationIps = (String) attributes.get("isolationIps");
+        this.skipIsolationServices = (String) attributes.get("skipIsolationServices");
+        this.serviceSign = String.valueOf(attributes.get("serviceSign"));
+        this.redisUrlPath = (String) attributes.get("redisUrlPath");
+        this.redisPortPath = (String) attributes.get("redisPortPath");
+        this.redisUserPath = (String) attributes.get("redisUserPath");
+        this.redisPwdPath = (String) attributes.get("redisPwdPath");
+        this.registry = (IsolationRegistryType) attributes.get("registry");
+        this.configureKeyspaceEvents = (Boolean) attributes.get("configureKeyspaceEvents");
+        this.nacosServerAddrPath = (String) attributes.get("nacosServerAddrPath");
+        this.nacosNamespacePath = (String) attributes.get("nacosNamespacePath");
+        this.nacosGroupPath = (String) attributes.get("nacosGroupPath");
+        this.nacosUserPath = (String) attributes.get("nacosUserPath");
+        this.nacosPwdPath = (String) attributes.get("nacosPwdPath");
+        this.registryTimeoutMillis = (Long) attributes.get("registryTimeoutMillis");
+        this.circuitBreakerFailureThreshold = (Integer) attributes.get("circuitBreakerFailureThreshold");
+        this.circuitBreakerOpenSeconds = (Long) attributes.get("circuitBreakerOpenSeconds");
+        this.prewarmTimeoutMillis = (Long) attributes.get("prewarmTimeoutMillis");
+        this.routeFailureThreshold = (Integer) attributes.get("routeFailureThreshold");
+        this.routeCoolOffSeconds = (Long) attributes.get("routeCoolOffSeconds");
+        this.routeSlowCallMillis = (Long) attributes.get("routeSlowCallMillis");
+        this.propagateTag = (Boolean) attributes.get("propagateTag");
+        this.routing = (IsolationRoutingMode) attributes.get("routing");
+        this.redisPoolMaxTotal = (Integer) attributes.get("redisPoolMaxTotal");
+        this.redisPoolMinIdle = (Integer) attributes.get("redisPoolMinIdle");
+        this.redisPoolMaxWaitMillis = (Long) attributes.get("redisPoolMaxWaitMillis");
+    }
+
+    /**
+     * 按{@link FeignIsolation}注解属性创建，并按当前环境编译隔离决策计划
+     *
+     * @param attributes  注解属性
+     * @param environment 当前环境
+     */
+    static FeignIsolationSettings of(Map<String, Object> attributes, Environment environment) {
+        final FeignIsolationSettings settings = new FeignIsolationSettings(attributes);
+        settings.refresh(environment);
+        return settings;
+    }
+
+    /**
+     * 按配置属性重新编译隔离决策计划，属性未设置时使用注解中的值；新计划编译完成后一次性替换，读取方不会看到部分更新的配置
+     * <p>
+     * 只影响之后的路由决策，当前服务是否以隔离服务名注册、是否发送心跳仍由启动时的配置决定
+     *
+     * @param environment 当前环境
+     * @return 新的隔离决策计划
+     */
+    IsolationDecisionPlan refresh(Environment environment) {
+        final String ips = environment.getProperty(FeignIsolationConstants.ISOLATION_IPS_PROPERTY, isolationIps);
+        final String skipServices = environment.getProperty(FeignIsolationConstants.SKIP_ISOLATION_SERVICES_PROPERTY, skipIsolationServices);
+        final IsolationDecisionPlan plan = IsolationDecisionPlan.compile(NetworkUtil.getLocalIpAddr(),
+                environment.getProperty(FeignIsolationConstants.DEFAULT_IP_PROPERTY, defaultIp),
+                environment.getProperty(FeignIsolationConstants.SERVICE_SIGN_PROPERTY, serviceSign),
+                parseSign(ips), parseSign(skipServices));
+        decisionPlan = plan;
+        return plan;
+    }
+
+    private static List<String> parseSign(String value) {
+        return StringUtil.hasText(value) ? StringPoundSignUtil.parseSign(value) : Collections.emptyList();
+    }
+
+    IsolationDecisionPlan decisionPlan() {
+        return decisionPlan;
+    }
+
+    public String defaultIp() {
+        return decisionPlan.defaultIpAddr();
+    }
+
+    public String serviceSign() {
+        return decisionPlan.serviceSign();
+    }
+
+    public String[] environments() {
+        return environments;
+    }
+
+    public List<String> isolationIps() {
+        return decisionPlan.isolationIps();
+    }
+
+    public List<String> skipIsolationServices() {
+        return decisionPlan.skipIsolationServices();
+    }
+
+    public String redisUrlPath() {
+        return redisUrlPath;
+    }
+
+    public String redisPortPath() {
+        return redisPortPath;
+    }
+
+    public String redisUserPath() {
+        return redisUserPath;
+    }
+
+    public String redisPwdPath() {
+        return redisPwdPath;
+    }
+
+    public IsolationRegistryType registry() {
+        return registry;
+    }
+
+    public boolean configureKeyspaceEvents() {
+        return configureKeyspaceEvents;
+    }
+
+    public String nacosServerAddrPath() {
+        return nacosServerAddrPath;
+    }
+
+    public String nacosNamespacePath() {
+        return nacosNamespacePath;
+    }
+
+    public String nacosGroupPath() {
+        return nacosGroupPath;
+    }
+
+    public String nacosUserPath() {
+        return nacosUserPath;
+    }
+
+    public String nacosPwdPath() {
+        return nacosPwdPath;
+    }
+
+    public long registryTimeoutMillis() {
+        return registryTimeoutMillis;
+    }
+
+    public int circuitBreakerFailureThreshold() {
+        return circuitBreakerFailureThreshold;
+    }
+
+    public long circuitBreakerOpenSeconds() {
+        return circuitBreakerOpenSeconds;
+    }
+
+    public int redisPoolMaxTotal() {
+        return redisPoolMaxTotal;
+    }
+
+    public int redisPoolMinIdle() {
+        return redisPoolMinIdle;
+    }
+
+    public long redisPoolMaxWaitMillis() {
+        return redisPoolMaxWaitMillis;
+    }
+
+    public IsolationRoutingMode routing() {
+        return routing;
+    }
+
+    public boolean propagateTag() {
+        return propagateTag;
+    }
+
+    public long prewarmTimeoutMillis() {
+        return prewarmTimeoutMillis;
+    }
+
+    public int routeFailureThreshold() {
+        return routeFailureThreshold;
+    }
+
+    public long routeCoolOffSeconds() {
+        return routeCoolOffSeconds;
+    }
+
+    public long routeSlowCallMillis() {
+        return routeSlowCallMillis;
+    }
+
+}
@@ -0,0 +1,111 @@
+package io.github.hyuga0410.feign.isolation;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * IsolationCircuitBreaker
+ * <p>
+ * 熔断器：连续失败（含超出耗时预算）达到阈值后熔断，熔断时间结束后只放行一次半开探测，成功则恢复，失败则继续熔断
+ * <p>
+ * 用于注册中心访问：熔断期间不再访问注册中心，路由直接使用本地缓存的旧值，无缓存时走默认服务；
+ * 以及隔离服务健康度：熔断期间不再调用该隔离服务，改为调用默认服务
+ *
+ * @author hyuga
+ * @since 2026/10/17
+ */
+@Slf4j
+final class IsolationCircuitBreaker {
+
+    private static final int CLOSED = 0;
+    private static final int OPEN = 1;
+    private static final int HALF_OPEN = 2;
+
+    /**
+     * 熔断对象名称，用于日志
+     */
+    private final String name;
+    /**
+     * 连续失败熔断阈值
+     */
+    private final int failureThreshold;
+    /**
+     * 熔断时间（毫秒）
+     */
+    private final long openMillis;
+
+    private final AtomicInteger state = new AtomicInteger(CLOSED);
+    private final AtomicInteger failures = new AtomicInteger();
+    private volatile long openUntil;
+
+    IsolationCircuitBreaker(int failureThreshold, long openSeconds) {
+        this("registry", failureThreshold, openSeconds);
+    }
+
+    IsolationCircuitBreaker(String name, int failureThreshold, long openSeconds) {
+        this.name = name;
+        this.failureThreshold = Math.max(failureThreshold, 1);
+        this.openMillis = TimeUnit.SECONDS.toMillis(openSeconds);
+    }
+
+    /**
+     * 是否允许访问注册中心，熔断时间结束后只有一个调用方获得半开探测机会
+     */
+    boolean allowRequest() {
+        switch (state.get()) {
+            case CLOSED:
+                return true;
+            case OPEN:
+                if (System.currentTimeMillis() >= openUntil && state.compareAndSet(OPEN, HALF_OPEN)) {
+                    // 探测结果需在一个熔断时间内回报
+                    openUntil = System.currentTimeMillis() + openMillis;
+                    return true;
+                }
+                return false;
+            default:
+                // 半开探测进行中；探测结果超时未回报（如请求在发出前失败）时重新放行一次探测
+                return System.currentTimeMillis() >= openUntil && state.compareAndSet(HALF_OPEN, OPEN) && allowRequest();
+        }
+    }
+
+    void onSuccess() {
+        failures.set(0);
+        if (state.getAndSet(CLOSED) != CLOSED) {
+            log.info("Feign isolation {} recovered, circuit breaker closed ~~~", name);
+        }
+    }
+
+    void onFailure() {
+        if (state.get() == HALF_OPEN || failures.incrementAndGet() >= failureThreshold) {
+            open();
+        }
+    }
+
+    boolean isOpen() {
+        return state.get() != CLOSED;
+    }
+
+    /**
+     * 当前状态：CLOSED、OPEN、HALF_OPEN，用于诊断
+     */
+    String state() {
+        switch (state.get()) {
+            case CLOSED:
+                return "CLOSED";
+            case OPEN:
+                return "OPEN";
+            default:
+                return "HALF_OPEN";
+        }
+    }
+
+    private void open() {
+        openUntil = System.currentTimeMillis() + openMillis;
+        if (state.getAndSet(OPEN) == CLOSED) {
+            log.warn("Feign isolation {} unavailable, circuit breaker open for {}ms ~~~", name, openMillis);
+        }
+    }
+
+}
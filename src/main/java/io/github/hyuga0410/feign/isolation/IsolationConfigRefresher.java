@@ -0,0 +1,45 @@
+package io.github.hyuga0410.feign.isolation;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.context.environment.EnvironmentChangeEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.EnvironmentAware;
+import org.springframework.core.env.Environment;
+import org.springframework.lang.NonNull;
+
+/**
+ * IsolationConfigRefresher
+ * <p>
+ * 配置中心（Nacos等）推送变更后，Spring Cloud发布{@link EnvironmentChangeEvent}，
+ * 变更中包含{@value FeignIsolationConstants#PROPERTY_PREFIX}开头的属性时重新编译当前容器的隔离决策计划
+ *
+ * @author hyuga
+ * @since 2026/10/17
+ */
+@Slf4j
+public class IsolationConfigRefresher implements ApplicationListener<EnvironmentChangeEvent>, EnvironmentAware {
+
+    private final FeignIsolationSettings settings;
+    private Environment environment;
+
+    public IsolationConfigRefresher(FeignIsolationSettings settings) {
+        this.settings = settings;
+    }
+
+    @Override
+    public void setEnvironment(@NonNull Environment environment) {
+        this.environment = environment;
+    }
+
+    @Override
+    public void onApplicationEvent(EnvironmentChangeEvent event) {
+        final boolean changed = event.getKeys().stream().anyMatch(key -> key.startsWith(FeignIsolationConstants.PROPERTY_PREFIX));
+        if (!changed) {
+            return;
+        }
+        final IsolationDecisionPlan plan = settings.refresh(environment);
+        log.info("Feign isolation config refreshed, defaultIp:{}, isolationIps:{}, skipIsolationServices:{}, serviceSign:{} ~~~",
+                plan.defaultIpAddr(), plan.isolationIps(), plan.skipIsolationServices(), plan.serviceSign());
+    }
+
+}
@@ -0,0 +1,144 @@
+package io.github.hyuga0410.feign.isolation;
+
+import cn.hyugatool.core.number.NumberUtil;
+import cn.hyugatool.core.string.StringUtil;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * IsolationDecisionPlan
+ * <p>
+ * 隔离决策计划，{@link FeignIsolation}属性在启动时一次性编译：
+ * 与当前IP相关的判断预先计算为布尔值，跳过隔离的服务转为哈希集合，
+ * 与目标服务相关的判断在Target创建时计算一次，请求时只剩注册中心路由缓存查询
+ * <p>
+ * 计划创建后不可变，配置刷新时整体替换为新计划，读取方通过一次volatile读取拿到完整的一份配置
+ *
+ * @author hyuga
+ * @since 2026/10/17
+ */
+final class IsolationDecisionPlan {
+
+    /**
+     * 隔离服务名后缀（数值IP）
+     */
+    private final String serviceIsolationSuffix;
+    /**
+     * 默认环境IP
+     */
+    private final String defaultIpAddr;
+    /**
+     * 隔离服务标识
+     */
+    private final String serviceSign;
+    /**
+     * 强制隔离IPS
+     */
+    private final List<String> isolationIps;
+    /**
+     * 当前IP是否为默认环境IP
+     */
+    private final boolean defaultIp;
+    /**
+     * 当前IP是否在强制隔离IPS中
+     */
+    private final boolean forcedIsolation;
+    /**
+     * 需要跳过隔离的服务
+     */
+    private final Set<String> skipIsolationServices;
+
+    private IsolationDecisionPlan(String localIpAddr, String defaultIp, String serviceSign,
+                                  Collection<String> isolationIps, Collection<String> skipIsolationServices) {
+        this.serviceIsolationSuffix = String.valueOf(NumberUtil.getNumber(localIpAddr));
+        this.defaultIpAddr = defaultIp == null ? StringUtil.EMPTY : defaultIp;
+        this.serviceSign = serviceSign == null ? StringUtil.EMPTY : serviceSign;
+        this.isolationIps = isolationIps == null
+                ? Collections.emptyList()
+                : Collections.unmodifiableList(new ArrayList<>(isolationIps));
+        this.defaultIp = StringUtil.equals(defaultIp, localIpAddr);
+        this.forcedIsolation = isolationIps != null && isolationIps.contains(localIpAddr);
+        this.skipIsolationServices = skipIsolationServices == null
+                ? Collections.emptySet()
+                : Collections.unmodifiableSet(new HashSet<>(skipIsolationServices));
+    }
+
+    /**
+     * 编译隔离决策计划
+     *
+     * @param localIpAddr           服务IP
+     * @param defaultIp             默认环境IP
+     * @param serviceSign           隔离服务标识
+     * @param isolationIps          强制隔离IPS
+     * @param skipIsolationServices 需要跳过隔离的服务
+     */
+    static IsolationDecisionPlan compile(String localIpAddr, String defaultIp, String serviceSign,
+                                         Collection<String> isolationIps, Collection<String> skipIsolationServices) {
+        return new IsolationDecisionPlan(localIpAddr, defaultIp, serviceSign, isolationIps, skipIsolationServices);
+    }
+
+    /**
+     * 与注册中心无关的决策，同一Target结果固定
+     *
+     * @param url 默认服务地址
+     * @param uri 协议+host
+     * @return 决策分支，需查询注册中心时返回null
+     */
+    RouteDecision decide(String url, String uri) {
+        if (defaultIp) {
+            // 当前IP地址为默认服务IP地址，无需隔离
+            return RouteDecision.DEFAULT_IP;
+        }
+        if (!url.contains(serviceSign)) {
+            // 请求url不是指定的服务标识不隔离
+            return RouteDecision.NO_SERVICE_SIGN;
+        }
+        if (forcedIsolation) {
+            // 需要强制隔离的ip，配置在skipIsolationServices中的服务直接调用默认服务
+            return skipIsolationServices.contains(uri) ? RouteDecision.SKIPPED : RouteDecision.FORCED;
+        }
+        return null;
+    }
+
+    /**
+     * 是否为需要跳过隔离的服务
+     *
+     * @param uri 协议+host
+     */
+    boolean skipped(String uri) {
+        return skipIsolationServices.contains(uri);
+    }
+
+    String serviceIsolationSuffix() {
+        return serviceIsolationSuffix;
+    }
+
+    String defaultIpAddr() {
+        return defaultIpAddr;
+    }
+
+    String serviceSign() {
+        return serviceSign;
+    }
+
+    List<String> isolationIps() {
+        return isolationIps;
+    }
+
+    List<String> skipIsolationServices() {
+        return new ArrayList<>(skipIsolationServices);
+    }
+
+    /**
+     * 当前IP是否为默认环境IP
+     */
+    boolean defaultEnvironment() {
+        return defaultIp;
+    }
+
+}
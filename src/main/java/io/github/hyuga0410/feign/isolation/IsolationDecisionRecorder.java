@@ -0,0 +1,152 @@
+package io.github.hyuga0410.feign.isolation;
+
+import java.lang.invoke.VarHandle;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * IsolationDecisionRecorder
+ * <p>
+ * 路由决策采样记录，固定容量的无锁环形缓冲区，写满后覆盖最旧的记录，用于排查"这次调用为什么走了默认环境"
+ * <p>
+ * 槽位预先分配并复用，写入时不产生对象；每个槽位以序号做顺序锁，写入方独占槽位，读取方复制后校验序号，
+ * 被覆盖或正在写入的槽位直接跳过；槽位被其他写入方占用时放弃本次采样，写入方之间不会等待
+ *
+ * @author hyuga
+ * @since 2026/10/17
+ */
+final class IsolationDecisionRecorder {
+
+    /**
+     * 槽位正在写入
+     */
+    private static final long WRITING = -1L;
+
+    private final Slot[] slots;
+    private final int mask;
+    private final int sampleRate;
+    private final AtomicLong cursor = new AtomicLong();
+
+    /**
+     * @param capacity   容量，向上取整为2的幂
+     * @param sampleRate 采样率，每sampleRate次决策记录一次，小于等于0时不记录
+     */
+    IsolationDecisionRecorder(int capacity, int sampleRate) {
+        final int size = Integer.highestOneBit(Math.max(capacity - 1, 1)) << 1;
+        this.slots = new Slot[size];
+        for (int i = 0; i < size; i++) {
+            slots[i] = new Slot();
+        }
+        this.mask = size - 1;
+        this.sampleRate = sampleRate;
+    }
+
+    /**
+     * 决策开始，按采样率返回当前纳秒时间，未采样时返回0
+     */
+    long start() {
+        if (sampleRate <= 0 || ThreadLocalRandom.current().nextInt(sampleRate) != 0) {
+            return 0L;
+        }
+        return System.nanoTime();
+    }
+
+    /**
+     * 决策结束，只记录{@link #start()}采样到的决策
+     *
+     * @param start    {@link #start()}的返回值
+     * @param target   目标服务host
+     * @param key      隔离服务名，即注册中心查询的key
+     * @param decision 决策分支
+     * @param tag      上游透传的隔离标签，没有时为null
+     */
+    void record(long start, String target, String key, RouteDecision decision, String tag) {
+        if (start == 0L) {
+            return;
+        }
+        final long nanos = System.nanoTime() - start;
+        final long sequence = cursor.incrementAndGet();
+        final Slot slot = slots[(int) (sequence & mask)];
+        final long current = slot.sequence.get();
+        if (current == WRITING || !slot.sequence.compareAndSet(current, WRITING)) {
+            // 槽位被其他写入方占用，放弃本次采样
+            return;
+        }
+        VarHandle.storeStoreFence();
+        slot.timestamp = System.currentTimeMillis();
+        slot.target = target;
+        slot.key = key;
+        slot.decision = decision;
+        slot.tag = tag;
+        slot.nanos = nanos;
+        slot.thread = Thread.currentThread().getName();
+        slot.sequence.set(sequence);
+    }
+
+    /**
+     * 复制当前缓冲区中的记录，按时间倒序
+     */
+    List<Map<String, Object>> snapshot() {
+        List<Map<String, Object>> records = new ArrayList<>(slots.length);
+        final long last = cursor.get();
+        for (long sequence = last; sequence > 0 && sequence > last - slots.length; sequence--) {
+            final Slot slot = slots[(int) (sequence & mask)];
+            if (slot.sequence.get() != sequence) {
+                continue;
+            }
+            final long timestamp = slot.timestamp;
+            final String target = slot.target;
+            final String key = slot.key;
+            final RouteDecision decision = slot.decision;
+            final String tag = slot.tag;
+            final long nanos = slot.nanos;
+            final String thread = slot.thread;
+            VarHandle.loadLoadFence();
+            if (slot.sequence.get() != sequence) {
+                // 复制期间被覆盖
+                continue;
+            }
+            Map<String, Object> record = new LinkedHashMap<>();
+            record.put("timestamp", timestamp);
+            record.put("target", target);
+            record.put("key", key);
+            record.put("decision", decision);
+            record.put("outcome", decision.outcome());
+            record.put("tag", tag);
+            record.put("latencyMicros", TimeUnit.NANOSECONDS.toMicros(nanos));
+            record.put("thread", thread);
+            records.add(record);
+        }
+        return records;
+    }
+
+    int capacity() {
+        return slots.length;
+    }
+
+    int sampleRate() {
+        return sampleRate;
+    }
+
+    private static final class Slot {
+
+        /**
+         * 已写入记录的序号，0为空槽位，{@link #WRITING}为写入中
+         */
+        private final AtomicLong sequence = new AtomicLong();
+        private long timestamp;
+        private String target;
+        private String key;
+        private RouteDecision decision;
+        private String tag;
+        private long nanos;
+        private String thread;
+
+    }
+
+}
@@ -0,0 +1,98 @@
+package io.github.hyuga0410.feign.isolation;
+
+import cn.hyugatool.extra.concurrent.SleuthThreadScheduledPool;
+import io.github.hyuga0410.feign.isolation.registry.IsolationRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static io.github.hyuga0410.feign.isolation.FeignIsolationConstants.HEARTBEAT_INTERVAL_SECONDS;
+
+/**
+ * IsolationHeartbeat
+ * <p>
+ * 服务名心跳注册，每次心跳由{@link IsolationRegistry#heartbeat()}批量续约所有已注册的服务名
+ * <p>
+ * 首次心跳立即执行，此后的定时心跳在一个心跳间隔内随机延迟启动，避免大量服务同时启动后每次心跳都集中打到注册中心；
+ * 随机延迟小于心跳间隔，也就小于过期时间，首次心跳写入的服务名不会在第二次心跳前过期
+ *
+ * @author hyuga
+ * @since 2026/10/17
+ */
+@Slf4j
+final class IsolationHeartbeat {
+
+    private final IsolationRegistry registry;
+    private final IsolationMetrics metrics;
+    private final long intervalMillis = TimeUnit.SECONDS.toMillis(HEARTBEAT_INTERVAL_SECONDS);
+
+    private volatile boolean started;
+    private volatile boolean running = true;
+    /**
+     * 下一次心跳的计划执行时间
+     */
+    private volatile long nextTickAt;
+    private ScheduledFuture<?> future;
+
+    IsolationHeartbeat(IsolationRegistry registry) {
+        this(registry, IsolationMetrics.NOOP);
+    }
+
+    IsolationHeartbeat(IsolationRegistry registry, IsolationMetrics metrics) {
+        this.registry = registry;
+        this.metrics = metrics;
+    }
+
+    /**
+     * 注册心跳，已启动时下一次心跳生效
+     *
+     * @param ip          服务IP
+     * @param serviceName 服务名
+     */
+    void register(String ip, String serviceName) {
+        registry.register(ip, serviceName);
+    }
+
+    synchronized void start() {
+        if (started) {
+            return;
+        }
+        started = true;
+        nextTickAt = System.currentTimeMillis();
+        tick();
+
+        final long jitterMillis = ThreadLocalRandom.current().nextLong(intervalMillis);
+        nextTickAt = System.currentTimeMillis() + jitterMillis;
+        future = SleuthThreadScheduledPool.scheduleWithFixedDelay(this::tick, jitterMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    synchronized void stop() {
+        running = false;
+        if (future != null) {
+            future.cancel(false);
+            future = null;
+        }
+    }
+
+    private void tick() {
+        if (!running) {
+            return;
+        }
+        final long lagMillis = System.currentTimeMillis() - nextTickAt;
+        boolean success = false;
+        try {
+            registry.heartbeat();
+            success = true;
+        } catch (Exception e) {
+            // 异常不抛出，避免定时任务被终止
+            log.warn("Feign isolation heartbeat failed", e);
+        } finally {
+            // 固定延迟调度，下一次心跳在本次结束后一个间隔执行
+            nextTickAt = System.currentTimeMillis() + intervalMillis;
+            metrics.heartbeat(lagMillis, success);
+        }
+    }
+
+}
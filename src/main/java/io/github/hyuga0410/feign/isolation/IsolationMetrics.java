@@ -0,0 +1,88 @@
+package io.github.hyuga0410.feign.isolation;
+
+/**
+ * IsolationMetrics
+ * <p>
+ * 隔离组件指标埋点，未引入Micrometer或容器中没有MeterRegistry时为空实现
+ *
+ * @author hyuga
+ * @since 2026/10/17
+ */
+interface IsolationMetrics {
+
+    IsolationMetrics NOOP = new IsolationMetrics() {
+    };
+
+    String CACHE_HIT = "hit";
+    String CACHE_STALE = "stale";
+    String CACHE_MISS = "miss";
+    String CACHE_FILTERED = "filtered";
+
+    /**
+     * 创建目标服务的路由决策指标，在Target创建时调用一次
+     *
+     * @param host 目标服务host
+     */
+    default RouteMeter route(String host) {
+        return RouteMeter.NOOP;
+    }
+
+    /**
+     * 隔离路由缓存访问
+     *
+     * @param result hit:命中 stale:过期返回旧值 miss:未命中 filtered:被过滤器判定为不存在隔离服务
+     */
+    default void cacheAccess(String result) {
+    }
+
+    /**
+     * 注册中心查询
+     *
+     * @param nanos   耗时（纳秒）
+     * @param success 是否成功
+     */
+    default void lookup(long nanos, boolean success) {
+    }
+
+    /**
+     * 心跳
+     *
+     * @param lagMillis 实际执行时间相对计划时间的延迟（毫秒）
+     * @param success   是否成功
+     */
+    default void heartbeat(long lagMillis, boolean success) {
+    }
+
+    /**
+     * 绑定Jedis连接池指标
+     */
+    default void pool(JedisTools jedisTools) {
+    }
+
+    /**
+     * 单个目标服务的路由决策指标
+     */
+    interface RouteMeter {
+
+        RouteMeter NOOP = new RouteMeter() {
+        };
+
+        /**
+         * 决策开始，按采样率返回当前纳秒时间，未采样时返回0
+         */
+        default long start() {
+            return 0L;
+        }
+
+        /**
+         * 决策结束
+         *
+         * @param decision 决策分支
+         * @param start    {@link #start()}的返回值
+         */
+        default void record(RouteDecision decision, long start) {
+        }
+
+    }
+
+}
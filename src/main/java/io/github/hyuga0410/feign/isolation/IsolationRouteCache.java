@@ -0,0 +1,400 @@
+package io.github.hyuga0410.feign.isolation;
+
+import cn.hyugatool.core.number.NumberUtil;
+import io.github.hyuga0410.feign.isolation.registry.IsolationRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.TreeMap;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static io.github.hyuga0410.feign.isolation.FeignIsolationConstants.CIRCUIT_BREAKER_FAILURE_THRESHOLD;
+import static io.github.hyuga0410.feign.isolation.FeignIsolationConstants.CIRCUIT_BREAKER_OPEN_SECONDS;
+import static io.github.hyuga0410.feign.isolation.FeignIsolationConstants.REGISTRY_TIMEOUT_MILLIS;
+
+/**
+ * IsolationRouteCache
+ * <p>
+ * 隔离路由本地缓存，以目标服务host为key，缓存注册中心中是否存在同IP的隔离服务
+ * <p>
+ * 未命中或过期时由后台线程异步刷新（stale-while-revalidate），feign请求线程不会阻塞在注册中心上：
+ * 未命中时先走默认服务，过期时先返回旧值；同时订阅注册中心推送，隔离服务上下线时实时更新
+ * <p>
+ * 注册中心查询受耗时预算与{@link IsolationCircuitBreaker}保护，注册中心变慢或不可用时停止刷新，保留已知路由
+ * <p>
+ * 注册中心支持{@link IsolationRegistry#snapshot(String)}时，按快照构建{@link IsolationServiceFilter}并随缓存有效期重建，
+ * 判定一定不存在隔离服务的目标直接走默认服务，不访问路由缓存与注册中心
+ * <p>
+ * 透传标签指向其他环境时，按标签所属IP查询该环境的隔离服务，以[隔离服务名]@[IP]为key缓存，只随缓存有效期刷新
+ *
+ * @author hyuga
+ * @since 2026/10/17
+ */
+@Slf4j
+final class IsolationRouteCache implements IsolationRegistry.Listener {
+
+    private final IsolationRegistry registry;
+    private final IsolationMetrics metrics;
+    /**
+     * 服务IP
+     */
+    private final String localIpAddr;
+    /**
+     * 隔离服务名后缀：-[suffix]
+     */
+    private final String serviceSuffix;
+    /**
+     * 缓存有效期（毫秒）
+     */
+    private final long ttlMillis;
+    /**
+     * 单次查询耗时预算（毫秒），超出预算视为失败
+     */
+    private final long lookupTimeoutMillis;
+    private final IsolationCircuitBreaker circuitBreaker;
+    /**
+     * host（其他环境为[隔离服务名]@[IP]） -> 隔离路由
+     */
+    private final ConcurrentMap<String, Route> routes = new ConcurrentHashMap<>();
+    /**
+     * 正在刷新中的路由缓存key，避免同一key重复提交刷新任务
+     */
+    private final Set<String> refreshing = ConcurrentHashMap.newKeySet();
+    /**
+     * 隔离服务过滤器，注册中心不支持快照或尚未构建时为null
+     */
+    private volatile IsolationServiceFilter filter;
+    private volatile long filterExpireAt;
+    /**
+     * 注册中心是否支持快照，不支持时不再构建过滤器
+     */
+    private volatile boolean filterSupported = true;
+    private final AtomicBoolean filterRefreshing = new AtomicBoolean();
+    /**
+     * 推送的上线事件，过滤器重建后补充到新过滤器中，避免重建期间上线的服务被误判为不存在；
+     * 登记事件与发布新过滤器均在该队列上加锁，事件要么在发布前补充到新过滤器，要么在发布后直接添加到新过滤器
+     */
+    private final Queue<String> onlineEvents = new ConcurrentLinkedQueue<>();
+    private final ExecutorService refresher = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "feign-isolation-route-refresher");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    IsolationRouteCache(IsolationRegistry registry, String localIpAddr, long ttlSeconds) {
+        this(registry, localIpAddr, ttlSeconds, REGISTRY_TIMEOUT_MILLIS,
+                new IsolationCircuitBreaker(CIRCUIT_BREAKER_FAILURE_THRESHOLD, CIRCUIT_BREAKER_OPEN_SECONDS), IsolationMetrics.NOOP);
+    }
+
+    IsolationRouteCache(IsolationRegistry registry, String localIpAddr, long ttlSeconds,
+                        long lookupTimeoutMillis, IsolationCircuitBreaker circuitBreaker, IsolationMetrics metrics) {
+        this.registry = registry;
+        this.metrics = metrics;
+        this.localIpAddr = localIpAddr;
+        this.serviceSuffix = String.valueOf(FeignIsolationConstants.ISOLATION_SYMBOL) + NumberUtil.getNumber(localIpAddr);
+        this.ttlMillis = TimeUnit.SECONDS.toMillis(ttlSeconds);
+        this.lookupTimeoutMillis = lookupTimeoutMillis;
+        this.circuitBreaker = circuitBreaker;
+    }
+
+    /**
+     * 判断目标服务是否存在隔离服务，不会阻塞调用线程
+     *
+     * @param host        目标服务host
+     * @param serviceName 隔离服务名：[host]-[suffix]
+     * @return - true:存在隔离服务 - false:不存在或尚未加载
+     */
+    boolean isolated(String host, String serviceName) {
+        return isolated(host, serviceName, IsolationServiceFilter.hash(serviceName));
+    }
+
+    /**
+     * @param host        目标服务host
+     * @param serviceName 隔离服务名：[host]-[suffix]
+     * @param serviceHash 隔离服务名的{@link IsolationServiceFilter#hash(String)}，由调用方预先计算
+     * @return - true:存在隔离服务 - false:不存在或尚未加载
+     */
+    boolean isolated(String host, String serviceName, long serviceHash) {
+        final IsolationServiceFilter current = serviceFilter();
+        if (current != null && !current.mightContain(serviceHash)) {
+            // 一定不存在隔离服务，无需访问路由缓存与注册中心
+            metrics.cacheAccess(IsolationMetrics.CACHE_FILTERED);
+            return false;
+        }
+        return cached(host, localIpAddr, serviceName);
+    }
+
+    /**
+     * 读取目标服务的当前隔离路由，不记录指标，也不触发后台加载与刷新，用于启动预热
+     *
+     * @param host        目标服务host
+     * @param serviceHash 隔离服务名的{@link IsolationServiceFilter#hash(String)}
+     * @return - true:存在隔离服务 - false:不存在或尚未加载
+     */
+    boolean peek(String host, long serviceHash) {
+        final IsolationServiceFilter current = filter;
+        if (current != null && !current.mightContain(serviceHash)) {
+            return false;
+        }
+        final Route route = routes.get(host);
+        return route != null && route.isolated;
+    }
+
+    /**
+     * 判断其他环境（透传标签所属IP）是否存在隔离服务，不会阻塞调用线程
+     *
+     * @param routeKey    路由缓存key，见{@link #routeKey(String, String)}
+     * @param ip          隔离服务所属IP
+     * @param serviceName 隔离服务名：[host]-[tag]
+     * @return - true:存在隔离服务 - false:不存在或尚未加载
+     */
+    boolean isolatedAt(String routeKey, String ip, String serviceName) {
+        return cached(routeKey, ip, serviceName);
+    }
+
+    /**
+     * 其他环境隔离服务的路由缓存key：[隔离服务名]@[IP]，与host不会重复
+     */
+    static String routeKey(String ip, String serviceName) {
+        return serviceName + '@' + ip;
+    }
+
+    private boolean cached(String key, String ip, String serviceName) {
+        final Route route = routes.get(key);
+        if (route == null) {
+            // 首次访问，后台加载，本次先走默认服务
+            metrics.cacheAccess(IsolationMetrics.CACHE_MISS);
+            refresh(key, ip, serviceName);
+            return false;
+        }
+        if (route.expireAt < System.currentTimeMillis()) {
+            // 已过期，后台刷新，本次先返回旧值
+            metrics.cacheAccess(IsolationMetrics.CACHE_STALE);
+            refresh(key, ip, serviceName);
+        } else {
+            metrics.cacheAccess(IsolationMetrics.CACHE_HIT);
+        }
+        return route.isolated;
+    }
+
+    /**
+     * 批量加载隔离路由，用于启动预热，查询仍由后台线程执行并受熔断保护
+     *
+     * @param services 目标服务host -> 隔离服务名
+     * @return 全部查询结束（成功或失败）时完成
+     */
+    CompletableFuture<Void> prefetch(Map<String, String> services) {
+        // 过滤器与路由查询在同一个刷新线程中按提交顺序执行
+        refreshFilter();
+        final CompletableFuture<?>[] futures = services.entrySet().stream()
+                .filter(entry -> !routes.containsKey(entry.getKey()))
+                .map(entry -> refresh(entry.getKey(), localIpAddr, entry.getValue()))
+                .toArray(CompletableFuture[]::new);
+        return CompletableFuture.allOf(futures);
+    }
+
+    /**
+     * 按推送事件直接更新隔离路由
+     *
+     * @param host     目标服务host
+     * @param isolated 是否存在隔离服务
+     */
+    void update(String host, boolean isolated) {
+        routes.put(host, new Route(isolated, System.currentTimeMillis() + ttlMillis));
+    }
+
+    /**
+     * 将所有路由置为过期，下次访问时后台刷新
+     */
+    void expireAll() {
+        routes.replaceAll((host, route) -> new Route(route.isolated, 0));
+    }
+
+    /**
+     * 停止后台刷新线程，之后的刷新请求直接放弃，路由保持最后一次的值
+     */
+    void close() {
+        refresher.shutdownNow();
+    }
+
+    /**
+     * 当前缓存状态，用于诊断
+     */
+    Map<String, Object> state() {
+        final long now = System.currentTimeMillis();
+        final Map<String, Object> routeStates = new TreeMap<>();
+        routes.forEach((host, route) -> {
+            Map<String, Object> routeState = new LinkedHashMap<>();
+            routeState.put("isolated", route.isolated);
+            routeState.put("expireAt", route.expireAt);
+            routeState.put("stale", route.expireAt < now);
+            routeStates.put(host, routeState);
+        });
+        final Map<String, Object> state = new LinkedHashMap<>();
+        state.put("localIpAddr", localIpAddr);
+        state.put("registry", registry.getClass().getSimpleName());
+        state.put("circuitBreaker", circuitBreaker.state());
+        state.put("filterSupported", filterSupported);
+        state.put("filterBuilt", filter != null);
+        state.put("filterExpireAt", filterExpireAt);
+        state.put("refreshing", refreshing.size());
+        state.put("routes", routeStates);
+        return state;
+    }
+
+    @Override
+    public void onChange(String serviceName, boolean present) {
+        if (present && filterSupported) {
+            // 先登记再添加：重建过程中的事件由重建方补充，重建完成后的事件直接添加到新过滤器
+            synchronized (onlineEvents) {
+                onlineEvents.add(serviceName);
+                final IsolationServiceFilter current = filter;
+                if (current != null) {
+                    current.add(serviceName);
+                }
+            }
+        }
+        if (serviceName.endsWith(serviceSuffix)) {
+            update(serviceName.substring(0, serviceName.length() - serviceSuffix.length()), present);
+        }
+    }
+
+    @Override
+    public void onResync() {
+        // 推送通道断开重连后，补偿断开期间可能丢失的事件
+        expireAll();
+        filterExpireAt = 0;
+    }
+
+    /**
+     * 当前过滤器，过期后由后台线程按注册中心快照重建
+     */
+    private IsolationServiceFilter serviceFilter() {
+        if (filterSupported && filterExpireAt < System.currentTimeMillis()) {
+            refreshFilter();
+        }
+        return filter;
+    }
+
+    private void refreshFilter() {
+        if (!filterSupported || !filterRefreshing.compareAndSet(false, true)) {
+            return;
+        }
+        if (!circuitBreaker.allowRequest()) {
+            filterRefreshing.set(false);
+            return;
+        }
+        try {
+            refresher.execute(() -> {
+                try {
+                    final Set<String> serviceNames = registry.snapshot(localIpAddr);
+                    if (serviceNames == null) {
+                        filterSupported = false;
+                        onlineEvents.clear();
+                        return;
+                    }
+                    final IsolationServiceFilter next = IsolationServiceFilter.of(serviceNames);
+                    synchronized (onlineEvents) {
+                        // 快照读取后上线的服务在发布前补充，发布后的过滤器不存在漏判
+                        String serviceName;
+                        while ((serviceName = onlineEvents.poll()) != null) {
+                            next.add(serviceName);
+                        }
+                        filter = next;
+                    }
+                    filterExpireAt = System.currentTimeMillis() + ttlMillis;
+                    circuitBreaker.onSuccess();
+                } catch (RuntimeException e) {
+                    // 重建失败保留旧过滤器，下次访问再次尝试
+                    circuitBreaker.onFailure();
+                    log.warn("Feign isolation service filter refresh failed", e);
+                } finally {
+                    filterRefreshing.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            filterRefreshing.set(false);
+        }
+    }
+
+    /**
+     * @param key 路由缓存key
+     * @return 本次刷新结束时完成，未提交刷新时立即完成
+     */
+    private CompletableFuture<Void> refresh(String key, String ip, String serviceName) {
+        if (!refreshing.add(key)) {
+            return CompletableFuture.completedFuture(null);
+        }
+        if (!circuitBreaker.allowRequest()) {
+            // 熔断中，不访问注册中心
+            refreshing.remove(key);
+            return CompletableFuture.completedFuture(null);
+        }
+        final CompletableFuture<Void> done = new CompletableFuture<>();
+        try {
+            refresher.execute(() -> {
+                final long start = System.nanoTime();
+                lookup(ip, serviceName).whenComplete((isolated, throwable) -> {
+                    final long nanos = System.nanoTime() - start;
+                    // 阻塞式注册中心无法中途超时，完成后按实际耗时判断是否超出预算
+                    final boolean success = throwable == null && TimeUnit.NANOSECONDS.toMillis(nanos) <= lookupTimeoutMillis;
+                    metrics.lookup(nanos, success);
+                    if (throwable == null) {
+                        update(key, isolated);
+                    } else {
+                        // 刷新失败保留旧值，下次访问再次尝试
+                        log.warn("Feign isolation route refresh failed, key:{}", key, throwable);
+                    }
+                    if (success) {
+                        circuitBreaker.onSuccess();
+                    } else {
+                        circuitBreaker.onFailure();
+                    }
+                    refreshing.remove(key);
+                    done.complete(null);
+                });
+            });
+        } catch (RejectedExecutionException e) {
+            refreshing.remove(key);
+            circuitBreaker.onFailure();
+            done.complete(null);
+        }
+        return done;
+    }
+
+    /**
+     * 阻塞式注册中心在刷新线程中完成查询；非阻塞式注册中心立即返回，多个host的查询可合并发送
+     */
+    private CompletableFuture<Boolean> lookup(String ip, String serviceName) {
+        try {
+            return registry.lookupAsync(ip, serviceName).toCompletableFuture()
+                    .orTimeout(lookupTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private static final class Route {
+
+        private final boolean isolated;
+        private final long expireAt;
+
+        private Route(boolean isolated, long expireAt) {
+            this.isolated = isolated;
+            this.expireAt = expireAt;
+        }
+
+    }
+
+}
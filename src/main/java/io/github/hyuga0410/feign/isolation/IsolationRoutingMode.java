@@ -0,0 +1,23 @@
+package io.github.hyuga0410.feign.isolation;
+
+/**
+ * IsolationRoutingMode
+ *
+ * @author hyuga
+ * @since 2026/10/17
+ */
+public enum IsolationRoutingMode {
+
+    /**
+     * 隔离服务以[service]-[suffix]注册为独立的服务，请求时重写host；每个隔离后缀在LoadBalancer中都是独立的serviceId
+     */
+    SERVICE_ID,
+
+    /**
+     * 隔离服务保持原服务名注册，隔离后缀写入实例元数据，请求时保持原serviceId，
+     * 由{@link io.github.hyuga0410.feign.isolation.loadbalancer.IsolationServiceInstanceListSupplier}按元数据选择实例，
+     * 无需隔离服务注册中心，需引入spring-cloud-loadbalancer
+     */
+    INSTANCE_METADATA
+
+}
@@ -0,0 +1,113 @@
+package io.github.hyuga0410.feign.isolation;
+
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * IsolationServiceFilter
+ * <p>
+ * 隔离服务布隆过滤器，由注册中心快照构建：判定不存在时一定不存在，判定存在时有约1%的误判，误判只会退回正常的缓存查询
+ * <p>
+ * 只支持添加不支持删除，下线的服务保留到下一次按快照重建；每个服务约占10bit，数千个服务也只需数KB
+ * <p>
+ * 每次feign调用都会查询过滤器，隔离服务名对每个Target固定，调用方预先计算{@link #hash(String)}后通过{@link #mightContain(long)}查询，查询不产生对象
+ *
+ * @author hyuga
+ * @since 2026/10/17
+ */
+final class IsolationServiceFilter {
+
+    /**
+     * 哈希函数个数，对应约1%误判率
+     */
+    private static final int HASHES = 7;
+    /**
+     * 每个服务占用的bit数
+     */
+    private static final int BITS_PER_SERVICE = 10;
+    /**
+     * 最小容量，为两次重建之间新上线的服务预留空间
+     */
+    private static final int MIN_CAPACITY = 64;
+
+    private final AtomicLongArray words;
+    private final int bits;
+
+    private IsolationServiceFilter(int capacity) {
+        final int words = (capacity * BITS_PER_SERVICE + Long.SIZE - 1) / Long.SIZE;
+        this.words = new AtomicLongArray(words);
+        this.bits = words * Long.SIZE;
+    }
+
+    /**
+     * 按快照构建，容量为快照大小的两倍
+     *
+     * @param serviceNames 隔离服务名（带隔离后缀）
+     */
+    static IsolationServiceFilter of(Collection<String> serviceNames) {
+        IsolationServiceFilter filter = new IsolationServiceFilter(Math.max(MIN_CAPACITY, serviceNames.size() * 2));
+        serviceNames.forEach(filter::add);
+        return filter;
+    }
+
+    void add(String serviceName) {
+        final long hash = hash(serviceName);
+        final int h1 = (int) hash;
+        final int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= HASHES; i++) {
+            final int bit = index(h1 + i * h2);
+            final int word = bit >>> 6;
+            final long mask = 1L << bit;
+            long current;
+            do {
+                current = words.get(word);
+                if ((current & mask) != 0) {
+                    break;
+                }
+            } while (!words.compareAndSet(word, current, current | mask));
+        }
+    }
+
+    /**
+     * @return - true:可能存在 - false:一定不存在
+     */
+    boolean mightContain(String serviceName) {
+        return mightContain(hash(serviceName));
+    }
+
+    /**
+     * @param hash 隔离服务名的{@link #hash(String)}
+     * @return - true:可能存在 - false:一定不存在
+     */
+    boolean mightContain(long hash) {
+        final int h1 = (int) hash;
+        final int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= HASHES; i++) {
+            final int bit = index(h1 + i * h2);
+            if ((words.get(bit >>> 6) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int index(int combined) {
+        return (combined & Integer.MAX_VALUE) % bits;
+    }
+
+    /**
+     * 64位FNV-1a（逐个char，不做编码转换）并做一次混淆，高低32位分别作为双重哈希的两个基础哈希
+     */
+    static long hash(String serviceName) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < serviceName.length(); i++) {
+            hash ^= serviceName.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+}
@@ -0,0 +1,81 @@
+package io.github.hyuga0410.feign.isolation;
+
+import cn.hyugatool.core.number.NumberUtil;
+
+/**
+ * IsolationTagContext
+ * <p>
+ * 当前请求链路的隔离标签（入口服务的隔离后缀）及其所属IP，由{@link IsolationTagFilter}从请求头读取，
+ * 由{@link IsolationTagInterceptor}透传给下游；请求结束时必须清除
+ *
+ * @author hyuga
+ * @since 2026/10/17
+ */
+public final class IsolationTagContext {
+
+    private static final ThreadLocal<String> TAG = new ThreadLocal<>();
+    private static final ThreadLocal<String> IP = new ThreadLocal<>();
+
+    private IsolationTagContext() {
+    }
+
+    /**
+     * @return 当前请求链路的隔离标签，不存在时为null
+     */
+    public static String get() {
+        return TAG.get();
+    }
+
+    /**
+     * @return 当前请求链路隔离标签所属的IP，不存在或与标签不一致时为null
+     */
+    public static String ip() {
+        return IP.get();
+    }
+
+    /**
+     * 设置当前请求链路的隔离标签，非法标签忽略
+     *
+     * @param tag 隔离标签
+     */
+    public static void set(String tag) {
+        set(tag, null);
+    }
+
+    /**
+     * 设置当前请求链路的隔离标签及其所属IP，非法标签忽略，IP与标签不一致时只设置标签
+     *
+     * @param tag 隔离标签
+     * @param ip  隔离标签所属IP
+     */
+    public static void set(String tag, String ip) {
+        if (!valid(tag)) {
+            return;
+        }
+        TAG.set(tag);
+        if (ip != null && tag.equals(String.valueOf(NumberUtil.getNumber(ip)))) {
+            IP.set(ip);
+        }
+    }
+
+    public static void clear() {
+        TAG.remove();
+        IP.remove();
+    }
+
+    /**
+     * 隔离标签为数值IP，会拼接进请求host，只接受数字
+     */
+    static boolean valid(String tag) {
+        if (tag == null || tag.isEmpty()) {
+            return false;
+        }
+        for (int i = 0; i < tag.length(); i++) {
+            if (!Character.isDigit(tag.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+}
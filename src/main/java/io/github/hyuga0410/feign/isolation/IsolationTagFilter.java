@@ -0,0 +1,44 @@
+package io.github.hyuga0410.feign.isolation;
+
+import org.springframework.core.Ordered;
+import org.springframework.lang.NonNull;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * IsolationTagFilter
+ * <p>
+ * 读取上游透传的隔离标签请求头，存入{@link IsolationTagContext}，请求结束后清除
+ *
+ * @author hyuga
+ * @since 2026/10/17
+ */
+public class IsolationTagFilter extends OncePerRequestFilter implements Ordered {
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+                                    @NonNull FilterChain filterChain) throws ServletException, IOException {
+        final String tag = request.getHeader(FeignIsolationConstants.ISOLATION_TAG_HEADER);
+        if (tag == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        IsolationTagContext.set(tag, request.getHeader(FeignIsolationConstants.ISOLATION_TAG_IP_HEADER));
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            IsolationTagContext.clear();
+        }
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE + 10;
+    }
+
+}
@@ -0,0 +1,45 @@
+package io.github.hyuga0410.feign.isolation;
+
+import feign.RequestInterceptor;
+import feign.RequestTemplate;
+
+/**
+ * IsolationTagInterceptor
+ * <p>
+ * 向feign请求添加隔离标签请求头：透传上游的标签，入口请求使用当前服务的隔离后缀，默认环境的入口请求不添加；
+ * 同时透传标签所属的IP，供下游在注册中心确认标签对应的隔离服务
+ *
+ * @author hyuga
+ * @since 2026/10/17
+ */
+public class IsolationTagInterceptor implements RequestInterceptor {
+
+    /**
+     * 当前服务的隔离标签，默认环境为null
+     */
+    private final String localTag;
+    /**
+     * 当前服务IP，默认环境为null
+     */
+    private final String localIp;
+
+    public IsolationTagInterceptor(String localTag, String localIp) {
+        this.localTag = localTag;
+        this.localIp = localIp;
+    }
+
+    @Override
+    public void apply(RequestTemplate template) {
+        final String inbound = IsolationTagContext.get();
+        final String tag = inbound != null ? inbound : localTag;
+        if (tag == null) {
+            return;
+        }
+        template.header(FeignIsolationConstants.ISOLATION_TAG_HEADER, tag);
+        final String ip = inbound != null ? IsolationTagContext.ip() : localIp;
+        if (ip != null) {
+            template.header(FeignIsolationConstants.ISOLATION_TAG_IP_HEADER, ip);
+        }
+    }
+
+}
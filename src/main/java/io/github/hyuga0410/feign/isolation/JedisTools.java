@@ -3,6 +3,15 @@ package io.github.hyuga0410.feign.isolation;
 import redis.clients.jedis.Jedis;
 import redis.clients.jedis.JedisPool;
 import redis.clients.jedis.JedisPoolConfig;
+import redis.clients.jedis.JedisPubSub;
+import redis.clients.jedis.Pipeline;
+
+import java.util.List;
+import java.util.Map;
+
+import static io.github.hyuga0410.feign.isolation.FeignIsolationConstants.REDIS_POOL_MAX_TOTAL;
+import static io.github.hyuga0410.feign.isolation.FeignIsolationConstants.REDIS_POOL_MAX_WAIT_MILLIS;
+import static io.github.hyuga0410.feign.isolation.FeignIsolationConstants.REDIS_POOL_MIN_IDLE;
 
 /**
  * JedisTools
@@ -12,48 +21,188 @@ import redis.clients.jedis.JedisPoolConfig;
  */
 public final class JedisTools {
 
-    private final JedisPool jedisPool;
+    /**
+     * 连接超时与读写超时（毫秒）
+     */
+    private static final int TIMEOUT_MILLIS = 2000;
+
+    private final JedisPoolConfig jedisPoolConfig;
+    private final String redisUrl;
+    private final int redisPort;
+    private final String redisUser;
+    private final String redisPassword;
+    /**
+     * 首次访问Redis时创建，默认环境或环境未命中的服务不会建立任何连接
+     */
+    private volatile JedisPool jedisPool;
 
     JedisTools(String redisUrl, int redisPort, String redisUser, String redisPassword) {
-        JedisPoolConfig jedisPoolConfig = new JedisPoolConfig();
-        // 最大连接数为 10
-        jedisPoolConfig.setMaxTotal(1000);
-        jedisPoolConfig.setMinIdle(500);
-        jedisPoolConfig.setMaxWaitMillis(10000);
-        jedisPool = new JedisPool(jedisPoolConfig, redisUrl, redisPort, 2000, redisUser, redisPassword);
+        this(redisUrl, redisPort, redisUser, redisPassword, REDIS_POOL_MAX_TOTAL, REDIS_POOL_MIN_IDLE, REDIS_POOL_MAX_WAIT_MILLIS);
+    }
+
+    /**
+     * 组件对Redis的并发访问只有路由刷新、心跳与键空间订阅三个后台线程，feign请求线程不直接访问Redis，
+     * 连接池按此并发度配置即可，无需随业务并发增长
+     *
+     * @param maxTotal      最大连接数
+     * @param minIdle       最小空闲连接数
+     * @param maxWaitMillis 获取连接最大等待时间（毫秒）
+     */
+    JedisTools(String redisUrl, int redisPort, String redisUser, String redisPassword,
+               int maxTotal, int minIdle, long maxWaitMillis) {
+        this.redisUrl = redisUrl;
+        this.redisPort = redisPort;
+        this.redisUser = redisUser;
+        this.redisPassword = redisPassword;
+        this.jedisPoolConfig = new JedisPoolConfig();
+        jedisPoolConfig.setMaxTotal(maxTotal);
+        jedisPoolConfig.setMaxIdle(maxTotal);
+        jedisPoolConfig.setMinIdle(Math.min(minIdle, maxTotal));
+        jedisPoolConfig.setMaxWaitMillis(maxWaitMillis);
+    }
+
+    private JedisPool jedisPool() {
+        JedisPool pool = jedisPool;
+        if (pool == null) {
+            synchronized (this) {
+                pool = jedisPool;
+                if (pool == null) {
+                    pool = new JedisPool(jedisPoolConfig, redisUrl, redisPort, TIMEOUT_MILLIS, redisUser, redisPassword);
+                    jedisPool = pool;
+                }
+            }
+        }
+        return pool;
     }
 
     public void set(String key, String value) {
-        try (Jedis jedis = jedisPool.getResource()) {
+        try (Jedis jedis = jedisPool().getResource()) {
             jedis.set(key, value);
         }
     }
 
+    /**
+     * SET EX，设置值与过期时间为同一条原子命令
+     */
     public void set(String key, String value, long expireSecond) {
-        try (Jedis jedis = jedisPool.getResource()) {
-            jedis.set(key, value);
-            jedis.expire(key, expireSecond);
+        try (Jedis jedis = jedisPool().getResource()) {
+            jedis.setex(key, expireSecond, value);
+        }
+    }
+
+    /**
+     * 批量SET EX，通过一次pipeline提交
+     */
+    public void set(Map<String, String> entries, long expireSecond) {
+        try (Jedis jedis = jedisPool().getResource()) {
+            Pipeline pipeline = jedis.pipelined();
+            entries.forEach((key, value) -> pipeline.setex(key, expireSecond, value));
+            pipeline.sync();
         }
     }
 
     public void expire(String key, long expireSecond) {
-        try (Jedis jedis = jedisPool.getResource()) {
+        try (Jedis jedis = jedisPool().getResource()) {
             jedis.expire(key, expireSecond);
         }
     }
 
     public String get(String key) {
-        try (Jedis jedis = jedisPool.getResource()) {
+        try (Jedis jedis = jedisPool().getResource()) {
             return jedis.get(key);
         }
     }
 
+    public String hget(String key, String field) {
+        try (Jedis jedis = jedisPool().getResource()) {
+            return jedis.hget(key, field);
+        }
+    }
+
+    public Map<String, String> hgetAll(String key) {
+        try (Jedis jedis = jedisPool().getResource()) {
+            return jedis.hgetAll(key);
+        }
+    }
+
+    /**
+     * 执行Lua脚本
+     */
+    public Object eval(String script, List<String> keys, List<String> args) {
+        try (Jedis jedis = jedisPool().getResource()) {
+            return jedis.eval(script, keys, args);
+        }
+    }
+
     public void del(String key) {
-        try (Jedis jedis = jedisPool.getResource()) {
+        try (Jedis jedis = jedisPool().getResource()) {
             jedis.del(key);
         }
     }
 
+    public String configGet(String parameter) {
+        try (Jedis jedis = jedisPool().getResource()) {
+            List<String> config = jedis.configGet(parameter);
+            return config.size() > 1 ? config.get(1) : null;
+        }
+    }
+
+    public void configSet(String parameter, String value) {
+        try (Jedis jedis = jedisPool().getResource()) {
+            jedis.configSet(parameter, value);
+        }
+    }
+
+    /**
+     * 按模式订阅，阻塞当前线程直到取消订阅或连接断开
+     */
+    public void psubscribe(JedisPubSub pubSub, String... patterns) {
+        try (Jedis jedis = jedisPool().getResource()) {
+            jedis.psubscribe(pubSub, patterns);
+        }
+    }
+
+    /**
+     * 连接池平均借用等待时间（毫秒）
+     */
+    public long meanBorrowWaitMillis() {
+        final JedisPool pool = jedisPool;
+        return pool == null ? 0 : pool.getMeanBorrowWaitTimeMillis();
+    }
+
+    /**
+     * 连接池最大借用等待时间（毫秒）
+     */
+    public long maxBorrowWaitMillis() {
+        final JedisPool pool = jedisPool;
+        return pool == null ? 0 : pool.getMaxBorrowWaitTimeMillis();
+    }
+
+    public int numActive() {
+        final JedisPool pool = jedisPool;
+        return pool == null ? 0 : pool.getNumActive();
+    }
+
+    public int numIdle() {
+        final JedisPool pool = jedisPool;
+        return pool == null ? 0 : pool.getNumIdle();
+    }
+
+    public int numWaiters() {
+        final JedisPool pool = jedisPool;
+        return pool == null ? 0 : pool.getNumWaiters();
+    }
+
+    /**
+     * 关闭连接池
+     */
+    public void close() {
+        final JedisPool pool = jedisPool;
+        if (pool != null) {
+            pool.close();
+        }
+    }
+
     public static void main(String[] args) {
         JedisTools jedisTools = new JedisTools("10.210.10.154", 7001, null, "kfang.com");
         String key = "FEIGN-ISOLATION:service-agent-house:10210";
@@ -0,0 +1,163 @@
+package io.github.hyuga0410.feign.isolation;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.context.ApplicationContext;
+
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * MicrometerIsolationMetrics
+ * <p>
+ * 基于Micrometer的指标实现，仅在Micrometer存在时加载
+ * <p>
+ * 路由决策次数每次调用都记录（计数器），决策耗时按1/64采样，避免在feign请求路径上频繁取时间
+ *
+ * @author hyuga
+ * @since 2026/10/17
+ */
+final class MicrometerIsolationMetrics implements IsolationMetrics {
+
+    private static final String PREFIX = "feign.isolation.";
+    private static final String TAG_TARGET = "target";
+    private static final String TAG_OUTCOME = "outcome";
+    private static final String TAG_RESULT = "result";
+    private static final String MILLISECONDS = "milliseconds";
+    /**
+     * 路由决策耗时采样率
+     */
+    private static final int DECISION_SAMPLE_RATE = 64;
+
+    private final MeterRegistry meterRegistry;
+    private final Counter cacheHit;
+    private final Counter cacheStale;
+    private final Counter cacheMiss;
+    private final Counter cacheFiltered;
+    private final Timer lookupSuccess;
+    private final Timer lookupError;
+    private final Timer heartbeatLag;
+    private final Counter heartbeatFailures;
+
+    private MicrometerIsolationMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        this.cacheHit = cacheCounter(CACHE_HIT);
+        this.cacheStale = cacheCounter(CACHE_STALE);
+        this.cacheMiss = cacheCounter(CACHE_MISS);
+        this.cacheFiltered = cacheCounter(CACHE_FILTERED);
+        this.lookupSuccess = lookupTimer("success");
+        this.lookupError = lookupTimer("error");
+        this.heartbeatLag = Timer.builder(PREFIX + "heartbeat.lag")
+                .description("Delay of heartbeat ticks behind their schedule")
+                .register(meterRegistry);
+        this.heartbeatFailures = Counter.builder(PREFIX + "heartbeat.failures")
+                .description("Failed heartbeat ticks")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 容器中存在MeterRegistry时启用指标
+     */
+    static IsolationMetrics of(ApplicationContext applicationContext) {
+        MeterRegistry meterRegistry = applicationContext.getBeanProvider(MeterRegistry.class).getIfAvailable();
+        return meterRegistry == null ? NOOP : new MicrometerIsolationMetrics(meterRegistry);
+    }
+
+    @Override
+    public RouteMeter route(String host) {
+        final RouteDecision.Outcome[] outcomes = RouteDecision.Outcome.values();
+        final Counter[] decisions = new Counter[outcomes.length];
+        for (RouteDecision.Outcome outcome : outcomes) {
+            decisions[outcome.ordinal()] = Counter.builder(PREFIX + "route.decisions")
+                    .description("Route decisions per target and outcome")
+                    .tag(TAG_TARGET, host)
+                    .tag(TAG_OUTCOME, outcome.name().toLowerCase(Locale.ROOT))
+                    .register(meterRegistry);
+        }
+        final Timer latency = Timer.builder(PREFIX + "route.decision.latency")
+                .description("Sampled route decision latency per target")
+                .tag(TAG_TARGET, host)
+                .register(meterRegistry);
+
+        return new RouteMeter() {
+
+            @Override
+            public long start() {
+                return ThreadLocalRandom.current().nextInt(DECISION_SAMPLE_RATE) == 0 ? System.nanoTime() : 0L;
+            }
+
+            @Override
+            public void record(RouteDecision decision, long start) {
+                decisions[decision.outcome().ordinal()].increment();
+                if (start != 0L) {
+                    latency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                }
+            }
+
+        };
+    }
+
+    @Override
+    public void cacheAccess(String result) {
+        switch (result) {
+            case CACHE_HIT:
+                cacheHit.increment();
+                break;
+            case CACHE_STALE:
+                cacheStale.increment();
+                break;
+            case CACHE_FILTERED:
+                cacheFiltered.increment();
+                break;
+            default:
+                cacheMiss.increment();
+                break;
+        }
+    }
+
+    @Override
+    public void lookup(long nanos, boolean success) {
+        (success ? lookupSuccess : lookupError).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void heartbeat(long lagMillis, boolean success) {
+        heartbeatLag.record(Math.max(lagMillis, 0L), TimeUnit.MILLISECONDS);
+        if (!success) {
+            heartbeatFailures.increment();
+        }
+    }
+
+    @Override
+    public void pool(JedisTools jedisTools) {
+        Gauge.builder(PREFIX + "redis.pool.borrow.wait.mean", jedisTools, JedisTools::meanBorrowWaitMillis)
+                .description("Mean time spent waiting to borrow a Redis connection")
+                .baseUnit(MILLISECONDS)
+                .register(meterRegistry);
+        Gauge.builder(PREFIX + "redis.pool.borrow.wait.max", jedisTools, JedisTools::maxBorrowWaitMillis)
+                .description("Max time spent waiting to borrow a Redis connection")
+                .baseUnit(MILLISECONDS)
+                .register(meterRegistry);
+        Gauge.builder(PREFIX + "redis.pool.active", jedisTools, JedisTools::numActive).register(meterRegistry);
+        Gauge.builder(PREFIX + "redis.pool.idle", jedisTools, JedisTools::numIdle).register(meterRegistry);
+        Gauge.builder(PREFIX + "redis.pool.waiters", jedisTools, JedisTools::numWaiters).register(meterRegistry);
+    }
+
+    private Counter cacheCounter(String result) {
+        return Counter.builder(PREFIX + "route.cache")
+                .description("Route cache accesses by result, hit ratio = hit / total")
+                .tag(TAG_RESULT, result)
+                .register(meterRegistry);
+    }
+
+    private Timer lookupTimer(String result) {
+        return Timer.builder(PREFIX + "registry.lookup")
+                .description("Isolation registry lookup latency")
+                .tag(TAG_RESULT, result)
+                .register(meterRegistry);
+    }
+
+}
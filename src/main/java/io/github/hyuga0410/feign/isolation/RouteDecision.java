@@ -0,0 +1,92 @@
+package io.github.hyuga0410.feign.isolation;
+
+/**
+ * RouteDecision
+ * <p>
+ * 隔离路由决策分支
+ *
+ * @author hyuga
+ * @since 2026/10/17
+ */
+public enum RouteDecision {
+
+    /**
+     * 环境未命中，不启用隔离
+     */
+    DISABLED(Outcome.DEFAULT),
+    /**
+     * 当前IP地址为默认服务IP地址，无需隔离
+     */
+    DEFAULT_IP(Outcome.DEFAULT),
+    /**
+     * 请求url不是指定的服务标识不隔离
+     */
+    NO_SERVICE_SIGN(Outcome.DEFAULT),
+    /**
+     * 需要强制隔离的ip，但同时又配置在了skipIsolationServices中
+     */
+    SKIPPED(Outcome.SKIPPED),
+    /**
+     * 需要强制隔离的ip
+     */
+    FORCED(Outcome.ISOLATED),
+    /**
+     * 按上游透传的隔离标签调用其他环境的隔离服务，注册中心已确认存在；INSTANCE_METADATA模式下由LoadBalancer按标签选择实例
+     */
+    TAGGED(Outcome.ISOLATED),
+    /**
+     * 由LoadBalancer按实例元数据选择隔离实例，不存在时回退到默认实例
+     */
+    INSTANCE_METADATA(Outcome.ISOLATED),
+    /**
+     * 注册中心存在同IP的隔离服务
+     */
+    REGISTRY_HIT(Outcome.ISOLATED),
+    /**
+     * 注册中心存在同IP的隔离服务，但隔离服务近期连续调用失败或过慢，冷却期内调用默认服务
+     */
+    UNHEALTHY(Outcome.DEMOTED),
+    /**
+     * 注册中心不存在同IP的隔离服务
+     */
+    REGISTRY_MISS(Outcome.DEFAULT);
+
+    private final Outcome outcome;
+
+    RouteDecision(Outcome outcome) {
+        this.outcome = outcome;
+    }
+
+    public Outcome outcome() {
+        return outcome;
+    }
+
+    public boolean isolated() {
+        return outcome == Outcome.ISOLATED;
+    }
+
+    /**
+     * 路由结果
+     */
+    public enum Outcome {
+
+        /**
+         * 调用隔离服务
+         */
+        ISOLATED,
+        /**
+         * 调用默认服务
+         */
+        DEFAULT,
+        /**
+         * 命中skipIsolationServices，调用默认服务
+         */
+        SKIPPED,
+        /**
+         * 隔离服务不健康被降级，调用默认服务
+         */
+        DEMOTED
+
+    }
+
+}
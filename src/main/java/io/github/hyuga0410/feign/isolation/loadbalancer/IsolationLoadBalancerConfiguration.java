@@ -0,0 +1,40 @@
+package io.github.hyuga0410.feign.isolation.loadbalancer;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * IsolationLoadBalancerConfiguration
+ * <p>
+ * 所有LoadBalancer客户端的默认配置，由{@link io.github.hyuga0410.feign.isolation.FeignIsolationConfiguration}在
+ * {@link io.github.hyuga0410.feign.isolation.IsolationRoutingMode#INSTANCE_METADATA}模式下注册，不应被组件扫描
+ * <p>
+ * 不声明{@link ServiceInstanceListSupplier}，只在子容器中包装已有的实例列表，
+ * 保留{@code spring.cloud.loadbalancer.configurations}（health-check、zone-preference等）及{@code @LoadBalancerClient}自定义的配置
+ *
+ * @author hyuga
+ * @since 2026/10/17
+ */
+@Configuration(proxyBeanMethods = false)
+public class IsolationLoadBalancerConfiguration {
+
+    @Bean
+    public static BeanPostProcessor isolationServiceInstanceListSupplierPostProcessor() {
+        return new IsolationServiceInstanceListSupplierPostProcessor();
+    }
+
+    static final class IsolationServiceInstanceListSupplierPostProcessor implements BeanPostProcessor {
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (bean instanceof ServiceInstanceListSupplier && !(bean instanceof IsolationServiceInstanceListSupplier)) {
+                return new IsolationServiceInstanceListSupplier((ServiceInstanceListSupplier) bean);
+            }
+            return bean;
+        }
+
+    }
+
+}
@@ -0,0 +1,67 @@
+package io.github.hyuga0410.feign.isolation.loadbalancer;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.reactive.ReactiveLoadBalancer;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.context.ApplicationContext;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Collection;
+
+/**
+ * IsolationLoadBalancerWarmer
+ * <p>
+ * 为即将调用的serviceId提前创建LoadBalancer子容器，并执行一次实例选择以完成服务发现拉取与实例列表缓存，
+ * 需引入spring-cloud-loadbalancer
+ *
+ * @author hyuga
+ * @since 2026/10/17
+ */
+@Slf4j
+public final class IsolationLoadBalancerWarmer {
+
+    private IsolationLoadBalancerWarmer() {
+    }
+
+    /**
+     * @param applicationContext 应用容器
+     * @param serviceIds         待预热的serviceId
+     * @param timeoutMillis      最长等待时间（毫秒），超时后未完成的服务发现在后台继续执行
+     */
+    public static void warm(ApplicationContext applicationContext, Collection<String> serviceIds, long timeoutMillis) {
+        final LoadBalancerClientFactory clientFactory = applicationContext.getBeanProvider(LoadBalancerClientFactory.class).getIfAvailable();
+        if (clientFactory == null || serviceIds.isEmpty()) {
+            return;
+        }
+        try {
+            Flux.fromIterable(serviceIds)
+                    .flatMap(serviceId -> choose(clientFactory, serviceId))
+                    .then()
+                    .block(Duration.ofMillis(timeoutMillis));
+        } catch (RuntimeException e) {
+            log.warn("Feign isolation load balancer prewarm incomplete, services:{}", serviceIds);
+        }
+    }
+
+    private static Mono<?> choose(LoadBalancerClientFactory clientFactory, String serviceId) {
+        try {
+            // 首次获取时创建该serviceId的子容器
+            final ReactiveLoadBalancer<ServiceInstance> loadBalancer = clientFactory.getInstance(serviceId);
+            if (loadBalancer == null) {
+                return Mono.empty();
+            }
+            return Mono.from(loadBalancer.choose())
+                    .onErrorResume(e -> {
+                        log.warn("Feign isolation load balancer prewarm failed, service:{}", serviceId, e);
+                        return Mono.empty();
+                    });
+        } catch (RuntimeException e) {
+            log.warn("Feign isolation load balancer prewarm failed, service:{}", serviceId, e);
+            return Mono.empty();
+        }
+    }
+
+}
@@ -0,0 +1,82 @@
+package io.github.hyuga0410.feign.isolation.loadbalancer;
+
+import io.github.hyuga0410.feign.isolation.FeignIsolationConstants;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.RequestDataContext;
+import org.springframework.cloud.loadbalancer.core.DelegatingServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import reactor.core.publisher.Flux;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * IsolationServiceInstanceListSupplier
+ * <p>
+ * 按实例元数据{@value FeignIsolationConstants#FEIGN_SUFFIX}选择隔离实例：
+ * 请求头{@value FeignIsolationConstants#ISOLATION_INSTANCE_HEADER}指定了隔离后缀时选择该后缀的实例，不存在时回退到默认实例；
+ * 未指定时只选择默认实例（没有隔离后缀元数据的实例）
+ *
+ * @author hyuga
+ * @since 2026/10/17
+ */
+public class IsolationServiceInstanceListSupplier extends DelegatingServiceInstanceListSupplier {
+
+    public IsolationServiceInstanceListSupplier(ServiceInstanceListSupplier delegate) {
+        super(delegate);
+    }
+
+    @Override
+    public Flux<List<ServiceInstance>> get() {
+        return delegate.get().map(instances -> filter(instances, null));
+    }
+
+    @Override
+    @SuppressWarnings("rawtypes")
+    public Flux<List<ServiceInstance>> get(Request request) {
+        final String suffix = requestedSuffix(request);
+        return delegate.get(request).map(instances -> filter(instances, suffix));
+    }
+
+    private static String requestedSuffix(Request<?> request) {
+        if (request == null || !(request.getContext() instanceof RequestDataContext)) {
+            return null;
+        }
+        final RequestDataContext context = (RequestDataContext) request.getContext();
+        if (context.getClientRequest() == null || context.getClientRequest().getHeaders() == null) {
+            return null;
+        }
+        return context.getClientRequest().getHeaders().getFirst(FeignIsolationConstants.ISOLATION_INSTANCE_HEADER);
+    }
+
+    /**
+     * @param instances 全部实例
+     * @param suffix    请求的隔离后缀，null为默认实例
+     * @return 隔离实例，不存在时为默认实例
+     */
+    static List<ServiceInstance> filter(List<ServiceInstance> instances, String suffix) {
+        final List<ServiceInstance> defaults = new ArrayList<>(instances.size());
+        final List<ServiceInstance> isolated = suffix == null ? null : new ArrayList<>();
+        for (ServiceInstance instance : instances) {
+            final String instanceSuffix = suffix(instance);
+            if (instanceSuffix == null) {
+                defaults.add(instance);
+            } else if (suffix != null && suffix.equals(instanceSuffix)) {
+                isolated.add(instance);
+            }
+        }
+        return isolated == null || isolated.isEmpty() ? defaults : isolated;
+    }
+
+    private static String suffix(ServiceInstance instance) {
+        final Map<String, String> metadata = instance.getMetadata();
+        if (metadata == null) {
+            return null;
+        }
+        final String suffix = metadata.get(FeignIsolationConstants.FEIGN_SUFFIX);
+        return suffix == null || suffix.isEmpty() ? null : suffix;
+    }
+
+}
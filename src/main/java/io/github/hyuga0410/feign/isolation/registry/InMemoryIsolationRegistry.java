@@ -0,0 +1,72 @@
+package io.github.hyuga0410.feign.isolation.registry;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * InMemoryIsolationRegistry
+ * <p>
+ * 进程内注册中心，用于单元测试或本地调试，注册与注销立即通知订阅者
+ *
+ * @author hyuga
+ * @since 2026/10/17
+ */
+public class InMemoryIsolationRegistry implements IsolationRegistry {
+
+    /**
+     * ip -> 隔离服务名
+     */
+    private final Map<String, Set<String>> services = new ConcurrentHashMap<>();
+    /**
+     * ip -> 事件监听
+     */
+    private final Map<String, List<Listener>> listeners = new ConcurrentHashMap<>();
+
+    @Override
+    public void register(String ip, String serviceName) {
+        if (services.computeIfAbsent(ip, key -> ConcurrentHashMap.newKeySet()).add(serviceName)) {
+            notify(ip, serviceName, true);
+        }
+    }
+
+    /**
+     * 注销隔离服务，模拟心跳过期
+     *
+     * @param ip          服务IP
+     * @param serviceName 隔离服务名（带隔离后缀）
+     */
+    public void deregister(String ip, String serviceName) {
+        Set<String> ipServices = services.get(ip);
+        if (ipServices != null && ipServices.remove(serviceName)) {
+            notify(ip, serviceName, false);
+        }
+    }
+
+    @Override
+    public void heartbeat() {
+        // 进程内注册不会过期
+    }
+
+    @Override
+    public boolean lookup(String ip, String serviceName) {
+        return services.getOrDefault(ip, Set.of()).contains(serviceName);
+    }
+
+    @Override
+    public Set<String> snapshot(String ip) {
+        return Set.copyOf(services.getOrDefault(ip, Set.of()));
+    }
+
+    @Override
+    public void subscribe(String ip, Listener listener) {
+        listeners.computeIfAbsent(ip, key -> new CopyOnWriteArrayList<>()).add(listener);
+    }
+
+    private void notify(String ip, String serviceName, boolean present) {
+        listeners.getOrDefault(ip, List.of()).forEach(listener -> listener.onChange(serviceName, present));
+    }
+
+}
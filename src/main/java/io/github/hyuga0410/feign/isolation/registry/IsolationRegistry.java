@@ -0,0 +1,105 @@
+package io.github.hyuga0410.feign.isolation.registry;
+
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * IsolationRegistry
+ * <p>
+ * 隔离服务注册中心SPI：隔离服务注册与心跳续约、按IP查询隔离服务是否存在、订阅隔离服务上下线事件
+ * <p>
+ * 声明该类型的Bean即可替换{@link io.github.hyuga0410.feign.isolation.FeignIsolation#registry()}指定的内置实现
+ *
+ * @author hyuga
+ * @since 2026/10/17
+ */
+public interface IsolationRegistry {
+
+    /**
+     * 注册隔离服务，由{@link #heartbeat()}续约
+     *
+     * @param ip          服务IP
+     * @param serviceName 隔离服务名（带隔离后缀）
+     */
+    void register(String ip, String serviceName);
+
+    /**
+     * 续约所有已注册的隔离服务，由心跳定时调用
+     */
+    void heartbeat();
+
+    /**
+     * 查询指定IP下是否存在隔离服务，可能访问网络，不应在feign请求线程中直接调用
+     *
+     * @param ip          服务IP
+     * @param serviceName 隔离服务名（带隔离后缀）
+     * @return - true:存在 - false:不存在
+     */
+    boolean lookup(String ip, String serviceName);
+
+    /**
+     * 异步查询指定IP下是否存在隔离服务
+     * <p>
+     * 默认在调用线程中同步查询；基于非阻塞客户端的实现应直接返回未完成的结果，使并发查询可以合并发送
+     *
+     * @param ip          服务IP
+     * @param serviceName 隔离服务名（带隔离后缀）
+     * @return 查询结果
+     */
+    default CompletionStage<Boolean> lookupAsync(String ip, String serviceName) {
+        try {
+            return CompletableFuture.completedFuture(lookup(ip, serviceName));
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * 批量读取指定IP下的全部隔离服务，用于构建本地不存在判定过滤器，可能访问网络
+     * <p>
+     * 只有能以固定成本读取整个环境的实现才需要支持
+     *
+     * @param ip 服务IP
+     * @return 隔离服务名（带隔离后缀），不支持时返回null
+     */
+    default Set<String> snapshot(String ip) {
+        return null;
+    }
+
+    /**
+     * 订阅指定IP下隔离服务的上下线事件
+     *
+     * @param ip       服务IP
+     * @param listener 事件监听
+     */
+    void subscribe(String ip, Listener listener);
+
+    /**
+     * 释放连接、订阅等资源
+     */
+    default void close() {
+    }
+
+    /**
+     * 隔离服务上下线事件监听
+     */
+    interface Listener {
+
+        /**
+         * 隔离服务上线或下线
+         *
+         * @param serviceName 隔离服务名（带隔离后缀）
+         * @param present     - true:上线 - false:下线
+         */
+        void onChange(String serviceName, boolean present);
+
+        /**
+         * 订阅通道(重新)建立，之前的事件可能已丢失，需要重新查询
+         */
+        default void onResync() {
+        }
+
+    }
+
+}
@@ -0,0 +1,37 @@
+package io.github.hyuga0410.feign.isolation.registry;
+
+/**
+ * IsolationRegistryType
+ *
+ * @author hyuga
+ * @since 2026/10/17
+ */
+public enum IsolationRegistryType {
+
+    /**
+     * Redis：心跳写入FEIGN_ISOLATION:[ip]:[service]，通过键空间通知推送上下线
+     */
+    REDIS,
+
+    /**
+     * Redis（Lettuce）：与REDIS相同的key布局，单连接多路复用，并发查询自动合并发送，需引入lettuce-core
+     */
+    LETTUCE,
+
+    /**
+     * Nacos：复用服务注册，订阅隔离服务实例变更推送，无需额外心跳
+     */
+    NACOS,
+
+    /**
+     * Redis（Spring Data Redis）：与REDIS相同的key布局，复用容器中的RedisConnectionFactory，不再单独创建连接池
+     */
+    SPRING_DATA_REDIS,
+
+    /**
+     * Redis（Hash）：每个隔离环境一个Hash：FEIGN_ISOLATION_HASH:[ip]，field为隔离服务名，value为心跳时间，
+     * 客户端按版本号增量刷新整个环境的路由快照，查询成本不随服务数量增长
+     */
+    REDIS_HASH
+
+}
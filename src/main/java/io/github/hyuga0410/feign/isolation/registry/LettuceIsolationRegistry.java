@@ -0,0 +1,172 @@
+package io.github.hyuga0410.feign.isolation.registry;
+
+import cn.hyugatool.core.string.StringUtil;
+import io.lettuce.core.LettuceFutures;
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.RedisFuture;
+import io.lettuce.core.RedisURI;
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.api.sync.RedisCommands;
+import io.lettuce.core.pubsub.RedisPubSubAdapter;
+import io.lettuce.core.pubsub.StatefulRedisPubSubConnection;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static io.github.hyuga0410.feign.isolation.FeignIsolationConstants.HEARTBEAT_EXPIRE_SECONDS;
+
+/**
+ * LettuceIsolationRegistry
+ * <p>
+ * 与{@link RedisIsolationRegistry}相同的key布局，基于Lettuce单连接多路复用：
+ * 所有线程共享一个非阻塞连接，并发的查询与心跳命令自动合并发送，无需连接池，连接数与线程数不随feign并发增长
+ * <p>
+ * 与JedisTools一致，首次访问Redis时才创建客户端与连接，默认环境或环境未命中的服务不会建立任何连接
+ *
+ * @author hyuga
+ * @since 2026/10/17
+ */
+@Slf4j
+public class LettuceIsolationRegistry implements IsolationRegistry {
+
+    /**
+     * 命令超时时间，与Jedis保持一致
+     */
+    private static final Duration TIMEOUT = Duration.ofMillis(2000);
+
+    private final RedisURI redisUri;
+    /**
+     * 是否自动补齐服务端键空间通知配置
+     */
+    private final boolean configureKeyspaceEvents;
+    /**
+     * 首次访问Redis时创建
+     */
+    private RedisClient redisClient;
+    private volatile StatefulRedisConnection<String, String> connection;
+    private boolean closed;
+    /**
+     * 已注册的Redis key -> 隔离服务名
+     */
+    private final Map<String, String> registrations = new ConcurrentHashMap<>();
+    private final List<StatefulRedisPubSubConnection<String, String>> pubSubConnections = new CopyOnWriteArrayList<>();
+
+    public LettuceIsolationRegistry(String redisUrl, int redisPort, String redisUser, String redisPassword) {
+        this(redisUrl, redisPort, redisUser, redisPassword, false);
+    }
+
+    public LettuceIsolationRegistry(String redisUrl, int redisPort, String redisUser, String redisPassword,
+                                    boolean configureKeyspaceEvents) {
+        this.configureKeyspaceEvents = configureKeyspaceEvents;
+        RedisURI.Builder builder = RedisURI.builder().withHost(redisUrl).withPort(redisPort).withTimeout(TIMEOUT);
+        if (StringUtil.hasText(redisPassword)) {
+            if (StringUtil.hasText(redisUser)) {
+                builder.withAuthentication(redisUser, redisPassword);
+            } else {
+                builder.withPassword(redisPassword.toCharArray());
+            }
+        }
+        this.redisUri = builder.build();
+    }
+
+    private synchronized RedisClient redisClient() {
+        if (closed) {
+            throw new IllegalStateException("Feign isolation lettuce registry closed.");
+        }
+        if (redisClient == null) {
+            redisClient = RedisClient.create(redisUri);
+        }
+        return redisClient;
+    }
+
+    private StatefulRedisConnection<String, String> connection() {
+        StatefulRedisConnection<String, String> current = connection;
+        if (current == null) {
+            synchronized (this) {
+                current = connection;
+                if (current == null) {
+                    current = redisClient().connect();
+                    connection = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    @Override
+    public void register(String ip, String serviceName) {
+        registrations.put(RedisIsolationRegistry.key(ip, serviceName), serviceName);
+    }
+
+    @Override
+    public void heartbeat() {
+        if (registrations.isEmpty()) {
+            return;
+        }
+        RedisFuture<?>[] futures = registrations.entrySet().stream()
+                .map(entry -> connection().async().setex(entry.getKey(), HEARTBEAT_EXPIRE_SECONDS, entry.getValue()))
+                .toArray(RedisFuture[]::new);
+        if (!LettuceFutures.awaitAll(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS, futures)) {
+            throw new IllegalStateException("Feign isolation heartbeat timeout.");
+        }
+    }
+
+    @Override
+    public boolean lookup(String ip, String serviceName) {
+        return StringUtil.hasText(connection().sync().get(RedisIsolationRegistry.key(ip, serviceName)));
+    }
+
+    @Override
+    public CompletionStage<Boolean> lookupAsync(String ip, String serviceName) {
+        return connection().async().get(RedisIsolationRegistry.key(ip, serviceName)).thenApply(StringUtil::hasText);
+    }
+
+    @Override
+    public void subscribe(String ip, Listener listener) {
+        final RedisCommands<String, String> commands = connection().sync();
+        RedisKeyspaceSubscriber.checkKeyspaceEvents(
+                () -> commands.configGet(RedisKeyspaceSubscriber.NOTIFY_KEYSPACE_EVENTS).get(RedisKeyspaceSubscriber.NOTIFY_KEYSPACE_EVENTS),
+                events -> commands.configSet(RedisKeyspaceSubscriber.NOTIFY_KEYSPACE_EVENTS, events), configureKeyspaceEvents);
+
+        final String keyPrefix = RedisIsolationRegistry.keyPrefix(ip);
+        StatefulRedisPubSubConnection<String, String> pubSubConnection = redisClient().connectPubSub();
+        pubSubConnection.addListener(new RedisPubSubAdapter<>() {
+
+            @Override
+            public void psubscribed(String pattern, long count) {
+                // (重新)订阅成功，Lettuce断线重连后自动重新订阅，断开期间的事件可能已丢失
+                listener.onResync();
+            }
+
+            @Override
+            public void message(String pattern, String channel, String event) {
+                RedisKeyspaceSubscriber.dispatch(keyPrefix, channel, event, listener);
+            }
+
+        });
+        pubSubConnection.async().psubscribe(RedisKeyspaceSubscriber.pattern(keyPrefix));
+        pubSubConnections.add(pubSubConnection);
+    }
+
+    @Override
+    public synchronized void close() {
+        closed = true;
+        pubSubConnections.forEach(StatefulRedisPubSubConnection::close);
+        pubSubConnections.clear();
+        if (connection != null) {
+            connection.close();
+            connection = null;
+        }
+        if (redisClient != null) {
+            redisClient.shutdown();
+            redisClient = null;
+        }
+    }
+
+}
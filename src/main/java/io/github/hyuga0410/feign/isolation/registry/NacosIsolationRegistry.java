@@ -0,0 +1,135 @@
+package io.github.hyuga0410.feign.isolation.registry;
+
+import com.alibaba.nacos.api.exception.NacosException;
+import com.alibaba.nacos.api.naming.NamingService;
+import com.alibaba.nacos.api.naming.listener.EventListener;
+import com.alibaba.nacos.api.naming.listener.NamingEvent;
+import com.alibaba.nacos.api.naming.pojo.Instance;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+
+/**
+ * NacosIsolationRegistry
+ * <p>
+ * 隔离服务启动时已以[service]-[suffix]注册到Nacos，因此无需额外注册与心跳；
+ * 首次查询某个隔离服务时订阅其实例变更，之后的查询直接读取Nacos推送的本地状态，不再访问网络
+ *
+ * @author hyuga
+ * @since 2026/10/17
+ */
+@Slf4j
+public class NacosIsolationRegistry implements IsolationRegistry {
+
+    private final NamingService namingService;
+    private final String group;
+    /**
+     * 隔离服务名 -> 健康实例IP
+     */
+    private final Map<String, Set<String>> serviceIps = new ConcurrentHashMap<>();
+    /**
+     * 隔离服务名 -> Nacos实例变更订阅
+     */
+    private final Map<String, EventListener> subscriptions = new ConcurrentHashMap<>();
+    /**
+     * ip -> 事件监听
+     */
+    private final Map<String, List<Listener>> listeners = new ConcurrentHashMap<>();
+
+    public NacosIsolationRegistry(NamingService namingService, String group) {
+        this.namingService = namingService;
+        this.group = group;
+    }
+
+    @Override
+    public void register(String ip, String serviceName) {
+        // 服务注册及心跳由Nacos服务发现完成
+    }
+
+    @Override
+    public void heartbeat() {
+        // 服务注册及心跳由Nacos服务发现完成
+    }
+
+    @Override
+    public boolean lookup(String ip, String serviceName) {
+        Set<String> ips = serviceIps.get(serviceName);
+        if (ips == null) {
+            ips = subscribeService(serviceName);
+        }
+        return ips.contains(ip);
+    }
+
+    @Override
+    public void subscribe(String ip, Listener listener) {
+        listeners.computeIfAbsent(ip, key -> new CopyOnWriteArrayList<>()).add(listener);
+    }
+
+    @Override
+    public void close() {
+        subscriptions.forEach((serviceName, subscription) -> {
+            try {
+                namingService.unsubscribe(serviceName, group, subscription);
+            } catch (NacosException e) {
+                log.warn("Nacos isolation unsubscribe failed, service:{}", serviceName, e);
+            }
+        });
+        subscriptions.clear();
+        try {
+            namingService.shutDown();
+        } catch (NacosException e) {
+            log.warn("Nacos isolation registry shutdown failed", e);
+        }
+    }
+
+    /**
+     * 订阅隔离服务实例变更，并加载当前健康实例；同一隔离服务只订阅一次
+     */
+    private Set<String> subscribeService(String serviceName) {
+        final EventListener subscription = event -> {
+            if (event instanceof NamingEvent) {
+                onInstancesChange(serviceName, ((NamingEvent) event).getInstances());
+            }
+        };
+        try {
+            if (subscriptions.putIfAbsent(serviceName, subscription) == null) {
+                subscribe(serviceName, subscription);
+            }
+            onInstancesChange(serviceName, namingService.selectInstances(serviceName, group, true));
+        } catch (NacosException e) {
+            throw new IllegalStateException("Nacos isolation lookup failed, service:" + serviceName, e);
+        }
+        return serviceIps.getOrDefault(serviceName, Set.of());
+    }
+
+    private void subscribe(String serviceName, EventListener subscription) throws NacosException {
+        try {
+            namingService.subscribe(serviceName, group, subscription);
+        } catch (NacosException | RuntimeException e) {
+            // 订阅失败时允许下次查询重新订阅
+            subscriptions.remove(serviceName, subscription);
+            throw e;
+        }
+    }
+
+    private void onInstancesChange(String serviceName, List<Instance> instances) {
+        final Set<String> ips = instances == null ? Set.of() : instances.stream()
+                .filter(instance -> instance.isHealthy() && instance.isEnabled())
+                .map(Instance::getIp)
+                .collect(Collectors.toUnmodifiableSet());
+        final Set<String> previous = serviceIps.put(serviceName, ips);
+
+        listeners.forEach((ip, ipListeners) -> {
+            boolean present = ips.contains(ip);
+            if (previous == null || previous.contains(ip) != present) {
+                ipListeners.forEach(listener -> listener.onChange(serviceName, present));
+            }
+        });
+    }
+
+}
@@ -0,0 +1,229 @@
+package io.github.hyuga0410.feign.isolation.registry;
+
+import cn.hyugatool.core.string.StringUtil;
+import io.github.hyuga0410.feign.isolation.JedisTools;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static io.github.hyuga0410.feign.isolation.FeignIsolationConstants.HEARTBEAT_EXPIRE_SECONDS;
+
+/**
+ * RedisHashIsolationRegistry
+ * <p>
+ * 每个隔离环境一个Hash：FEIGN_ISOLATION_HASH:[ip]，field为隔离服务名，value为最近一次心跳时间（Redis服务端时间，毫秒），
+ * 保留field {@value #VERSION_FIELD}为版本号，服务上线或下线时递增
+ * <p>
+ * 心跳通过一次Lua脚本写入当前服务并清理超过{@code HEARTBEAT_EXPIRE_SECONDS}未续约的field，以此模拟field级过期；
+ * 环境内所有服务都停止心跳时整个Hash随key过期删除
+ * <p>
+ * 客户端缓存整个环境的路由快照，每{@value #SNAPSHOT_CHECK_MILLIS}ms最多读取一次版本号，版本变化时才通过一次HGETALL拉取全量，
+ * 查询成本与服务数量无关；订阅基于版本号轮询，无需开启键空间通知
+ *
+ * @author hyuga
+ * @since 2026/10/17
+ */
+@Slf4j
+public class RedisHashIsolationRegistry implements IsolationRegistry {
+
+    static final String HASH_KEY_PREFIX = "FEIGN_ISOLATION_HASH:";
+    static final String VERSION_FIELD = "@version";
+    /**
+     * 快照版本检查间隔（毫秒）
+     */
+    static final long SNAPSHOT_CHECK_MILLIS = 1000;
+
+    /**
+     * KEYS[1]:环境Hash ARGV[1]:过期时间（秒） ARGV[2...]:续约的隔离服务名
+     */
+    private static final String HEARTBEAT_SCRIPT =
+            "redis.replicate_commands() " +
+            "local time = redis.call('TIME') " +
+            "local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000) " +
+            "local expireMillis = tonumber(ARGV[1]) * 1000 " +
+            "local changed = false " +
+            "for i = 2, #ARGV do " +
+            "  if redis.call('HSET', KEYS[1], ARGV[i], now) == 1 then changed = true end " +
+            "end " +
+            "local entries = redis.call('HGETALL', KEYS[1]) " +
+            "for i = 1, #entries, 2 do " +
+            "  if entries[i] ~= '" + VERSION_FIELD + "' and tonumber(entries[i + 1]) < now - expireMillis then " +
+            "    redis.call('HDEL', KEYS[1], entries[i]) " +
+            "    changed = true " +
+            "  end " +
+            "end " +
+            // Hash过期后重建时版本号从当前时间开始，避免与重建前的版本号重复
+            "if changed then " +
+            "  if redis.call('HEXISTS', KEYS[1], '" + VERSION_FIELD + "') == 1 then redis.call('HINCRBY', KEYS[1], '" + VERSION_FIELD + "', 1) " +
+            "  else redis.call('HSET', KEYS[1], '" + VERSION_FIELD + "', now) end " +
+            "end " +
+            "redis.call('EXPIRE', KEYS[1], ARGV[1]) " +
+            "return changed and 1 or 0";
+
+    private final JedisTools jedisTools;
+    /**
+     * 服务IP -> 已注册的隔离服务名
+     */
+    private final Map<String, Set<String>> registrations = new ConcurrentHashMap<>();
+    /**
+     * 服务IP -> 路由快照
+     */
+    private final Map<String, Snapshot> snapshots = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService poller = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "feign-isolation-snapshot-poller");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public RedisHashIsolationRegistry(JedisTools jedisTools) {
+        this.jedisTools = jedisTools;
+    }
+
+    @Override
+    public void register(String ip, String serviceName) {
+        registrations.computeIfAbsent(ip, key -> ConcurrentHashMap.newKeySet()).add(serviceName);
+    }
+
+    @Override
+    public void heartbeat() {
+        final String expireSeconds = String.valueOf(HEARTBEAT_EXPIRE_SECONDS);
+        registrations.forEach((ip, serviceNames) -> {
+            if (serviceNames.isEmpty()) {
+                return;
+            }
+            List<String> args = new ArrayList<>(serviceNames.size() + 1);
+            args.add(expireSeconds);
+            args.addAll(serviceNames);
+            jedisTools.eval(HEARTBEAT_SCRIPT, Collections.singletonList(key(ip)), args);
+        });
+    }
+
+    @Override
+    public boolean lookup(String ip, String serviceName) {
+        return currentSnapshot(ip).serviceNames.contains(serviceName);
+    }
+
+    @Override
+    public Set<String> snapshot(String ip) {
+        return currentSnapshot(ip).serviceNames;
+    }
+
+    @Override
+    public void subscribe(String ip, Listener listener) {
+        poller.scheduleWithFixedDelay(new SnapshotPoller(ip, listener), 0, SNAPSHOT_CHECK_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void close() {
+        poller.shutdownNow();
+        jedisTools.close();
+    }
+
+    /**
+     * 当前路由快照，超过检查间隔时按版本号刷新
+     */
+    private Snapshot currentSnapshot(String ip) {
+        final Snapshot snapshot = snapshots.get(ip);
+        if (snapshot != null && System.currentTimeMillis() - snapshot.checkedAt < SNAPSHOT_CHECK_MILLIS) {
+            return snapshot;
+        }
+        return refresh(ip, snapshot);
+    }
+
+    private Snapshot refresh(String ip, Snapshot previous) {
+        final String key = key(ip);
+        Snapshot snapshot;
+        if (previous != null && StringUtil.equals(previous.version, jedisTools.hget(key, VERSION_FIELD))) {
+            // 版本未变化，沿用已有快照
+            snapshot = new Snapshot(previous.version, previous.serviceNames);
+        } else {
+            final Map<String, String> entries = jedisTools.hgetAll(key);
+            final String version = entries.remove(VERSION_FIELD);
+            snapshot = new Snapshot(version, Collections.unmodifiableSet(new HashSet<>(entries.keySet())));
+        }
+        snapshots.put(ip, snapshot);
+        return snapshot;
+    }
+
+    static String key(String ip) {
+        return HASH_KEY_PREFIX + ip;
+    }
+
+    private static final class Snapshot {
+
+        /**
+         * 版本号，Hash不存在时为null
+         */
+        private final String version;
+        private final Set<String> serviceNames;
+        private final long checkedAt = System.currentTimeMillis();
+
+        private Snapshot(String version, Set<String> serviceNames) {
+            this.version = version;
+            this.serviceNames = serviceNames;
+        }
+
+    }
+
+    /**
+     * 按版本号轮询快照，对比前后两次快照通知上下线
+     */
+    private final class SnapshotPoller implements Runnable {
+
+        private final String ip;
+        private final Listener listener;
+        /**
+         * 首次轮询或轮询失败后，需要通知监听重新查询
+         */
+        private boolean resync = true;
+        private Set<String> serviceNames = Collections.emptySet();
+
+        private SnapshotPoller(String ip, Listener listener) {
+            this.ip = ip;
+            this.listener = listener;
+        }
+
+        @Override
+        public void run() {
+            final Set<String> current;
+            try {
+                current = refresh(ip, snapshots.get(ip)).serviceNames;
+            } catch (Exception e) {
+                resync = true;
+                log.warn("Feign isolation snapshot poll failed, ip:{}", ip, e);
+                return;
+            }
+            if (resync) {
+                resync = false;
+                serviceNames = current;
+                listener.onResync();
+                return;
+            }
+            if (current == serviceNames) {
+                return;
+            }
+            for (String serviceName : current) {
+                if (!serviceNames.contains(serviceName)) {
+                    listener.onChange(serviceName, true);
+                }
+            }
+            for (String serviceName : serviceNames) {
+                if (!current.contains(serviceName)) {
+                    listener.onChange(serviceName, false);
+                }
+            }
+            serviceNames = current;
+        }
+
+    }
+
+}
@@ -0,0 +1,85 @@
+package io.github.hyuga0410.feign.isolation.registry;
+
+import cn.hyugatool.core.string.StringUtil;
+import io.github.hyuga0410.feign.isolation.JedisTools;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static io.github.hyuga0410.feign.isolation.FeignIsolationConstants.FEIGN_REDIS_KEY_PREFIX;
+import static io.github.hyuga0410.feign.isolation.FeignIsolationConstants.HEARTBEAT_EXPIRE_SECONDS;
+
+/**
+ * RedisIsolationRegistry
+ * <p>
+ * 每个隔离服务一个key：FEIGN_ISOLATION:[ip]:[service]，心跳通过一次pipeline批量SET EX续约，
+ * 上下线事件来自键空间通知
+ *
+ * @author hyuga
+ * @since 2026/10/17
+ */
+public class RedisIsolationRegistry implements IsolationRegistry {
+
+    private final JedisTools jedisTools;
+    /**
+     * 是否自动补齐服务端键空间通知配置
+     */
+    private final boolean configureKeyspaceEvents;
+    /**
+     * 已注册的Redis key -> 隔离服务名
+     */
+    private final Map<String, String> registrations = new ConcurrentHashMap<>();
+    private final List<RedisKeyspaceSubscriber> subscribers = new CopyOnWriteArrayList<>();
+
+    public RedisIsolationRegistry(JedisTools jedisTools) {
+        this(jedisTools, false);
+    }
+
+    public RedisIsolationRegistry(JedisTools jedisTools, boolean configureKeyspaceEvents) {
+        this.jedisTools = jedisTools;
+        this.configureKeyspaceEvents = configureKeyspaceEvents;
+    }
+
+    @Override
+    public void register(String ip, String serviceName) {
+        registrations.put(key(ip, serviceName), serviceName);
+    }
+
+    @Override
+    public void heartbeat() {
+        if (registrations.isEmpty()) {
+            return;
+        }
+        jedisTools.set(registrations, HEARTBEAT_EXPIRE_SECONDS);
+    }
+
+    @Override
+    public boolean lookup(String ip, String serviceName) {
+        return StringUtil.hasText(jedisTools.get(key(ip, serviceName)));
+    }
+
+    @Override
+    public void subscribe(String ip, Listener listener) {
+        RedisKeyspaceSubscriber subscriber = new RedisKeyspaceSubscriber(jedisTools, listener, keyPrefix(ip), configureKeyspaceEvents);
+        subscribers.add(subscriber);
+        subscriber.start();
+    }
+
+    @Override
+    public void close() {
+        subscribers.forEach(RedisKeyspaceSubscriber::stop);
+        subscribers.clear();
+        jedisTools.close();
+    }
+
+    static String keyPrefix(String ip) {
+        return FEIGN_REDIS_KEY_PREFIX + ip + ":";
+    }
+
+    static String key(String ip, String serviceName) {
+        return keyPrefix(ip) + serviceName;
+    }
+
+}
@@ -0,0 +1,193 @@
+package io.github.hyuga0410.feign.isolation.registry;
+
+import io.github.hyuga0410.feign.isolation.JedisTools;
+import lombok.extern.slf4j.Slf4j;
+import redis.clients.jedis.JedisPubSub;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * RedisKeyspaceSubscriber
+ * <p>
+ * 订阅Redis键空间通知（set/del/expired），隔离服务上线或下线时通知{@link IsolationRegistry.Listener}
+ * <p>
+ * 只订阅指定IP下的隔离服务key：FEIGN_ISOLATION:[ip]:[service]
+ * <p>
+ * 服务端notify-keyspace-events缺少所需事件时默认只输出警告，上下线只能随路由缓存过期生效；
+ * 开启{@code FeignIsolation#configureKeyspaceEvents}后才通过CONFIG SET补齐，该配置对Redis中所有key生效
+ *
+ * @author hyuga
+ * @since 2026/10/17
+ */
+@Slf4j
+final class RedisKeyspaceSubscriber extends JedisPubSub {
+
+    static final String NOTIFY_KEYSPACE_EVENTS = "notify-keyspace-events";
+    /**
+     * K:键空间事件 g:del/expire等通用命令 $:字符串命令 x:过期事件
+     */
+    private static final String KEYSPACE_EVENTS = "Kg$x";
+    private static final String KEYSPACE_CHANNEL_PREFIX = "__keyspace@*__:";
+    private static final String KEYSPACE_CHANNEL_SEPARATOR = "__:";
+    private static final String EVENT_SET = "set";
+    private static final String EVENT_DEL = "del";
+    private static final String EVENT_EXPIRED = "expired";
+    /**
+     * 断线重连间隔（秒）
+     */
+    private static final long RECONNECT_SECONDS = 5;
+
+    private final JedisTools jedisTools;
+    private final IsolationRegistry.Listener listener;
+    /**
+     * 指定IP下隔离服务key前缀：FEIGN_ISOLATION:[ip]:
+     */
+    private final String keyPrefix;
+    /**
+     * 是否自动补齐服务端键空间通知配置
+     */
+    private final boolean configureKeyspaceEvents;
+
+    private volatile boolean running = true;
+
+    RedisKeyspaceSubscriber(JedisTools jedisTools, IsolationRegistry.Listener listener, String keyPrefix, boolean configureKeyspaceEvents) {
+        this.jedisTools = jedisTools;
+        this.listener = listener;
+        this.keyPrefix = keyPrefix;
+        this.configureKeyspaceEvents = configureKeyspaceEvents;
+    }
+
+    /**
+     * 启动后台订阅线程，连接断开后自动重连
+     */
+    void start() {
+        checkKeyspaceEvents(() -> jedisTools.configGet(NOTIFY_KEYSPACE_EVENTS),
+                events -> jedisTools.configSet(NOTIFY_KEYSPACE_EVENTS, events), configureKeyspaceEvents);
+
+        Thread thread = new Thread(() -> {
+            while (running) {
+                try {
+                    jedisTools.psubscribe(this, pattern(keyPrefix));
+                } catch (Exception e) {
+                    log.warn("Feign isolation keyspace subscription lost, retry in {}s", RECONNECT_SECONDS, e);
+                }
+                if (running) {
+                    sleepQuietly();
+                }
+            }
+        }, "feign-isolation-keyspace-subscriber");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    void stop() {
+        running = false;
+        if (isSubscribed()) {
+            punsubscribe();
+        }
+    }
+
+    @Override
+    public void onPSubscribe(String pattern, int subscribedChannels) {
+        // (重新)订阅成功，断开期间的事件可能已丢失
+        listener.onResync();
+    }
+
+    @Override
+    public void onPMessage(String pattern, String channel, String event) {
+        dispatch(keyPrefix, channel, event, listener);
+    }
+
+    /**
+     * 校验服务端键空间通知配置，缺少所需事件时按需补齐，否则只输出警告
+     *
+     * @param configGetter 读取当前notify-keyspace-events配置
+     * @param configSetter 写入notify-keyspace-events配置
+     * @param configure    是否自动补齐
+     */
+    static void checkKeyspaceEvents(Supplier<String> configGetter, Consumer<String> configSetter, boolean configure) {
+        try {
+            final String current = configGetter.get();
+            final String events = keyspaceEvents(current);
+            if (events.equals(current)) {
+                return;
+            }
+            if (!configure) {
+                log.warn("Feign isolation requires notify-keyspace-events to include '{}', current:'{}', " +
+                        "isolation services going online or offline only take effect after route cache expires ~~~", KEYSPACE_EVENTS, current);
+                return;
+            }
+            configSetter.accept(events);
+            log.info("Feign isolation notify-keyspace-events changed from '{}' to '{}' ~~~", current, events);
+        } catch (Exception e) {
+            log.warn("Feign isolation keyspace events config check failed, please set notify-keyspace-events manually ~~~", e);
+        }
+    }
+
+    /**
+     * 隔离路由所需的键空间通知配置，保留服务端已有配置
+     * <p>
+     * 托管Redis可能禁用CONFIG命令，此时需在服务端手动配置
+     *
+     * @param current 当前notify-keyspace-events配置
+     * @return 合并后的配置
+     */
+    static String keyspaceEvents(String current) {
+        final String configured = current == null ? "" : current;
+        StringBuilder events = new StringBuilder(configured);
+        for (char event : KEYSPACE_EVENTS.toCharArray()) {
+            // A为g$lshzxe的别名
+            boolean aliased = event != 'K' && configured.indexOf('A') >= 0;
+            if (configured.indexOf(event) < 0 && !aliased) {
+                events.append(event);
+            }
+        }
+        return events.toString();
+    }
+
+    /**
+     * 指定IP下隔离服务key的键空间通知订阅模式
+     */
+    static String pattern(String keyPrefix) {
+        return KEYSPACE_CHANNEL_PREFIX + keyPrefix + "*";
+    }
+
+    /**
+     * 解析键空间通知并通知监听：set为上线，del/expired为下线
+     *
+     * @param keyPrefix 指定IP下隔离服务key前缀
+     * @param channel   __keyspace@[db]__:[key]
+     * @param event     事件名
+     * @param listener  事件监听
+     */
+    static void dispatch(String keyPrefix, String channel, String event, IsolationRegistry.Listener listener) {
+        final String key = channel.substring(channel.indexOf(KEYSPACE_CHANNEL_SEPARATOR) + KEYSPACE_CHANNEL_SEPARATOR.length());
+        if (!key.startsWith(keyPrefix)) {
+            return;
+        }
+        final String serviceName = key.substring(keyPrefix.length());
+        switch (event) {
+            case EVENT_SET:
+                listener.onChange(serviceName, true);
+                break;
+            case EVENT_DEL:
+            case EVENT_EXPIRED:
+                listener.onChange(serviceName, false);
+                break;
+            default:
+                break;
+        }
+    }
+
+    private void sleepQuietly() {
+        try {
+            TimeUnit.SECONDS.sleep(RECONNECT_SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+
+}
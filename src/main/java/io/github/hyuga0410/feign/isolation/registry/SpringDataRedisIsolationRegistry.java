@@ -0,0 +1,111 @@
+package io.github.hyuga0410.feign.isolation.registry;
+
+import cn.hyugatool.core.string.StringUtil;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.PatternTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static io.github.hyuga0410.feign.isolation.FeignIsolationConstants.HEARTBEAT_EXPIRE_SECONDS;
+
+/**
+ * SpringDataRedisIsolationRegistry
+ * <p>
+ * 与{@link RedisIsolationRegistry}相同的key布局，复用宿主应用的{@link RedisConnectionFactory}，不再单独创建连接池，需引入spring-data-redis
+ *
+ * @author hyuga
+ * @since 2026/10/17
+ */
+@Slf4j
+public class SpringDataRedisIsolationRegistry implements IsolationRegistry {
+
+    private final RedisConnectionFactory connectionFactory;
+    private final StringRedisTemplate redisTemplate;
+    /**
+     * 是否自动补齐服务端键空间通知配置
+     */
+    private final boolean configureKeyspaceEvents;
+    /**
+     * 已注册的Redis key -> 隔离服务名
+     */
+    private final Map<String, String> registrations = new ConcurrentHashMap<>();
+    private final List<RedisMessageListenerContainer> containers = new CopyOnWriteArrayList<>();
+
+    public SpringDataRedisIsolationRegistry(RedisConnectionFactory connectionFactory) {
+        this(connectionFactory, false);
+    }
+
+    public SpringDataRedisIsolationRegistry(RedisConnectionFactory connectionFactory, boolean configureKeyspaceEvents) {
+        this.connectionFactory = connectionFactory;
+        this.configureKeyspaceEvents = configureKeyspaceEvents;
+        this.redisTemplate = new StringRedisTemplate(connectionFactory);
+    }
+
+    @Override
+    public void register(String ip, String serviceName) {
+        registrations.put(RedisIsolationRegistry.key(ip, serviceName), serviceName);
+    }
+
+    @Override
+    public void heartbeat() {
+        if (registrations.isEmpty()) {
+            return;
+        }
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection stringConnection = (StringRedisConnection) connection;
+            registrations.forEach((key, value) -> stringConnection.setEx(key, HEARTBEAT_EXPIRE_SECONDS, value));
+            return null;
+        });
+    }
+
+    @Override
+    public boolean lookup(String ip, String serviceName) {
+        return StringUtil.hasText(redisTemplate.opsForValue().get(RedisIsolationRegistry.key(ip, serviceName)));
+    }
+
+    @Override
+    public void subscribe(String ip, Listener listener) {
+        try (RedisConnection connection = connectionFactory.getConnection()) {
+            RedisKeyspaceSubscriber.checkKeyspaceEvents(() -> {
+                final Properties config = connection.getConfig(RedisKeyspaceSubscriber.NOTIFY_KEYSPACE_EVENTS);
+                return config == null ? null : config.getProperty(RedisKeyspaceSubscriber.NOTIFY_KEYSPACE_EVENTS);
+            }, events -> connection.setConfig(RedisKeyspaceSubscriber.NOTIFY_KEYSPACE_EVENTS, events), configureKeyspaceEvents);
+        }
+
+        final String keyPrefix = RedisIsolationRegistry.keyPrefix(ip);
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener((message, pattern) -> RedisKeyspaceSubscriber.dispatch(keyPrefix,
+                        new String(message.getChannel(), StandardCharsets.UTF_8),
+                        new String(message.getBody(), StandardCharsets.UTF_8), listener),
+                new PatternTopic(RedisKeyspaceSubscriber.pattern(keyPrefix)));
+        container.afterPropertiesSet();
+        container.start();
+        containers.add(container);
+    }
+
+    @Override
+    public void close() {
+        // 连接工厂属于宿主应用，只释放订阅
+        for (RedisMessageListenerContainer container : containers) {
+            try {
+                container.destroy();
+            } catch (Exception e) {
+                log.warn("Feign isolation keyspace subscription close failed", e);
+            }
+        }
+        containers.clear();
+    }
+
+}
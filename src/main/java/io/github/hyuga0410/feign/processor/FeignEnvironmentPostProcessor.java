@@ -5,25 +5,31 @@ import io.github.hyuga0410.feign.isolation.FeignIsolationConstants;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.env.EnvironmentPostProcessor;
 import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.core.env.MapPropertySource;
+
+import java.util.Collections;
 
 /**
  * 环境后置处理程序
  * 本地启动test单测未读取application.yml导致启动异常问题解决
+ * <p>
+ * 默认后缀以最低优先级写入当前容器的环境，不修改系统属性，同一JVM中的其他容器不受影响
  *
  * @author chenyi
  * @since 2021/6/9
  */
 public class FeignEnvironmentPostProcessor implements EnvironmentPostProcessor {
 
+    private static final String DEFAULT_SUFFIX_PROPERTY_SOURCE = "feignIsolationDefaultSuffix";
+
     @Override
     public void postProcessEnvironment(ConfigurableEnvironment environment, SpringApplication application) {
-        String feignSuffix = System.getProperty(FeignIsolationConstants.FEIGN_SUFFIX);
-        if (StringUtil.hasText(feignSuffix)) {
+        if (environment.containsProperty(FeignIsolationConstants.FEIGN_SUFFIX)) {
             return;
         }
         // 本地单元测试赋值spring.application.name后缀
-        System.setProperty(FeignIsolationConstants.FEIGN_SUFFIX, StringUtil.EMPTY);
+        environment.getPropertySources().addLast(new MapPropertySource(DEFAULT_SUFFIX_PROPERTY_SOURCE,
+                Collections.singletonMap(FeignIsolationConstants.FEIGN_SUFFIX, StringUtil.EMPTY)));
     }
 
 }
-
@@ -0,0 +1,94 @@
+package io.github.hyuga0410.feign.processor;
+
+import io.github.hyuga0410.feign.proxy.FeignProviderIndex;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.TypeElement;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * FeignProviderIndexProcessor
+ * <p>
+ * 编译期注解处理器，将声明了{@link io.github.hyuga0410.feign.proxy.FeignProvider}字段的类写入{@value FeignProviderIndex#INDEX_LOCATION}，
+ * 启动时{@link io.github.hyuga0410.feign.proxy.FeignBeanPostProcessor}对该模块只需扫描索引中的类
+ * <p>
+ * 需在使用方编译插件的annotationProcessorPaths或-processor中显式启用
+ *
+ * @author hyuga
+ * @since 2026/10/17
+ */
+@SupportedAnnotationTypes(FeignProviderIndexProcessor.FEIGN_PROVIDER)
+public class FeignProviderIndexProcessor extends AbstractProcessor {
+
+    static final String FEIGN_PROVIDER = "io.github.hyuga0410.feign.proxy.FeignProvider";
+
+    /**
+     * 声明了FeignProvider字段的类（二进制类名）
+     */
+    private final Set<String> classNames = new TreeSet<>();
+
+    @Override
+    public synchronized void init(ProcessingEnvironment processingEnv) {
+        super.init(processingEnv);
+        // 增量编译时只处理变更的源文件，合并已有索引；已删除的类留在索引中只会多扫描一次，不影响结果
+        try {
+            FileObject existing = processingEnv.getFiler().getResource(StandardLocation.CLASS_OUTPUT, "", FeignProviderIndex.INDEX_LOCATION);
+            try (BufferedReader reader = new BufferedReader(existing.openReader(true))) {
+                reader.lines().map(String::trim).filter(line -> !line.isEmpty()).forEach(classNames::add);
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            // 首次编译没有索引
+        }
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (TypeElement annotation : annotations) {
+            for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+                if (element.getKind() != ElementKind.FIELD) {
+                    continue;
+                }
+                TypeElement declaringType = (TypeElement) element.getEnclosingElement();
+                classNames.add(processingEnv.getElementUtils().getBinaryName(declaringType).toString());
+            }
+        }
+        if (roundEnv.processingOver() && !classNames.isEmpty()) {
+            writeIndex();
+        }
+        return false;
+    }
+
+    private void writeIndex() {
+        try {
+            FileObject index = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", FeignProviderIndex.INDEX_LOCATION);
+            try (Writer writer = index.openWriter()) {
+                for (String className : classNames) {
+                    writer.write(className);
+                    writer.write('\n');
+                }
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING,
+                    "Feign provider index write failed, fall back to runtime scanning: " + e.getMessage());
+        }
+    }
+
+}
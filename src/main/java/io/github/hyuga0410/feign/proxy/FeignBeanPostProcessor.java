@@ -1,11 +1,7 @@
 package io.github.hyuga0410.feign.proxy;
 
 import cn.hyugatool.core.collection.ArrayUtil;
-import cn.hyugatool.core.instance.ReflectionUtil;
-import cn.hyugatool.core.object.ObjectUtil;
 import cn.hyugatool.core.string.StringUtil;
-import feign.InvocationHandlerFactory;
-import feign.Target;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.BeansException;
 import org.springframework.beans.PropertyValues;
@@ -15,7 +11,7 @@ import org.springframework.context.ApplicationContext;
 import org.springframework.context.ApplicationContextAware;
 import org.springframework.core.Ordered;
 import org.springframework.core.PriorityOrdered;
-import org.springframework.core.env.Environment;
+import org.springframework.core.annotation.AnnotationUtils;
 import org.springframework.lang.NonNull;
 import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Component;
@@ -25,10 +21,10 @@ import javax.annotation.Resource;
 import java.beans.PropertyDescriptor;
 import java.lang.reflect.Field;
 import java.lang.reflect.Member;
-import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * FeignBeanPostProcessor
@@ -45,10 +41,20 @@ import java.util.Map;
 public class FeignBeanPostProcessor implements ApplicationContextAware, BeanPostProcessor, PriorityOrdered {
 
     private ApplicationContext applicationContext;
+    /**
+     * 编译期FeignProvider索引，没有索引时为null
+     */
+    @Nullable
+    private FeignProviderIndex providerIndex;
+    /**
+     * Class -> 注入元数据，没有FeignProvider字段的类缓存为{@link InjectionMetadata#EMPTY}
+     */
+    private final Map<Class<?>, InjectionMetadata> injectionMetadataCache = new ConcurrentHashMap<>(256);
 
     @Override
     public void setApplicationContext(@NonNull ApplicationContext applicationContext) throws BeansException {
         this.applicationContext = applicationContext;
+        this.providerIndex = FeignProviderIndex.load(applicationContext.getClassLoader());
     }
 
     /**
@@ -70,16 +76,40 @@ public class FeignBeanPostProcessor implements ApplicationContextAware, BeanPost
     @Nullable
     @Override
     public Object postProcessBeforeInitialization(Object bean, String beanName) throws BeansException {
+        // 用于管理注入元数据的内部类。不打算在应用程序中直接使用
+        InjectionMetadata resourceMetadata = this.findResourceMetadata(bean.getClass());
+        if (resourceMetadata == InjectionMetadata.EMPTY) {
+            return bean;
+        }
         try {
-            // 用于管理注入元数据的内部类。不打算在应用程序中直接使用
-            InjectionMetadata resourceMetadata = this.buildResourceMetadata(bean.getClass());
             resourceMetadata.inject(bean, beanName, null);
         } catch (Throwable throwable) {
-            throwable.printStackTrace();
+            log.warn("Feign provider proxy failed, bean:{}", beanName, throwable);
         }
         return bean;
     }
 
+    /**
+     * 按Class缓存注入元数据，同一类型的多个bean（含原型bean）只反射扫描一次
+     *
+     * @param clazz Class
+     * @return InjectionMetadata 注入元数据，没有FeignProvider字段时为{@link InjectionMetadata#EMPTY}
+     */
+    private InjectionMetadata findResourceMetadata(final Class<?> clazz) {
+        InjectionMetadata metadata = injectionMetadataCache.get(clazz);
+        if (metadata == null) {
+            try {
+                metadata = injectionMetadataCache.computeIfAbsent(clazz, this::buildResourceMetadata);
+            } catch (Throwable throwable) {
+                // 字段类型缺失等无法反射的类，不再重复扫描
+                log.debug("Feign provider metadata build failed, class:{}", clazz.getName(), throwable);
+                metadata = InjectionMetadata.EMPTY;
+                injectionMetadataCache.put(clazz, metadata);
+            }
+        }
+        return metadata;
+    }
+
     /**
      * 构建资源元数据，自定义要对Class做的定制化处理逻辑
      *
@@ -87,6 +117,15 @@ public class FeignBeanPostProcessor implements ApplicationContextAware, BeanPost
      * @return InjectionMetadata 注入元数据
      */
     private InjectionMetadata buildResourceMetadata(final Class<?> clazz) {
+        if (!AnnotationUtils.isCandidateClass(clazz, FeignProvider.class)) {
+            // java.*等不可能声明FeignProvider的类
+            return InjectionMetadata.EMPTY;
+        }
+        if (providerIndex != null && !providerIndex.isCandidate(clazz)) {
+            // 编译期索引中不存在
+            return InjectionMetadata.EMPTY;
+        }
+
         List<InjectionMetadata.InjectedElement> elements = new ArrayList<>();
         Class<?> targetClass = clazz;
 
@@ -96,8 +135,8 @@ public class FeignBeanPostProcessor implements ApplicationContextAware, BeanPost
             // springCore方法循环获取class类字段属性[对给定类中所有局部声明的字段调用给定的回调。]
             ReflectionUtils.doWithLocalFields(targetClass, field -> {
                 // 判断class类中所有字段
-                if (field.isAnnotationPresent(Resource.class)) {
-                    // 仅处理带@Resource注解的类属性成员
+                if (field.isAnnotationPresent(Resource.class) && field.isAnnotationPresent(FeignProvider.class)) {
+                    // 仅处理带@Resource和@FeignProvider注解的类属性成员
                     currElements.add(new ResourceElement(field, null));
                 }
             });
@@ -107,7 +146,7 @@ public class FeignBeanPostProcessor implements ApplicationContextAware, BeanPost
 
         } while (targetClass != null && targetClass != Object.class);
 
-        return new InjectionMetadata(clazz, elements);
+        return elements.isEmpty() ? InjectionMetadata.EMPTY : new InjectionMetadata(clazz, elements);
     }
 
     @Override
@@ -115,26 +154,19 @@ public class FeignBeanPostProcessor implements ApplicationContextAware, BeanPost
         return Ordered.LOWEST_PRECEDENCE - 2;
     }
 
+    /**
+     * 注册@FeignProvider字段类型的服务后缀，请求重定向由{@link FeignProviderCapability}完成
+     */
     private class ResourceElement extends InjectionMetadata.InjectedElement {
 
-        private static final String H = "h";
-        private static final String TARGET = "target";
-        private static final String ADVISED = "advised";
-        private static final String DISPATCH = "dispatch";
-        private static final String TARGET_SOURCE = "targetSource";
-
         public ResourceElement(Member member, @Nullable PropertyDescriptor pd) {
             super(member, pd);
         }
 
         @Override
-        protected void inject(@NonNull Object target, @Nullable String requestingBeanName, PropertyValues pvs)
-                throws Throwable {
-
+        protected void inject(@NonNull Object target, @Nullable String requestingBeanName, PropertyValues pvs) {
             Field field = (Field) this.member;
 
-            ReflectionUtils.makeAccessible(field);
-
             // 获取注解
             FeignProvider annotation = field.getAnnotation(FeignProvider.class);
             if (annotation == null) {
@@ -148,44 +180,21 @@ public class FeignBeanPostProcessor implements ApplicationContextAware, BeanPost
             }
 
             String[] environments = annotation.environments();
-            String environmentOfApplication = applicationContext.getBean(Environment.class)
+            String environmentOfApplication = applicationContext.getEnvironment()
                     .getProperty(FeignProxyConstants.SPRING_CONFIG_ACTIVATE_ON_PROFILE);
 
             if (!ArrayUtil.contains(environments, environmentOfApplication)) {
                 return;
             }
 
-            // 获取spring代理类
-            Object springObj = field.get(target);
-            if (springObj == null) {
+            FeignProviderCapability capability = applicationContext.getBeanProvider(FeignProviderCapability.class).getIfAvailable();
+            if (capability == null) {
+                log.warn("FeignProviderCapability bean not found, @FeignProvider on {}.{} is ignored",
+                        field.getDeclaringClass().getName(), field.getName());
                 return;
             }
-
-            // 解刨代理类 找到最终的源hardCodedTarget
-            Object springProxy = ReflectionUtil.getFieldValue(springObj, H);
-            Object advised = ReflectionUtil.getFieldValue(springProxy, ADVISED);
-            Object targetSource = ReflectionUtil.getFieldValue(advised, TARGET_SOURCE);
-            Object feignTarget = ReflectionUtil.getFieldValue(targetSource, TARGET);
-            Object feignSource = ReflectionUtil.getFieldValue(feignTarget, H);
-            Object hardCodedTarget = ReflectionUtil.getFieldValue(feignSource, TARGET);
-            if (!(hardCodedTarget instanceof Target.HardCodedTarget)) {
-                return;
-            }
-            if (hardCodedTarget instanceof FeignProxy) {
-                return;
-            }
-
-            // 代理hardCodedTarget
-            Target.HardCodedTarget<Object> feignTargetSource = ObjectUtil.cast(hardCodedTarget);
-            FeignProxy<Object> feignProxy = new FeignProxy<>(feignTargetSource, annotation.value());
-            ReflectionUtil.setFieldValue(feignSource, TARGET, feignProxy);
-
-            // 代理每个方法实现
-            Map<Method, InvocationHandlerFactory.MethodHandler> dispatch = ObjectUtil.cast(ReflectionUtil.getFieldValue(feignSource, DISPATCH));
-            for (InvocationHandlerFactory.MethodHandler handler : dispatch.values()) {
-                ReflectionUtil.setFieldValue(handler, TARGET, feignProxy);
-            }
+            capability.register(field.getType(), provider);
         }
     }
 
-}
\ No newline at end of file
+}
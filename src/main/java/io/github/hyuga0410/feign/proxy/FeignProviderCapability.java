@@ -0,0 +1,170 @@
+package io.github.hyuga0410.feign.proxy;
+
+import cn.hyugatool.core.string.StringUtil;
+import feign.Capability;
+import feign.Client;
+import feign.Request;
+import feign.Response;
+import feign.Target;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * FeignProviderCapability
+ * <p>
+ * 基于Feign {@link Capability}实现{@link FeignProvider}请求重定向：
+ * FeignClientFactoryBean构建客户端时自动应用容器中的Capability，包装Client后按请求所属的Feign接口类型查找服务后缀，
+ * 将请求地址重定向为protocol://name[-suffix]path，无需解刨Spring与Feign的代理对象
+ *
+ * @author hyuga
+ * @since 2026/10/17
+ */
+@Slf4j
+@Component
+public class FeignProviderCapability implements Capability {
+
+    private static final String PROTOCOL_SEPARATOR = "://";
+    private static final char SUFFIX_SEPARATOR = '-';
+
+    /**
+     * Feign接口类型 -> 服务提供者路由
+     */
+    private final Map<Class<?>, Route> routes = new ConcurrentHashMap<>();
+
+    /**
+     * 注册Feign接口的服务提供者后缀
+     *
+     * @param type   Feign接口类型
+     * @param suffix 服务后缀，为空时调用默认服务
+     */
+    public void register(Class<?> type, String suffix) {
+        final Route previous = routes.put(type, new Route(suffix));
+        if (previous != null && !StringUtil.equals(previous.suffix, suffix)) {
+            log.warn("Feign provider of {} changed from {} to {}, the last one takes effect", type.getName(), previous.suffix, suffix);
+        }
+    }
+
+    @Override
+    public Client enrich(Client client) {
+        // 已包装的Client不重复包装，每层看到的host不同会使重定向缓存反复失效
+        return client instanceof ProviderClient ? client : new ProviderClient(client);
+    }
+
+    private final class ProviderClient implements Client {
+
+        private final Client delegate;
+
+        private ProviderClient(Client delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public Response execute(Request request, Request.Options options) throws IOException {
+            final Target<?> target = request.requestTemplate() == null ? null : request.requestTemplate().feignTarget();
+            final Route route = target == null ? null : routes.get(target.type());
+            if (route == null) {
+                return delegate.execute(request, options);
+            }
+            final String url = route.rewrite(request.url(), target);
+            if (url == request.url()) {
+                // 重定向后地址不变（默认环境），无需重新创建请求
+                return delegate.execute(request, options);
+            }
+            final Request redirected = Request.create(request.httpMethod(), url,
+                    request.headers(), request.body(), request.charset(), request.requestTemplate());
+            return delegate.execute(redirected, options);
+        }
+
+    }
+
+    static final class Route {
+
+        /**
+         * 服务后缀
+         */
+        private final String suffix;
+        /**
+         * 上一次重定向的源地址前缀与目标地址前缀，源地址前缀不变时直接拼接，无需重新解析host
+         */
+        private volatile Rewrite rewrite;
+
+        Route(String suffix) {
+            this.suffix = suffix;
+        }
+
+        /**
+         * 重定向请求地址，只替换协议后的host部分，path与query保持不变
+         *
+         * @param url    请求地址
+         * @param target 请求所属Target
+         * @return protocol://name[-suffix]path，地址不变时返回原对象
+         */
+        String rewrite(String url, Target<?> target) {
+            Rewrite current = rewrite;
+            if (current == null || !current.matches(url)) {
+                final int protocolEnd = url.indexOf(PROTOCOL_SEPARATOR);
+                if (protocolEnd < 0) {
+                    return url;
+                }
+                final int hostStart = protocolEnd + PROTOCOL_SEPARATOR.length();
+                int hostEnd = hostStart;
+                while (hostEnd < url.length() && url.charAt(hostEnd) != '/' && url.charAt(hostEnd) != '?') {
+                    hostEnd++;
+                }
+                current = new Rewrite(url.substring(0, hostEnd), url.substring(0, hostStart) + host(target));
+                rewrite = current;
+            }
+            if (current.identity) {
+                return url;
+            }
+            return current.target.concat(url.substring(current.source.length()));
+        }
+
+        private String host(Target<?> target) {
+            return StringUtil.isEmpty(suffix) ?
+                    // suffix为空则为默认环境，正常发起请求
+                    target.name() :
+                    target.name() + SUFFIX_SEPARATOR + suffix;
+        }
+
+    }
+
+    private static final class Rewrite {
+
+        /**
+         * 源地址前缀：protocol://host
+         */
+        private final String source;
+        /**
+         * 目标地址前缀：protocol://name[-suffix]
+         */
+        private final String target;
+        /**
+         * 源地址与目标地址相同
+         */
+        private final boolean identity;
+
+        private Rewrite(String source, String target) {
+            this.source = source;
+            this.target = target;
+            this.identity = source.equals(target);
+        }
+
+        private boolean matches(String url) {
+            if (!url.startsWith(source)) {
+                return false;
+            }
+            if (url.length() == source.length()) {
+                return true;
+            }
+            final char next = url.charAt(source.length());
+            return next == '/' || next == '?';
+        }
+
+    }
+
+}
@@ -0,0 +1,132 @@
+package io.github.hyuga0410.feign.proxy;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.SpringProperties;
+import org.springframework.lang.Nullable;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * FeignProviderIndex
+ * <p>
+ * 编译期生成的{@link FeignProvider}字段索引，由{@code FeignProviderIndexProcessor}写入
+ * <p>
+ * 索引按classpath位置（jar或classes目录）生效：类所在位置存在索引时，只有索引中的类（及其子类，如CGLIB代理类）会被扫描；
+ * 类所在位置没有索引时（未启用注解处理器的模块）回退为运行时扫描，不会因其他模块的索引而被跳过；
+ * 也可通过{@value #IGNORE_INDEX}=true整体关闭索引
+ *
+ * @author hyuga
+ * @since 2026/10/17
+ */
+@Slf4j
+public final class FeignProviderIndex {
+
+    /**
+     * 索引文件位置
+     */
+    public static final String INDEX_LOCATION = "META-INF/feign-provider.index";
+
+    /**
+     * 忽略索引的系统属性
+     */
+    public static final String IGNORE_INDEX = "feign.provider.index.ignore";
+
+    /**
+     * 声明了FeignProvider字段的类名
+     */
+    private final Set<String> classNames;
+    /**
+     * 存在索引的classpath位置，如jar:file:/app.jar!/、file:/app/target/classes/
+     */
+    private final Set<String> indexedLocations;
+
+    private FeignProviderIndex(Set<String> classNames, Set<String> indexedLocations) {
+        this.classNames = classNames;
+        this.indexedLocations = indexedLocations;
+    }
+
+    /**
+     * 加载classpath中的全部索引
+     *
+     * @param classLoader 类加载器
+     * @return 没有索引或已忽略索引时返回null
+     */
+    @Nullable
+    static FeignProviderIndex load(@Nullable ClassLoader classLoader) {
+        if (SpringProperties.getFlag(IGNORE_INDEX)) {
+            return null;
+        }
+        try {
+            Enumeration<URL> urls = classLoader == null
+                    ? ClassLoader.getSystemResources(INDEX_LOCATION)
+                    : classLoader.getResources(INDEX_LOCATION);
+            if (!urls.hasMoreElements()) {
+                return null;
+            }
+            Set<String> classNames = new HashSet<>();
+            Set<String> indexedLocations = new HashSet<>();
+            while (urls.hasMoreElements()) {
+                final URL url = urls.nextElement();
+                read(url, classNames);
+                indexedLocations.add(location(url.toString(), INDEX_LOCATION));
+            }
+            log.debug("Feign provider index loaded, locations:{}", indexedLocations);
+            return new FeignProviderIndex(Collections.unmodifiableSet(classNames), Collections.unmodifiableSet(indexedLocations));
+        } catch (IOException e) {
+            log.warn("Feign provider index load failed, fall back to runtime scanning", e);
+            return null;
+        }
+    }
+
+    private static void read(URL url, Set<String> classNames) throws IOException {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(url.openStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+                if (!line.isEmpty()) {
+                    classNames.add(line);
+                }
+            }
+        }
+    }
+
+    /**
+     * 类或其父类是否可能声明了FeignProvider字段：在索引中，或所在位置没有索引需运行时扫描
+     */
+    boolean isCandidate(Class<?> clazz) {
+        Class<?> targetClass = clazz;
+        while (targetClass != null && targetClass != Object.class) {
+            if (classNames.contains(targetClass.getName()) || !indexed(targetClass)) {
+                return true;
+            }
+            targetClass = targetClass.getSuperclass();
+        }
+        return false;
+    }
+
+    /**
+     * 类所在的classpath位置是否存在索引；运行时生成的类（如CGLIB代理类）没有class文件，由其父类判断
+     */
+    private boolean indexed(Class<?> clazz) {
+        final ClassLoader classLoader = clazz.getClassLoader();
+        if (classLoader == null) {
+            return true;
+        }
+        final String resourceName = clazz.getName().replace('.', '/') + ".class";
+        final URL url = classLoader.getResource(resourceName);
+        return url == null || indexedLocations.contains(location(url.toString(), resourceName));
+    }
+
+    private static String location(String url, String resourceName) {
+        return url.endsWith(resourceName) ? url.substring(0, url.length() - resourceName.length()) : url;
+    }
+
+}
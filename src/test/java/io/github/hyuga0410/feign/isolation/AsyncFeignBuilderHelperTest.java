@@ -0,0 +1,131 @@
+package io.github.hyuga0410.feign.isolation;
+
+import cn.hyugatool.core.number.NumberUtil;
+import cn.hyugatool.system.NetworkUtil;
+import feign.AsyncClient;
+import feign.Client;
+import feign.Param;
+import feign.RequestLine;
+import feign.Response;
+import feign.Target;
+import io.github.hyuga0410.feign.isolation.registry.InMemoryIsolationRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * AsyncFeignBuilderHelperTest
+ *
+ * @author hyuga
+ * @since 2026/10/17
+ */
+class AsyncFeignBuilderHelperTest {
+
+    private static final String LOCAL_IP = NetworkUtil.getLocalIpAddr();
+    private static final String SUFFIX = "-" + NumberUtil.getNumber(LOCAL_IP);
+    private static final String ORDER_SERVICE = "order-service";
+    private static final String USER_SERVICE = "user-service";
+
+    private final List<String> syncUrls = new CopyOnWriteArrayList<>();
+    private final List<String> asyncUrls = new CopyOnWriteArrayList<>();
+    private final List<String> asyncContexts = new CopyOnWriteArrayList<>();
+    private FeignBuilderHelper feignBuilderHelper;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        InMemoryIsolationRegistry registry = new InMemoryIsolationRegistry();
+        // 只有order-service部署了隔离服务
+        registry.register(LOCAL_IP, ORDER_SERVICE + SUFFIX);
+        IsolationRouteCache routeCache = new IsolationRouteCache(registry, LOCAL_IP, 60);
+        routeCache.prefetch(Map.of(ORDER_SERVICE, ORDER_SERVICE + SUFFIX, USER_SERVICE, USER_SERVICE + SUFFIX))
+                .get(5, TimeUnit.SECONDS);
+        feignBuilderHelper = new FeignBuilderHelper(FeignIsolationTestSupport.settings(AsyncApplication.class), true, routeCache);
+    }
+
+    @Test
+    void asyncTargetRoutesLikeSyncTarget() throws Exception {
+        feignBuilderHelper.client(syncClient());
+        Api orderSync = feignBuilderHelper.target(target(ORDER_SERVICE));
+        Api userSync = feignBuilderHelper.target(target(USER_SERVICE));
+        AsyncApi orderAsync = asyncBuilder().target(asyncTarget(ORDER_SERVICE));
+        AsyncApi userAsync = asyncBuilder().target(asyncTarget(USER_SERVICE));
+
+        orderSync.get(1);
+        userSync.get(1);
+        orderAsync.get(1).get(5, TimeUnit.SECONDS);
+        userAsync.get(1).get(5, TimeUnit.SECONDS);
+
+        // 隔离服务存在时调用隔离服务，不存在时调用默认服务，同步与异步一致
+        assertEquals(List.of("http://order-service" + SUFFIX + "/api/1", "http://user-service/api/1"), syncUrls);
+        assertEquals(syncUrls, asyncUrls);
+    }
+
+    @Test
+    void asyncTargetWithContextRoutesLikeSyncTarget() throws Exception {
+        AsyncApi orderAsync = asyncBuilder().target(asyncTarget(ORDER_SERVICE), "order-context");
+        AsyncApi userAsync = asyncBuilder().target(asyncTarget(USER_SERVICE), "user-context");
+
+        orderAsync.get(2).get(5, TimeUnit.SECONDS);
+        userAsync.get(2).get(5, TimeUnit.SECONDS);
+
+        assertEquals(List.of("http://order-service" + SUFFIX + "/api/2", "http://user-service/api/2"), asyncUrls);
+        assertEquals(List.of("order-context", "user-context"), asyncContexts);
+    }
+
+    private AsyncFeignBuilderHelper<String> asyncBuilder() {
+        AsyncFeignBuilderHelper<String> builder = new AsyncFeignBuilderHelper<>(feignBuilderHelper);
+        builder.client(asyncClient());
+        return builder;
+    }
+
+    private static Target<Api> target(String service) {
+        return new Target.HardCodedTarget<>(Api.class, service, "http://" + service);
+    }
+
+    private static Target<AsyncApi> asyncTarget(String service) {
+        return new Target.HardCodedTarget<>(AsyncApi.class, service, "http://" + service);
+    }
+
+    private Client syncClient() {
+        return (request, options) -> {
+            syncUrls.add(request.url());
+            return Response.builder().status(200).request(request).headers(Map.of()).body("ok", StandardCharsets.UTF_8).build();
+        };
+    }
+
+    private AsyncClient<String> asyncClient() {
+        return (request, options, context) -> {
+            asyncUrls.add(request.url());
+            context.ifPresent(asyncContexts::add);
+            return CompletableFuture.completedFuture(
+                    Response.builder().status(200).request(request).headers(Map.of()).body("ok", StandardCharsets.UTF_8).build());
+        };
+    }
+
+    public interface Api {
+
+        @RequestLine("GET /api/{id}")
+        String get(@Param("id") long id);
+
+    }
+
+    public interface AsyncApi {
+
+        @RequestLine("GET /api/{id}")
+        CompletableFuture<String> get(@Param("id") long id);
+
+    }
+
+    @FeignIsolation(prewarmTimeoutMillis = 0)
+    private static final class AsyncApplication {
+    }
+
+}
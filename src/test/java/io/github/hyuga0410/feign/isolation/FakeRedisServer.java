@@ -0,0 +1,673 @@
+package io.github.hyuga0410.feign.isolation;
+
+import org.luaj.vm2.Globals;
+import org.luaj.vm2.LuaError;
+import org.luaj.vm2.LuaTable;
+import org.luaj.vm2.LuaValue;
+import org.luaj.vm2.Varargs;
+import org.luaj.vm2.lib.VarArgFunction;
+import org.luaj.vm2.lib.jse.JsePlatform;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * FakeRedisServer
+ * <p>
+ * 单元测试用进程内RESP协议Redis替身，实现隔离注册中心用到的命令：
+ * PING/AUTH/SELECT、GET/SET/SETEX/DEL/EXPIRE、CONFIG GET/SET、PSUBSCRIBE/PUNSUBSCRIBE、
+ * HSET/HGET/HGETALL/HDEL/HEXISTS/HINCRBY、TIME、EVAL（基于LuaJ执行，脚本内通过redis.call调用上述Hash命令）
+ * <p>
+ * 按notify-keyspace-events配置向订阅方推送键空间通知（set/del/expire/expired），
+ * 时钟可通过{@link #advance(long)}拨快，拨快后立即清理过期key并推送expired事件
+ *
+ * @author hyuga
+ * @since 2026/10/17
+ */
+public final class FakeRedisServer implements Closeable {
+
+    private static final String NOTIFY_KEYSPACE_EVENTS = "notify-keyspace-events";
+
+    private final ServerSocket serverSocket;
+    private final Map<String, Entry> data = new ConcurrentHashMap<>();
+    private final Map<String, String> config = new ConcurrentHashMap<>();
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+    private final Set<Socket> sockets = ConcurrentHashMap.newKeySet();
+    /**
+     * Hash命令与脚本串行执行，保证脚本的原子性
+     */
+    private final Object lock = new Object();
+    private volatile long clockOffsetMillis;
+    private volatile boolean running = true;
+
+    public FakeRedisServer() throws IOException {
+        this.serverSocket = new ServerSocket(0, 128, InetAddress.getLoopbackAddress());
+        Thread acceptor = new Thread(this::accept, "fake-redis-acceptor");
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    public int port() {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * 连接当前服务的JedisTools
+     */
+    public JedisTools jedisTools() {
+        return new JedisTools(InetAddress.getLoopbackAddress().getHostAddress(), port(), null, null);
+    }
+
+    /**
+     * 当前服务端时间（毫秒）
+     */
+    public long now() {
+        return System.currentTimeMillis() + clockOffsetMillis;
+    }
+
+    /**
+     * 拨快服务端时钟，并立即清理过期key
+     */
+    public void advance(long millis) {
+        clockOffsetMillis += millis;
+        expire();
+    }
+
+    public String config(String parameter) {
+        return config.get(parameter);
+    }
+
+    public void config(String parameter, String value) {
+        config.put(parameter, value);
+    }
+
+    public boolean exists(String key) {
+        return entry(key) != null;
+    }
+
+    /**
+     * Hash的全部field，key不存在时为空
+     */
+    public Map<String, String> hgetAll(String key) {
+        synchronized (lock) {
+            final Entry entry = entry(key);
+            return entry == null || entry.hash == null ? Map.of() : Map.copyOf(entry.hash);
+        }
+    }
+
+    /**
+     * 当前订阅连接数
+     */
+    public int subscriptions() {
+        return (int) subscribers.stream().filter(subscriber -> !subscriber.patterns.isEmpty()).count();
+    }
+
+    /**
+     * 断开所有客户端连接，模拟网络中断
+     */
+    public void disconnectAll() throws IOException {
+        for (Socket socket : sockets) {
+            socket.close();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        running = false;
+        serverSocket.close();
+        disconnectAll();
+    }
+
+    private void accept() {
+        while (running) {
+            try {
+                Socket socket = serverSocket.accept();
+                sockets.add(socket);
+                Thread connection = new Thread(() -> serve(socket), "fake-redis-connection");
+                connection.setDaemon(true);
+                connection.start();
+            } catch (IOException e) {
+                // 服务关闭
+            }
+        }
+    }
+
+    private void serve(Socket socket) {
+        Subscriber subscriber = null;
+        try (socket) {
+            socket.setTcpNoDelay(true);
+            InputStream in = new BufferedInputStream(socket.getInputStream());
+            OutputStream out = new BufferedOutputStream(socket.getOutputStream());
+            subscriber = new Subscriber(out);
+            subscribers.add(subscriber);
+            while (running) {
+                List<String> command = readCommand(in);
+                if (command == null) {
+                    return;
+                }
+                final String name = command.get(0).toUpperCase(Locale.ROOT);
+                // 推送与应答共用同一个输出流
+                synchronized (out) {
+                    if ("QUIT".equals(name)) {
+                        writeSimple(out, "OK");
+                        out.flush();
+                        return;
+                    }
+                    execute(name, command, subscriber, out);
+                    // pipeline中的命令读完后再统一刷出
+                    if (in.available() == 0) {
+                        out.flush();
+                    }
+                }
+            }
+        } catch (IOException e) {
+            // 客户端断开
+        } finally {
+            sockets.remove(socket);
+            if (subscriber != null) {
+                subscribers.remove(subscriber);
+            }
+        }
+    }
+
+    private void execute(String name, List<String> command, Subscriber subscriber, OutputStream out) throws IOException {
+        switch (name) {
+            case "PSUBSCRIBE":
+                for (int i = 1; i < command.size(); i++) {
+                    subscriber.patterns.put(command.get(i), glob(command.get(i)));
+                    writeSubscription(out, "psubscribe", command.get(i), subscriber.patterns.size());
+                }
+                break;
+            case "PUNSUBSCRIBE":
+                final List<String> patterns = command.size() > 1 ? command.subList(1, command.size()) : List.copyOf(subscriber.patterns.keySet());
+                if (patterns.isEmpty()) {
+                    writeSubscription(out, "punsubscribe", null, 0);
+                }
+                for (String pattern : patterns) {
+                    subscriber.patterns.remove(pattern);
+                    writeSubscription(out, "punsubscribe", pattern, subscriber.patterns.size());
+                }
+                break;
+            case "PING":
+                writeSimple(out, "PONG");
+                break;
+            case "AUTH":
+            case "SELECT":
+            case "CLIENT":
+                writeSimple(out, "OK");
+                break;
+            case "GET":
+                writeBulk(out, get(command.get(1)));
+                break;
+            case "SET":
+                data.put(command.get(1), new Entry(command.get(2), Long.MAX_VALUE));
+                notifyKeyspace(command.get(1), "set", '$');
+                writeSimple(out, "OK");
+                break;
+            case "SETEX":
+                data.put(command.get(1), new Entry(command.get(3), expireAt(command.get(2))));
+                notifyKeyspace(command.get(1), "set", '$');
+                notifyKeyspace(command.get(1), "expire", 'g');
+                writeSimple(out, "OK");
+                break;
+            case "DEL":
+                int deleted = 0;
+                for (int i = 1; i < command.size(); i++) {
+                    if (get(command.get(i)) != null && data.remove(command.get(i)) != null) {
+                        deleted++;
+                        notifyKeyspace(command.get(i), "del", 'g');
+                    }
+                }
+                writeInteger(out, deleted);
+                break;
+            case "EXPIRE":
+                final String key = command.get(1);
+                final Entry entry = entry(key);
+                if (entry != null) {
+                    data.put(key, entry.expireAt(expireAt(command.get(2))));
+                    notifyKeyspace(key, "expire", 'g');
+                }
+                writeInteger(out, entry == null ? 0 : 1);
+                break;
+            case "CONFIG":
+                if ("GET".equalsIgnoreCase(command.get(1))) {
+                    final String parameter = command.get(2);
+                    writeArray(out, parameter, config.getOrDefault(parameter, ""));
+                } else {
+                    config.put(command.get(2), command.get(3));
+                    writeSimple(out, "OK");
+                }
+                break;
+            case "HSET":
+            case "HGET":
+            case "HGETALL":
+            case "HDEL":
+            case "HEXISTS":
+            case "HINCRBY":
+            case "TIME":
+            case "EVAL":
+                try {
+                    final Object reply;
+                    synchronized (lock) {
+                        reply = "EVAL".equals(name) ? eval(command) : call(name, command);
+                    }
+                    writeReply(out, reply);
+                } catch (RuntimeException e) {
+                    writeError(out, e.getMessage());
+                }
+                break;
+            default:
+                writeError(out, "unknown command '" + name + "'");
+                break;
+        }
+    }
+
+    /**
+     * 执行Hash与TIME命令，同时供脚本中的redis.call使用，不推送键空间通知
+     *
+     * @return String、Long、List或null
+     */
+    private Object call(String name, List<String> command) {
+        final String key = command.size() > 1 ? command.get(1) : null;
+        switch (name) {
+            case "HSET": {
+                final Map<String, String> hash = hash(key, true);
+                long added = 0;
+                for (int i = 2; i + 1 < command.size(); i += 2) {
+                    if (hash.put(command.get(i), command.get(i + 1)) == null) {
+                        added++;
+                    }
+                }
+                return added;
+            }
+            case "HGET": {
+                final Map<String, String> hash = hash(key, false);
+                return hash == null ? null : hash.get(command.get(2));
+            }
+            case "HGETALL": {
+                final Map<String, String> hash = hash(key, false);
+                final List<Object> entries = new ArrayList<>();
+                if (hash != null) {
+                    hash.forEach((field, value) -> {
+                        entries.add(field);
+                        entries.add(value);
+                    });
+                }
+                return entries;
+            }
+            case "HDEL": {
+                final Map<String, String> hash = hash(key, false);
+                long removed = 0;
+                for (int i = 2; hash != null && i < command.size(); i++) {
+                    if (hash.remove(command.get(i)) != null) {
+                        removed++;
+                    }
+                }
+                if (hash != null && hash.isEmpty()) {
+                    // 与Redis一致，删除空Hash
+                    data.remove(key);
+                }
+                return removed;
+            }
+            case "HEXISTS": {
+                final Map<String, String> hash = hash(key, false);
+                return hash != null && hash.containsKey(command.get(2)) ? 1L : 0L;
+            }
+            case "HINCRBY": {
+                final Map<String, String> hash = hash(key, true);
+                final long value = Long.parseLong(hash.getOrDefault(command.get(2), "0")) + Long.parseLong(command.get(3));
+                hash.put(command.get(2), String.valueOf(value));
+                return value;
+            }
+            case "EXPIRE": {
+                final Entry entry = entry(key);
+                if (entry == null) {
+                    return 0L;
+                }
+                data.put(key, entry.expireAt(expireAt(command.get(2))));
+                return 1L;
+            }
+            case "TIME": {
+                final long now = now();
+                return List.of(String.valueOf(now / 1000), String.valueOf(now % 1000 * 1000));
+            }
+            default:
+                throw new IllegalArgumentException("unknown command '" + name + "'");
+        }
+    }
+
+    private Map<String, String> hash(String key, boolean create) {
+        final Entry entry = entry(key);
+        if (entry != null && entry.hash == null) {
+            throw new IllegalArgumentException("WRONGTYPE Operation against a key holding the wrong kind of value");
+        }
+        if (entry != null || !create) {
+            return entry == null ? null : entry.hash;
+        }
+        final Entry created = new Entry(new HashMap<>(), Long.MAX_VALUE);
+        data.put(key, created);
+        return created.hash;
+    }
+
+    /**
+     * EVAL script numkeys key... arg...
+     */
+    private Object eval(List<String> command) {
+        final int numKeys = Integer.parseInt(command.get(2));
+        final Globals globals = JsePlatform.standardGlobals();
+        globals.set("KEYS", table(command.subList(3, 3 + numKeys)));
+        globals.set("ARGV", table(command.subList(3 + numKeys, command.size())));
+        final LuaTable redis = new LuaTable();
+        redis.set("call", new VarArgFunction() {
+
+            @Override
+            public Varargs invoke(Varargs args) {
+                final List<String> nested = new ArrayList<>(args.narg());
+                for (int i = 1; i <= args.narg(); i++) {
+                    nested.add(args.arg(i).tojstring());
+                }
+                try {
+                    return toLua(FakeRedisServer.this.call(nested.get(0).toUpperCase(Locale.ROOT), nested));
+                } catch (RuntimeException e) {
+                    throw new LuaError(e.getMessage());
+                }
+            }
+
+        });
+        redis.set("replicate_commands", new VarArgFunction() {
+
+            @Override
+            public Varargs invoke(Varargs args) {
+                return LuaValue.TRUE;
+            }
+
+        });
+        globals.set("redis", redis);
+        try {
+            return fromLua(globals.load(command.get(1)).call());
+        } catch (LuaError e) {
+            throw new IllegalArgumentException("Error running script: " + e.getMessage(), e);
+        }
+    }
+
+    private static LuaTable table(List<String> values) {
+        final LuaTable table = new LuaTable();
+        for (int i = 0; i < values.size(); i++) {
+            table.set(i + 1, LuaValue.valueOf(values.get(i)));
+        }
+        return table;
+    }
+
+    /**
+     * Redis应答转换为Lua值：整数为number，nil为false，数组为table
+     */
+    private static LuaValue toLua(Object reply) {
+        if (reply == null) {
+            return LuaValue.FALSE;
+        }
+        if (reply instanceof Long) {
+            return LuaValue.valueOf((Long) reply);
+        }
+        if (reply instanceof List) {
+            final LuaTable table = new LuaTable();
+            final List<?> values = (List<?>) reply;
+            for (int i = 0; i < values.size(); i++) {
+                table.set(i + 1, toLua(values.get(i)));
+            }
+            return table;
+        }
+        return LuaValue.valueOf(reply.toString());
+    }
+
+    /**
+     * Lua返回值转换为Redis应答：number截断为整数，true为1，false/nil为nil，table为数组
+     */
+    private static Object fromLua(LuaValue value) {
+        if (value.isnil() || value == LuaValue.FALSE) {
+            return null;
+        }
+        if (value.isboolean()) {
+            return 1L;
+        }
+        if (value.type() == LuaValue.TNUMBER) {
+            return (long) value.todouble();
+        }
+        if (value.istable()) {
+            final List<Object> values = new ArrayList<>();
+            for (int i = 1; i <= value.length(); i++) {
+                values.add(fromLua(value.get(i)));
+            }
+            return values;
+        }
+        return value.tojstring();
+    }
+
+    private long expireAt(String seconds) {
+        return now() + TimeUnit.SECONDS.toMillis(Long.parseLong(seconds));
+    }
+
+    private String get(String key) {
+        final Entry entry = entry(key);
+        return entry == null ? null : entry.value;
+    }
+
+    /**
+     * 未过期的key，已过期时删除并推送expired事件
+     */
+    private Entry entry(String key) {
+        final Entry entry = data.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expireAt <= now()) {
+            if (data.remove(key, entry)) {
+                notifyKeyspace(key, "expired", 'x');
+            }
+            return null;
+        }
+        return entry;
+    }
+
+    private void expire() {
+        data.keySet().forEach(this::entry);
+    }
+
+    /**
+     * 按notify-keyspace-events配置推送键空间通知，A为g$lshzxe的别名
+     */
+    private void notifyKeyspace(String key, String event, char type) {
+        final String events = config.getOrDefault(NOTIFY_KEYSPACE_EVENTS, "");
+        if (events.indexOf('K') < 0 || (events.indexOf(type) < 0 && events.indexOf('A') < 0)) {
+            return;
+        }
+        final String channel = "__keyspace@0__:" + key;
+        for (Subscriber subscriber : subscribers) {
+            subscriber.patterns.forEach((pattern, regex) -> {
+                if (regex.matcher(channel).matches()) {
+                    subscriber.push(pattern, channel, event);
+                }
+            });
+        }
+    }
+
+    private static Pattern glob(String pattern) {
+        StringBuilder regex = new StringBuilder();
+        for (char c : pattern.toCharArray()) {
+            if (c == '*') {
+                regex.append(".*");
+            } else if (c == '?') {
+                regex.append('.');
+            } else {
+                regex.append(Pattern.quote(String.valueOf(c)));
+            }
+        }
+        return Pattern.compile(regex.toString());
+    }
+
+    /**
+     * 读取一条RESP数组命令，连接关闭时返回null
+     */
+    private static List<String> readCommand(InputStream in) throws IOException {
+        final String header = readLine(in);
+        if (header == null) {
+            return null;
+        }
+        if (header.charAt(0) != '*') {
+            // inline命令
+            return List.of(header.trim().split("\\s+"));
+        }
+        final int count = Integer.parseInt(header.substring(1));
+        List<String> command = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            final String length = readLine(in);
+            if (length == null) {
+                throw new EOFException();
+            }
+            final byte[] bytes = in.readNBytes(Integer.parseInt(length.substring(1)));
+            // 跳过\r\n
+            if (in.read() < 0 || in.read() < 0) {
+                throw new EOFException();
+            }
+            command.add(new String(bytes, StandardCharsets.UTF_8));
+        }
+        return command;
+    }
+
+    private static String readLine(InputStream in) throws IOException {
+        StringBuilder line = new StringBuilder();
+        int b;
+        while ((b = in.read()) >= 0) {
+            if (b == '\r') {
+                in.read();
+                return line.toString();
+            }
+            line.append((char) b);
+        }
+        return line.length() == 0 ? null : line.toString();
+    }
+
+    private static void writeSimple(OutputStream out, String value) throws IOException {
+        out.write(("+" + value + "\r\n").getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void writeInteger(OutputStream out, long value) throws IOException {
+        out.write((":" + value + "\r\n").getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void writeError(OutputStream out, String message) throws IOException {
+        out.write(("-ERR " + message + "\r\n").getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void writeReply(OutputStream out, Object reply) throws IOException {
+        if (reply instanceof Long) {
+            writeInteger(out, (Long) reply);
+        } else if (reply instanceof List) {
+            final List<?> values = (List<?>) reply;
+            out.write(("*" + values.size() + "\r\n").getBytes(StandardCharsets.UTF_8));
+            for (Object value : values) {
+                writeReply(out, value);
+            }
+        } else {
+            writeBulk(out, (String) reply);
+        }
+    }
+
+    private static void writeBulk(OutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.write("$-1\r\n".getBytes(StandardCharsets.UTF_8));
+            return;
+        }
+        final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.write(("$" + bytes.length + "\r\n").getBytes(StandardCharsets.UTF_8));
+        out.write(bytes);
+        out.write("\r\n".getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void writeArray(OutputStream out, String... values) throws IOException {
+        out.write(("*" + values.length + "\r\n").getBytes(StandardCharsets.UTF_8));
+        for (String value : values) {
+            writeBulk(out, value);
+        }
+    }
+
+    private static void writeSubscription(OutputStream out, String kind, String pattern, int count) throws IOException {
+        out.write("*3\r\n".getBytes(StandardCharsets.UTF_8));
+        writeBulk(out, kind);
+        writeBulk(out, pattern);
+        writeInteger(out, count);
+    }
+
+    private static final class Subscriber {
+
+        private final OutputStream out;
+        /**
+         * 订阅的pattern -> 匹配正则
+         */
+        private final Map<String, Pattern> patterns = new ConcurrentHashMap<>();
+
+        private Subscriber(OutputStream out) {
+            this.out = out;
+        }
+
+        private void push(String pattern, String channel, String message) {
+            synchronized (out) {
+                try {
+                    writeArray(out, "pmessage", pattern, channel, message);
+                    out.flush();
+                } catch (IOException e) {
+                    // 订阅方已断开
+                }
+            }
+        }
+
+    }
+
+    private static final class Entry {
+
+        private final String value;
+        /**
+         * Hash类型的field -> value，字符串类型为null
+         */
+        private final Map<String, String> hash;
+        private final long expireAt;
+
+        private Entry(String value, long expireAt) {
+            this(value, null, expireAt);
+        }
+
+        private Entry(Map<String, String> hash, long expireAt) {
+            this(null, hash, expireAt);
+        }
+
+        private Entry(String value, Map<String, String> hash, long expireAt) {
+            this.value = value;
+            this.hash = hash;
+            this.expireAt = expireAt;
+        }
+
+        private Entry expireAt(long expireAt) {
+            return new Entry(value, hash, expireAt);
+        }
+
+    }
+
+}
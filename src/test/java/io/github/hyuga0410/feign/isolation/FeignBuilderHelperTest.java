@@ -0,0 +1,161 @@
+package io.github.hyuga0410.feign.isolation;
+
+import cn.hyugatool.core.number.NumberUtil;
+import cn.hyugatool.system.NetworkUtil;
+import feign.Target;
+import io.github.hyuga0410.feign.isolation.registry.InMemoryIsolationRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.core.env.StandardEnvironment;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * FeignBuilderHelperTest
+ *
+ * @author hyuga
+ * @since 2026/10/17
+ */
+class FeignBuilderHelperTest {
+
+    private static final String LOCAL_IP = NetworkUtil.getLocalIpAddr();
+    private static final String LOCAL_SUFFIX = String.valueOf(NumberUtil.getNumber(LOCAL_IP));
+    private static final String OTHER_IP = "10.0.0.2";
+    private static final String OTHER_SUFFIX = "10002";
+    private static final String SERVICE = "order-service";
+    private static final String URL = "http://" + SERVICE;
+
+    private InMemoryIsolationRegistry registry;
+    private IsolationRouteCache routeCache;
+    private Target<OrderClient> target;
+
+    @BeforeEach
+    void setUp() {
+        registry = new InMemoryIsolationRegistry();
+        FeignIsolationSettings settings = FeignIsolationSettings.of(
+                AnnotationUtils.getAnnotationAttributes(TaggedApplication.class.getAnnotation(FeignIsolation.class)),
+                new StandardEnvironment());
+        routeCache = new IsolationRouteCache(registry, LOCAL_IP, 60);
+        registry.subscribe(LOCAL_IP, routeCache);
+        FeignBuilderHelper helper = new FeignBuilderHelper(settings, true, routeCache);
+        target = helper.isolationTarget(new Target.HardCodedTarget<>(OrderClient.class, SERVICE, URL));
+    }
+
+    @AfterEach
+    void tearDown() {
+        IsolationTagContext.clear();
+    }
+
+    @Test
+    void tagOfOtherEnvironmentIsConfirmedByRegistry() throws Exception {
+        registry.register(OTHER_IP, SERVICE + "-" + OTHER_SUFFIX);
+        IsolationTagContext.set(OTHER_SUFFIX, OTHER_IP);
+
+        // 首次访问后台加载，本次先走默认服务
+        assertEquals(URL, target.url());
+        await(() -> target.url(), URL + "-" + OTHER_SUFFIX);
+    }
+
+    @Test
+    void tagOfOtherEnvironmentFallsBackWhenNotDeployed() throws Exception {
+        IsolationTagContext.set(OTHER_SUFFIX, OTHER_IP);
+
+        assertEquals(URL, target.url());
+        TimeUnit.MILLISECONDS.sleep(200);
+        assertEquals(URL, target.url());
+    }
+
+    @Test
+    void tagWithoutIpFallsBackToDefault() throws Exception {
+        registry.register(OTHER_IP, SERVICE + "-" + OTHER_SUFFIX);
+        IsolationTagContext.set(OTHER_SUFFIX);
+
+        assertEquals(URL, target.url());
+        TimeUnit.MILLISECONDS.sleep(200);
+        assertEquals(URL, target.url());
+    }
+
+    @Test
+    void tagIpMustMatchTag() {
+        IsolationTagContext.set(OTHER_SUFFIX, "10.0.0.3");
+
+        assertEquals(OTHER_SUFFIX, IsolationTagContext.get());
+        assertEquals(null, IsolationTagContext.ip());
+    }
+
+    @Test
+    void tagOfLocalEnvironmentKeepsRegistryConfirmation() throws Exception {
+        IsolationTagContext.set(LOCAL_SUFFIX, LOCAL_IP);
+
+        assertEquals(URL, target.url());
+        TimeUnit.MILLISECONDS.sleep(200);
+        assertEquals(URL, target.url());
+
+        registry.register(LOCAL_IP, SERVICE + "-" + LOCAL_SUFFIX);
+        await(() -> target.url(), URL + "-" + LOCAL_SUFFIX);
+    }
+
+    @Test
+    void prewarmResolvesWithoutSideEffectsAndDrainsTargets() {
+        registry.register(LOCAL_IP, SERVICE + "-" + LOCAL_SUFFIX);
+        AtomicInteger recorded = new AtomicInteger();
+        IsolationMetrics metrics = new IsolationMetrics() {
+
+            @Override
+            public RouteMeter route(String host) {
+                return new RouteMeter() {
+
+                    @Override
+                    public void record(RouteDecision decision, long start) {
+                        recorded.incrementAndGet();
+                    }
+
+                };
+            }
+
+            @Override
+            public void cacheAccess(String result) {
+                recorded.incrementAndGet();
+            }
+
+        };
+        FeignIsolationSettings settings = FeignIsolationSettings.of(
+                AnnotationUtils.getAnnotationAttributes(TaggedApplication.class.getAnnotation(FeignIsolation.class)),
+                new StandardEnvironment());
+        FeignBuilderHelper helper = new FeignBuilderHelper(settings, true, routeCache, metrics);
+        helper.isolationTarget(new Target.HardCodedTarget<>(OrderClient.class, SERVICE, URL));
+
+        assertEquals(Set.of(SERVICE + "-" + LOCAL_SUFFIX), helper.prewarm(1000));
+        assertEquals(0, recorded.get());
+        assertTrue(helper.recorder().snapshot().isEmpty());
+
+        // 预热后取出的Target不再保留，之后创建的Target也不再登记
+        assertTrue(helper.prewarm(1000).isEmpty());
+        helper.isolationTarget(new Target.HardCodedTarget<>(OrderClient.class, SERVICE, URL));
+        assertTrue(helper.prewarm(1000).isEmpty());
+    }
+
+    private static void await(Supplier<String> actual, String expected) throws InterruptedException {
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!expected.equals(actual.get())) {
+            assertTrue(System.nanoTime() < deadline, "expected " + expected + " in 5s");
+            TimeUnit.MILLISECONDS.sleep(10);
+        }
+    }
+
+    interface OrderClient {
+    }
+
+    @FeignIsolation(propagateTag = true, routeFailureThreshold = 0)
+    private static final class TaggedApplication {
+    }
+
+}
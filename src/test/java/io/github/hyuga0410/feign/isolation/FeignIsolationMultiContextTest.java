@@ -0,0 +1,133 @@
+package io.github.hyuga0410.feign.isolation;
+
+import cn.hyugatool.core.number.NumberUtil;
+import cn.hyugatool.system.NetworkUtil;
+import feign.Target;
+import io.github.hyuga0410.feign.EnvironmentConstants;
+import io.github.hyuga0410.feign.isolation.registry.InMemoryIsolationRegistry;
+import io.github.hyuga0410.feign.isolation.registry.IsolationRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.core.env.StandardEnvironment;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * FeignIsolationMultiContextTest
+ * <p>
+ * 同一JVM中并行运行隔离配置不同的两个容器，各自的后缀、隔离配置与路由互不影响
+ *
+ * @author hyuga
+ * @since 2026/10/17
+ */
+class FeignIsolationMultiContextTest {
+
+    private static final String LOCAL_IP = NetworkUtil.getLocalIpAddr();
+    private static final String SUFFIX = "-" + NumberUtil.getNumber(LOCAL_IP);
+    private static final String URL = "http://order-service";
+
+    private AnnotationConfigApplicationContext isolated;
+    private AnnotationConfigApplicationContext defaults;
+
+    @BeforeEach
+    void setUp() {
+        // 强制隔离当前IP的测试环境
+        isolated = context(IsolatedApplication.class, Map.of(FeignIsolationConstants.ISOLATION_IPS_PROPERTY, LOCAL_IP));
+        // 以当前IP作为默认环境
+        defaults = context(DefaultApplication.class, Map.of(FeignIsolationConstants.DEFAULT_IP_PROPERTY, LOCAL_IP));
+    }
+
+    @AfterEach
+    void tearDown() {
+        isolated.close();
+        defaults.close();
+    }
+
+    @Test
+    void eachContextResolvesItsOwnSuffix() {
+        assertEquals(SUFFIX, isolated.getEnvironment().getProperty(FeignIsolationConstants.FEIGN_SUFFIX));
+        assertEquals("", defaults.getEnvironment().getProperty(FeignIsolationConstants.FEIGN_SUFFIX));
+        // 后缀只写入各自容器的环境
+        assertNull(System.getProperty(FeignIsolationConstants.FEIGN_SUFFIX));
+        assertNull(new StandardEnvironment().getProperty(FeignIsolationConstants.FEIGN_SUFFIX));
+    }
+
+    @Test
+    void eachContextKeepsItsOwnSettings() {
+        final FeignIsolationSettings isolatedSettings = isolated.getBean(FeignIsolationSettings.class);
+        final FeignIsolationSettings defaultSettings = defaults.getBean(FeignIsolationSettings.class);
+
+        assertNotSame(isolatedSettings, defaultSettings);
+        assertEquals("-service", isolatedSettings.serviceSign());
+        assertEquals(2, isolatedSettings.routeFailureThreshold());
+        assertEquals("", defaultSettings.serviceSign());
+        assertEquals(0, defaultSettings.routeFailureThreshold());
+        assertTrue(isolatedSettings.decisionPlan().isolationIps().contains(LOCAL_IP));
+        assertTrue(defaultSettings.decisionPlan().isolationIps().isEmpty());
+        assertTrue(defaultSettings.decisionPlan().defaultEnvironment());
+    }
+
+    @Test
+    void eachContextRoutesWithItsOwnBuilder() {
+        final FeignBuilderHelper isolatedHelper = isolated.getBean(FeignBuilderHelper.class);
+        final FeignBuilderHelper defaultHelper = defaults.getBean(FeignBuilderHelper.class);
+        assertNotSame(isolatedHelper, defaultHelper);
+
+        final Target<OrderClient> isolatedTarget = isolatedHelper.isolationTarget(new Target.HardCodedTarget<>(OrderClient.class, "order-service", URL));
+        final Target<OrderClient> defaultTarget = defaultHelper.isolationTarget(new Target.HardCodedTarget<>(OrderClient.class, "order-service", URL));
+        assertEquals(URL + SUFFIX, isolatedTarget.url());
+        assertEquals(URL, defaultTarget.url());
+
+        // 刷新其中一个容器的配置不影响另一个
+        final IsolationDecisionPlan defaultPlan = defaults.getBean(FeignIsolationSettings.class).decisionPlan();
+        isolated.getBean(FeignIsolationSettings.class).refresh(new StandardEnvironment());
+        assertEquals(URL, isolatedTarget.url());
+        assertEquals(defaultPlan, defaults.getBean(FeignIsolationSettings.class).decisionPlan());
+        assertEquals(URL, defaultTarget.url());
+    }
+
+    private static AnnotationConfigApplicationContext context(Class<?> application, Map<String, Object> properties) {
+        AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+        context.getEnvironment().setActiveProfiles(EnvironmentConstants.DEV);
+        context.getEnvironment().getPropertySources().addFirst(new MapPropertySource("test", properties));
+        context.register(application);
+        context.refresh();
+        return context;
+    }
+
+    interface OrderClient {
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @FeignIsolation(serviceSign = "-service", routeFailureThreshold = 2, prewarmTimeoutMillis = 0)
+    static class IsolatedApplication {
+
+        @Bean
+        IsolationRegistry isolationRegistry() {
+            return new InMemoryIsolationRegistry();
+        }
+
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @FeignIsolation(prewarmTimeoutMillis = 0)
+    static class DefaultApplication {
+
+        @Bean
+        IsolationRegistry isolationRegistry() {
+            return new InMemoryIsolationRegistry();
+        }
+
+    }
+
+}
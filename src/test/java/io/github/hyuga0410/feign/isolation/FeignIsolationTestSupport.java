@@ -0,0 +1,31 @@
+package io.github.hyuga0410.feign.isolation;
+
+import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.core.env.Environment;
+import org.springframework.core.env.StandardEnvironment;
+
+/**
+ * FeignIsolationTestSupport
+ * <p>
+ * 供其他包的单元测试按{@link FeignIsolation}注解创建隔离配置
+ *
+ * @author hyuga
+ * @since 2026/10/17
+ */
+public final class FeignIsolationTestSupport {
+
+    private FeignIsolationTestSupport() {
+    }
+
+    /**
+     * @param annotated 标注了{@link FeignIsolation}的类
+     */
+    public static FeignIsolationSettings settings(Class<?> annotated) {
+        return settings(annotated, new StandardEnvironment());
+    }
+
+    public static FeignIsolationSettings settings(Class<?> annotated, Environment environment) {
+        return FeignIsolationSettings.of(AnnotationUtils.getAnnotationAttributes(annotated.getAnnotation(FeignIsolation.class)), environment);
+    }
+
+}
@@ -0,0 +1,134 @@
+package io.github.hyuga0410.feign.isolation;
+
+import cn.hyugatool.core.number.NumberUtil;
+import cn.hyugatool.system.NetworkUtil;
+import feign.Client;
+import feign.FeignException;
+import feign.Param;
+import feign.RequestLine;
+import feign.Response;
+import feign.Retryer;
+import feign.Target;
+import io.github.hyuga0410.feign.isolation.registry.InMemoryIsolationRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * HealthTrackingClientTest
+ * <p>
+ * 经{@link FeignBuilderHelper}构建的客户端在隔离服务连续失败后降级到默认服务，冷却结束后的探测成功即恢复
+ *
+ * @author hyuga
+ * @since 2026/10/17
+ */
+class HealthTrackingClientTest {
+
+    private static final String LOCAL_IP = NetworkUtil.getLocalIpAddr();
+    private static final String SERVICE = "order-service";
+    private static final String ISOLATION_SERVICE = SERVICE + "-" + NumberUtil.getNumber(LOCAL_IP);
+    private static final String DEFAULT_URL = "http://" + SERVICE + "/order/1";
+    private static final String ISOLATION_URL = "http://" + ISOLATION_SERVICE + "/order/1";
+
+    private final List<String> executed = new CopyOnWriteArrayList<>();
+    private volatile boolean isolationFailing;
+    private IsolationRouteCache routeCache;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        InMemoryIsolationRegistry registry = new InMemoryIsolationRegistry();
+        registry.register(LOCAL_IP, ISOLATION_SERVICE);
+        routeCache = new IsolationRouteCache(registry, LOCAL_IP, 60);
+        routeCache.prefetch(Map.of(SERVICE, ISOLATION_SERVICE)).get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void demotionIsOffByDefault() {
+        assertEquals(0, FeignIsolationTestSupport.settings(DefaultApplication.class).routeFailureThreshold());
+
+        OrderApi api = orderApi(DefaultApplication.class);
+        isolationFailing = true;
+        for (int i = 0; i < 5; i++) {
+            assertThrows(FeignException.class, () -> api.order(1));
+        }
+        // 未开启降级，始终调用隔离服务
+        assertEquals(List.of(ISOLATION_URL, ISOLATION_URL, ISOLATION_URL, ISOLATION_URL, ISOLATION_URL), executed);
+    }
+
+    @Test
+    void demotedAfterConsecutiveFailuresAndRecoveredByProbe() throws Exception {
+        OrderApi api = orderApi(DemotingApplication.class);
+
+        api.order(1);
+        isolationFailing = true;
+        assertThrows(FeignException.class, () -> api.order(1));
+        assertThrows(FeignException.class, () -> api.order(1));
+        // 连续失败达到阈值，冷却期内调用默认服务
+        api.order(1);
+        api.order(1);
+        assertEquals(List.of(ISOLATION_URL, ISOLATION_URL, ISOLATION_URL, DEFAULT_URL, DEFAULT_URL), executed);
+
+        // 冷却结束后放行一次探测，成功即恢复
+        executed.clear();
+        isolationFailing = false;
+        TimeUnit.MILLISECONDS.sleep(1100);
+        api.order(1);
+        api.order(1);
+        assertEquals(List.of(ISOLATION_URL, ISOLATION_URL), executed);
+    }
+
+    @Test
+    void failedProbeKeepsDemotion() throws Exception {
+        OrderApi api = orderApi(DemotingApplication.class);
+
+        isolationFailing = true;
+        assertThrows(FeignException.class, () -> api.order(1));
+        assertThrows(FeignException.class, () -> api.order(1));
+        TimeUnit.MILLISECONDS.sleep(1100);
+        // 探测失败，重新进入冷却
+        assertThrows(FeignException.class, () -> api.order(1));
+        api.order(1);
+        assertEquals(List.of(ISOLATION_URL, ISOLATION_URL, ISOLATION_URL, DEFAULT_URL), executed);
+    }
+
+    private OrderApi orderApi(Class<?> application) {
+        FeignBuilderHelper builder = new FeignBuilderHelper(FeignIsolationTestSupport.settings(application), true, routeCache);
+        builder.client(client()).retryer(Retryer.NEVER_RETRY);
+        return builder.target(new Target.HardCodedTarget<>(OrderApi.class, SERVICE, "http://" + SERVICE));
+    }
+
+    /**
+     * 隔离服务按isolationFailing返回503，默认服务始终成功
+     */
+    private Client client() {
+        return (request, options) -> {
+            executed.add(request.url());
+            final int status = isolationFailing && request.url().startsWith("http://" + ISOLATION_SERVICE) ? 503 : 200;
+            return Response.builder().status(status).request(request).headers(Map.of()).body("ok", StandardCharsets.UTF_8).build();
+        };
+    }
+
+    interface OrderApi {
+
+        @RequestLine("GET /order/{id}")
+        String order(@Param("id") long id);
+
+    }
+
+    @FeignIsolation
+    private static final class DefaultApplication {
+    }
+
+    @FeignIsolation(routeFailureThreshold = 2, routeCoolOffSeconds = 1)
+    private static final class DemotingApplication {
+    }
+
+}
@@ -0,0 +1,106 @@
+package io.github.hyuga0410.feign.isolation;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * IsolationCircuitBreakerTest
+ *
+ * @author hyuga
+ * @since 2026/10/17
+ */
+class IsolationCircuitBreakerTest {
+
+    @Test
+    void opensAfterConsecutiveFailures() {
+        IsolationCircuitBreaker circuitBreaker = new IsolationCircuitBreaker(3, 60);
+
+        circuitBreaker.onFailure();
+        circuitBreaker.onFailure();
+        assertTrue(circuitBreaker.allowRequest());
+        assertEquals("CLOSED", circuitBreaker.state());
+
+        circuitBreaker.onFailure();
+        assertEquals("OPEN", circuitBreaker.state());
+        assertTrue(circuitBreaker.isOpen());
+        assertFalse(circuitBreaker.allowRequest());
+    }
+
+    @Test
+    void successResetsFailureCount() {
+        IsolationCircuitBreaker circuitBreaker = new IsolationCircuitBreaker(3, 60);
+
+        circuitBreaker.onFailure();
+        circuitBreaker.onFailure();
+        circuitBreaker.onSuccess();
+        circuitBreaker.onFailure();
+        circuitBreaker.onFailure();
+        assertEquals("CLOSED", circuitBreaker.state());
+        assertTrue(circuitBreaker.allowRequest());
+    }
+
+    @Test
+    void halfOpenAllowsSingleProbe() throws Exception {
+        IsolationCircuitBreaker circuitBreaker = new IsolationCircuitBreaker(1, 1);
+        circuitBreaker.onFailure();
+        assertFalse(circuitBreaker.allowRequest());
+
+        TimeUnit.MILLISECONDS.sleep(1100);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Callable<Boolean>> probes = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                probes.add(circuitBreaker::allowRequest);
+            }
+            int allowed = 0;
+            for (Future<Boolean> probe : executor.invokeAll(probes)) {
+                allowed += probe.get() ? 1 : 0;
+            }
+            assertEquals(1, allowed);
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals("HALF_OPEN", circuitBreaker.state());
+
+        circuitBreaker.onSuccess();
+        assertEquals("CLOSED", circuitBreaker.state());
+        assertTrue(circuitBreaker.allowRequest());
+    }
+
+    @Test
+    void halfOpenFailureReopensImmediately() {
+        IsolationCircuitBreaker circuitBreaker = new IsolationCircuitBreaker("route", 5, 0);
+        for (int i = 0; i < 5; i++) {
+            circuitBreaker.onFailure();
+        }
+        assertTrue(circuitBreaker.allowRequest());
+        assertEquals("HALF_OPEN", circuitBreaker.state());
+
+        // 半开探测失败不需要再次累计到阈值
+        circuitBreaker.onFailure();
+        assertEquals("OPEN", circuitBreaker.state());
+    }
+
+    @Test
+    void unreportedProbeIsRearmed() {
+        IsolationCircuitBreaker circuitBreaker = new IsolationCircuitBreaker(1, 0);
+        circuitBreaker.onFailure();
+        assertTrue(circuitBreaker.allowRequest());
+
+        // 探测结果超时未回报，重新放行一次探测
+        assertTrue(circuitBreaker.allowRequest());
+        assertEquals("HALF_OPEN", circuitBreaker.state());
+    }
+
+}
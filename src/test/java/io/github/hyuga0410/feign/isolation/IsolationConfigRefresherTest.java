@@ -0,0 +1,92 @@
+package io.github.hyuga0410.feign.isolation;
+
+import cn.hyugatool.core.number.NumberUtil;
+import cn.hyugatool.system.NetworkUtil;
+import feign.Target;
+import io.github.hyuga0410.feign.isolation.registry.InMemoryIsolationRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.context.environment.EnvironmentChangeEvent;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.core.env.StandardEnvironment;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * IsolationConfigRefresherTest
+ *
+ * @author hyuga
+ * @since 2026/10/17
+ */
+class IsolationConfigRefresherTest {
+
+    private static final String LOCAL_IP = NetworkUtil.getLocalIpAddr();
+    private static final String SERVICE = "order-service";
+    private static final String URL = "http://" + SERVICE;
+    private static final String ISOLATION_URL = URL + "-" + NumberUtil.getNumber(LOCAL_IP);
+
+    private final Map<String, Object> properties = new HashMap<>();
+    private FeignIsolationSettings settings;
+    private IsolationConfigRefresher refresher;
+    private Target<OrderClient> target;
+
+    @BeforeEach
+    void setUp() {
+        StandardEnvironment environment = new StandardEnvironment();
+        environment.getPropertySources().addFirst(new MapPropertySource("config-center", properties));
+        settings = FeignIsolationTestSupport.settings(RefreshableApplication.class, environment);
+        refresher = new IsolationConfigRefresher(settings);
+        refresher.setEnvironment(environment);
+        IsolationRouteCache routeCache = new IsolationRouteCache(new InMemoryIsolationRegistry(), LOCAL_IP, 60);
+        target = new FeignBuilderHelper(settings, true, routeCache)
+                .isolationTarget(new Target.HardCodedTarget<>(OrderClient.class, SERVICE, URL));
+    }
+
+    @Test
+    void isolationPropertyChangeSwapsPlanAndNextDecision() {
+        final IsolationDecisionPlan initial = settings.decisionPlan();
+        // 注册中心中不存在隔离服务
+        assertEquals(URL, target.url());
+
+        properties.put(FeignIsolationConstants.ISOLATION_IPS_PROPERTY, LOCAL_IP);
+        refresher.onApplicationEvent(new EnvironmentChangeEvent(Set.of(FeignIsolationConstants.ISOLATION_IPS_PROPERTY)));
+        final IsolationDecisionPlan forced = settings.decisionPlan();
+        assertNotSame(initial, forced);
+        assertEquals(RouteDecision.FORCED, forced.decide(URL, URL));
+        assertEquals(ISOLATION_URL, target.url());
+
+        properties.put(FeignIsolationConstants.SKIP_ISOLATION_SERVICES_PROPERTY, URL);
+        refresher.onApplicationEvent(new EnvironmentChangeEvent(Set.of(FeignIsolationConstants.SKIP_ISOLATION_SERVICES_PROPERTY)));
+        assertNotSame(forced, settings.decisionPlan());
+        assertEquals(URL, target.url());
+
+        properties.put(FeignIsolationConstants.DEFAULT_IP_PROPERTY, LOCAL_IP);
+        refresher.onApplicationEvent(new EnvironmentChangeEvent(Set.of(FeignIsolationConstants.DEFAULT_IP_PROPERTY)));
+        assertEquals(RouteDecision.DEFAULT_IP, settings.decisionPlan().decide(URL, URL));
+        assertEquals(URL, target.url());
+    }
+
+    @Test
+    void unrelatedPropertyChangeKeepsPlan() {
+        final IsolationDecisionPlan initial = settings.decisionPlan();
+
+        properties.put(FeignIsolationConstants.ISOLATION_IPS_PROPERTY, LOCAL_IP);
+        refresher.onApplicationEvent(new EnvironmentChangeEvent(Set.of("spring.application.name")));
+        assertSame(initial, settings.decisionPlan());
+        assertEquals(URL, target.url());
+    }
+
+    interface OrderClient {
+    }
+
+    @FeignIsolation(prewarmTimeoutMillis = 0)
+    private static final class RefreshableApplication {
+    }
+
+}
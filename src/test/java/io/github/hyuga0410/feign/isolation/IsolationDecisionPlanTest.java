@@ -0,0 +1,77 @@
+package io.github.hyuga0410.feign.isolation;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * IsolationDecisionPlanTest
+ *
+ * @author hyuga
+ * @since 2026/10/17
+ */
+class IsolationDecisionPlanTest {
+
+    private static final String LOCAL_IP = "10.0.0.1";
+    private static final String DEFAULT_IP = "10.0.0.100";
+    private static final String SIGN = "-service";
+    private static final String URL = "http://order-service/orders";
+    private static final String URI = "http://order-service";
+
+    @Test
+    void defaultIpTakesPrecedence() {
+        IsolationDecisionPlan plan = IsolationDecisionPlan.compile(LOCAL_IP, LOCAL_IP, SIGN, List.of(LOCAL_IP), List.of(URI));
+
+        assertTrue(plan.defaultEnvironment());
+        assertEquals(RouteDecision.DEFAULT_IP, plan.decide(URL, URI));
+        assertEquals(RouteDecision.DEFAULT_IP, plan.decide("http://gateway/orders", "http://gateway"));
+    }
+
+    @Test
+    void serviceSignCheckedBeforeForcedIsolation() {
+        IsolationDecisionPlan plan = IsolationDecisionPlan.compile(LOCAL_IP, DEFAULT_IP, SIGN, List.of(LOCAL_IP), List.of());
+
+        assertEquals(RouteDecision.NO_SERVICE_SIGN, plan.decide("http://gateway/orders", "http://gateway"));
+        assertEquals(RouteDecision.FORCED, plan.decide(URL, URI));
+    }
+
+    @Test
+    void forcedIsolationHonoursSkippedServices() {
+        IsolationDecisionPlan plan = IsolationDecisionPlan.compile(LOCAL_IP, DEFAULT_IP, SIGN,
+                List.of("10.0.0.2", LOCAL_IP), List.of(URI));
+
+        assertEquals(RouteDecision.SKIPPED, plan.decide(URL, URI));
+        assertEquals(RouteDecision.FORCED, plan.decide("http://user-service/users", "http://user-service"));
+    }
+
+    @Test
+    void otherwiseDefersToRegistry() {
+        IsolationDecisionPlan plan = IsolationDecisionPlan.compile(LOCAL_IP, DEFAULT_IP, SIGN, List.of("10.0.0.2"), List.of(URI));
+
+        assertFalse(plan.defaultEnvironment());
+        assertNull(plan.decide("http://user-service/users", "http://user-service"));
+        // 未强制隔离时跳过的服务同样需要查询注册中心，由调用方按skipped处理透传标签
+        assertNull(plan.decide(URL, URI));
+        assertTrue(plan.skipped(URI));
+        assertFalse(plan.skipped("http://user-service"));
+    }
+
+    @Test
+    void compileToleratesMissingValues() {
+        IsolationDecisionPlan plan = IsolationDecisionPlan.compile(LOCAL_IP, null, null, null, null);
+
+        assertEquals("", plan.defaultIpAddr());
+        assertEquals("", plan.serviceSign());
+        assertTrue(plan.isolationIps().isEmpty());
+        assertTrue(plan.skipIsolationServices().isEmpty());
+        assertEquals("10001", plan.serviceIsolationSuffix());
+        // 空服务标识匹配所有服务
+        assertNull(plan.decide(URL, URI));
+    }
+
+}
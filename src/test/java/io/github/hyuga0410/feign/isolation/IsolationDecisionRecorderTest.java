@@ -0,0 +1,137 @@
+package io.github.hyuga0410.feign.isolation;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * IsolationDecisionRecorderTest
+ *
+ * @author hyuga
+ * @since 2026/10/17
+ */
+class IsolationDecisionRecorderTest {
+
+    @Test
+    void capacityRoundsUpToPowerOfTwo() {
+        assertEquals(4, new IsolationDecisionRecorder(4, 1).capacity());
+        assertEquals(8, new IsolationDecisionRecorder(5, 1).capacity());
+        assertEquals(2, new IsolationDecisionRecorder(1, 1).capacity());
+    }
+
+    @Test
+    void disabledSamplingRecordsNothing() {
+        IsolationDecisionRecorder recorder = new IsolationDecisionRecorder(4, 0);
+
+        final long start = recorder.start();
+        assertEquals(0L, start);
+        recorder.record(start, "order-service", "order-service-10001", RouteDecision.REGISTRY_HIT, null);
+        assertTrue(recorder.snapshot().isEmpty());
+    }
+
+    @Test
+    void fullBufferOverwritesOldestRecords() {
+        IsolationDecisionRecorder recorder = new IsolationDecisionRecorder(4, 1);
+
+        for (int i = 1; i <= 6; i++) {
+            record(recorder, i);
+        }
+        // 按时间倒序，只保留最近capacity条
+        assertEquals(List.of("key-6", "key-5", "key-4", "key-3"), keys(recorder.snapshot()));
+
+        record(recorder, 7);
+        assertEquals(List.of("key-7", "key-6", "key-5", "key-4"), keys(recorder.snapshot()));
+    }
+
+    @Test
+    void collidingWriterDropsSample() throws Exception {
+        IsolationDecisionRecorder recorder = new IsolationDecisionRecorder(4, 1);
+        for (int i = 1; i <= 4; i++) {
+            record(recorder, i);
+        }
+
+        // 模拟其他写入方仍占用下一条记录（序号5）落入的槽位
+        final AtomicLong occupied = sequence(recorder, 5);
+        final long previous = occupied.getAndSet(-1L);
+        record(recorder, 5);
+        // 本次采样被放弃，正在写入的槽位在读取时被跳过
+        assertEquals(List.of("key-4", "key-3", "key-2"), keys(recorder.snapshot()));
+
+        // 占用方写完后恢复正常写入
+        occupied.set(previous);
+        record(recorder, 6);
+        assertEquals(List.of("key-6", "key-4", "key-3"), keys(recorder.snapshot()));
+    }
+
+    @Test
+    void concurrentWritersNeverExposeTornRecords() throws Exception {
+        IsolationDecisionRecorder recorder = new IsolationDecisionRecorder(8, 1);
+        final int writers = 4;
+        ExecutorService executor = Executors.newFixedThreadPool(writers);
+        final AtomicBoolean running = new AtomicBoolean(true);
+        final CountDownLatch started = new CountDownLatch(writers);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int w = 0; w < writers; w++) {
+                final int writer = w;
+                futures.add(executor.submit(() -> {
+                    started.countDown();
+                    for (int i = writer; running.get(); i += writers) {
+                        record(recorder, i);
+                    }
+                }));
+            }
+            started.await();
+            for (int round = 0; round < 20000; round++) {
+                for (Map<String, Object> record : recorder.snapshot()) {
+                    // 同一条记录的各字段来自同一次写入
+                    final String tag = (String) record.get("tag");
+                    assertEquals("target-" + tag, record.get("target"));
+                    assertEquals("key-" + tag, record.get("key"));
+                }
+            }
+            running.set(false);
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            running.set(false);
+            executor.shutdownNow();
+        }
+    }
+
+    private static void record(IsolationDecisionRecorder recorder, int i) {
+        recorder.record(recorder.start(), "target-" + i, "key-" + i, RouteDecision.REGISTRY_HIT, String.valueOf(i));
+    }
+
+    private static List<Object> keys(List<Map<String, Object>> records) {
+        return records.stream().map(record -> record.get("key")).collect(Collectors.toList());
+    }
+
+    /**
+     * 指定序号落入槽位的顺序锁
+     */
+    private static AtomicLong sequence(IsolationDecisionRecorder recorder, long sequence) throws Exception {
+        final Field slotsField = IsolationDecisionRecorder.class.getDeclaredField("slots");
+        slotsField.setAccessible(true);
+        final Object[] slots = (Object[]) slotsField.get(recorder);
+        final Object slot = slots[(int) (sequence & (slots.length - 1))];
+        final Field sequenceField = slot.getClass().getDeclaredField("sequence");
+        sequenceField.setAccessible(true);
+        return (AtomicLong) sequenceField.get(slot);
+    }
+
+}
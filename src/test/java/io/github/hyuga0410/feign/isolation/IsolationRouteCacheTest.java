@@ -0,0 +1,145 @@
+package io.github.hyuga0410.feign.isolation;
+
+import io.github.hyuga0410.feign.isolation.registry.InMemoryIsolationRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * IsolationRouteCacheTest
+ *
+ * @author hyuga
+ * @since 2026/10/17
+ */
+class IsolationRouteCacheTest {
+
+    private static final String IP = "10.0.0.1";
+    private static final String HOST = "order-service";
+    private static final String SERVICE = HOST + "-10001";
+
+    @Test
+    void onChangeUpdatesRouteImmediately() {
+        IsolationRouteCache routeCache = new IsolationRouteCache(new InMemoryIsolationRegistry(), IP, 60);
+
+        routeCache.onChange(SERVICE, true);
+        assertTrue(routeCache.isolated(HOST, SERVICE));
+
+        routeCache.onChange(SERVICE, false);
+        assertFalse(routeCache.isolated(HOST, SERVICE));
+    }
+
+    @Test
+    void onChangeIgnoresOtherEnvironments() {
+        IsolationRouteCache routeCache = new IsolationRouteCache(new InMemoryIsolationRegistry(), IP, 60);
+
+        routeCache.onChange(HOST + "-10002", true);
+        assertFalse(route(routeCache).containsKey(HOST));
+    }
+
+    @Test
+    void onResyncExpiresRoutesAndRecoversMissedEvents() throws Exception {
+        InMemoryIsolationRegistry registry = new InMemoryIsolationRegistry();
+        registry.register(IP, SERVICE);
+        IsolationRouteCache routeCache = new IsolationRouteCache(registry, IP, 60);
+
+        // 首次访问后台加载
+        assertFalse(routeCache.isolated(HOST, SERVICE));
+        await(() -> routeCache.isolated(HOST, SERVICE));
+
+        // 推送通道断开期间隔离服务下线，缓存未收到事件
+        registry.deregister(IP, SERVICE);
+        assertTrue(routeCache.isolated(HOST, SERVICE));
+
+        routeCache.onResync();
+        assertEquals(Boolean.TRUE, route(routeCache).get(HOST).get("stale"));
+        await(() -> !routeCache.isolated(HOST, SERVICE));
+    }
+
+    @Test
+    void serviceOnlineDuringFilterRebuildIsNotFilteredOut() throws Exception {
+        final CountDownLatch snapshotTaken = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        InMemoryIsolationRegistry registry = new InMemoryIsolationRegistry() {
+
+            @Override
+            public Set<String> snapshot(String ip) {
+                final Set<String> snapshot = super.snapshot(ip);
+                snapshotTaken.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return snapshot;
+            }
+
+        };
+        registry.register(IP, SERVICE);
+        IsolationRouteCache routeCache = new IsolationRouteCache(registry, IP, 60);
+        registry.subscribe(IP, routeCache);
+
+        // 首次访问触发过滤器构建，快照读取后、过滤器发布前上线新服务
+        routeCache.isolated(HOST, SERVICE);
+        assertTrue(snapshotTaken.await(5, TimeUnit.SECONDS));
+        registry.register(IP, "payment-service-10001");
+        release.countDown();
+        await(() -> Boolean.TRUE.equals(routeCache.state().get("filterBuilt")));
+
+        assertTrue(routeCache.isolated("payment-service", "payment-service-10001"));
+        await(() -> routeCache.isolated(HOST, SERVICE));
+    }
+
+    @Test
+    void serviceOnlineAfterFilterRebuildIsNotFilteredOut() throws Exception {
+        InMemoryIsolationRegistry registry = new InMemoryIsolationRegistry();
+        registry.register(IP, SERVICE);
+        IsolationRouteCache routeCache = new IsolationRouteCache(registry, IP, 60);
+        registry.subscribe(IP, routeCache);
+
+        await(() -> routeCache.isolated(HOST, SERVICE));
+        for (int i = 0; i < 3; i++) {
+            // 每次重建后上线的服务直接加入当前过滤器
+            routeCache.onResync();
+            routeCache.isolated(HOST, SERVICE);
+            final String serviceName = "payment-" + i + "-service-10001";
+            registry.register(IP, serviceName);
+            assertTrue(routeCache.isolated("payment-" + i + "-service", serviceName));
+            await(() -> routeCache.isolated(HOST, SERVICE));
+        }
+    }
+
+    @Test
+    void closeStopsBackgroundRefresh() {
+        InMemoryIsolationRegistry registry = new InMemoryIsolationRegistry();
+        registry.register(IP, SERVICE);
+        IsolationRouteCache routeCache = new IsolationRouteCache(registry, IP, 60);
+
+        routeCache.close();
+        // 关闭后的刷新请求被直接放弃，不抛出异常
+        assertFalse(routeCache.isolated(HOST, SERVICE));
+        assertTrue(routeCache.prefetch(Map.of(HOST, SERVICE)).isDone());
+        assertFalse(route(routeCache).containsKey(HOST));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Map<String, Object>> route(IsolationRouteCache routeCache) {
+        return (Map<String, Map<String, Object>>) routeCache.state().get("routes");
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "condition not met in 5s");
+            TimeUnit.MILLISECONDS.sleep(10);
+        }
+    }
+
+}
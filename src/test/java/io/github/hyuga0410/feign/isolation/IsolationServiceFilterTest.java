@@ -0,0 +1,114 @@
+package io.github.hyuga0410.feign.isolation;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * IsolationServiceFilterTest
+ *
+ * @author hyuga
+ * @since 2026/10/17
+ */
+class IsolationServiceFilterTest {
+
+    @Test
+    void snapshotServicesAreNeverFilteredOut() {
+        final List<String> serviceNames = serviceNames("service-", 5000);
+        IsolationServiceFilter filter = IsolationServiceFilter.of(serviceNames);
+
+        for (String serviceName : serviceNames) {
+            assertTrue(filter.mightContain(serviceName), serviceName);
+        }
+    }
+
+    @Test
+    void servicesAddedBeyondCapacityAreNeverFilteredOut() {
+        IsolationServiceFilter filter = IsolationServiceFilter.of(List.of());
+
+        // 两次重建之间上线的服务远超预留容量时，只会提高误判率
+        final List<String> serviceNames = serviceNames("online-", 2000);
+        serviceNames.forEach(filter::add);
+        for (String serviceName : serviceNames) {
+            assertTrue(filter.mightContain(serviceName), serviceName);
+        }
+    }
+
+    @Test
+    void precomputedHashMatchesServiceName() {
+        final List<String> serviceNames = serviceNames("service-", 1000);
+        IsolationServiceFilter filter = IsolationServiceFilter.of(serviceNames.subList(0, 500));
+
+        for (String serviceName : serviceNames) {
+            assertEquals(filter.mightContain(serviceName), filter.mightContain(IsolationServiceFilter.hash(serviceName)), serviceName);
+        }
+        // 非ASCII服务名同样按char计算
+        filter.add("订单服务-10001");
+        assertTrue(filter.mightContain(IsolationServiceFilter.hash("订单服务-10001")));
+    }
+
+    @Test
+    void falsePositiveRateStaysLow() {
+        IsolationServiceFilter filter = IsolationServiceFilter.of(serviceNames("service-", 1000));
+
+        int falsePositives = 0;
+        for (String serviceName : serviceNames("absent-", 10000)) {
+            if (filter.mightContain(serviceName)) {
+                falsePositives++;
+            }
+        }
+        // 容量为快照的两倍，误判率应明显低于1%
+        assertTrue(falsePositives < 100, "false positives: " + falsePositives);
+        assertFalse(filter.mightContain("order-service-10001"));
+    }
+
+    @Test
+    void concurrentAddsAreNotLost() throws Exception {
+        IsolationServiceFilter filter = IsolationServiceFilter.of(List.of());
+        final int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            final CountDownLatch start = new CountDownLatch(1);
+            List<Future<List<String>>> futures = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                final String prefix = "thread-" + i + "-";
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    final List<String> serviceNames = serviceNames(prefix, 500);
+                    for (String serviceName : serviceNames) {
+                        filter.add(serviceName);
+                        // 添加返回后立即可见
+                        assertTrue(filter.mightContain(serviceName), serviceName);
+                    }
+                    return serviceNames;
+                }));
+            }
+            start.countDown();
+            for (Future<List<String>> future : futures) {
+                for (String serviceName : future.get()) {
+                    assertTrue(filter.mightContain(serviceName), serviceName);
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static List<String> serviceNames(String prefix, int count) {
+        final List<String> serviceNames = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            serviceNames.add(prefix + i + "-1921681" + i % 255);
+        }
+        return serviceNames;
+    }
+
+}
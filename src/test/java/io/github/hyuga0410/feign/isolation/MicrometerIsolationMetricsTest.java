@@ -0,0 +1,178 @@
+package io.github.hyuga0410.feign.isolation;
+
+import cn.hyugatool.core.number.NumberUtil;
+import cn.hyugatool.system.NetworkUtil;
+import feign.Client;
+import feign.Param;
+import feign.RequestLine;
+import feign.Response;
+import feign.Target;
+import io.github.hyuga0410.feign.isolation.registry.InMemoryIsolationRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.support.GenericApplicationContext;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static io.github.hyuga0410.feign.isolation.FeignIsolationConstants.CIRCUIT_BREAKER_FAILURE_THRESHOLD;
+import static io.github.hyuga0410.feign.isolation.FeignIsolationConstants.CIRCUIT_BREAKER_OPEN_SECONDS;
+import static io.github.hyuga0410.feign.isolation.FeignIsolationConstants.REGISTRY_TIMEOUT_MILLIS;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * MicrometerIsolationMetricsTest
+ *
+ * @author hyuga
+ * @since 2026/10/17
+ */
+class MicrometerIsolationMetricsTest {
+
+    private static final String LOCAL_IP = NetworkUtil.getLocalIpAddr();
+    private static final String SUFFIX = "-" + NumberUtil.getNumber(LOCAL_IP);
+    private static final String ORDER_SERVICE = "order-service";
+    private static final String USER_SERVICE = "user-service";
+    private static final String PAY_SERVICE = "pay-service";
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final InMemoryIsolationRegistry registry = new InMemoryIsolationRegistry();
+    private GenericApplicationContext applicationContext;
+    private IsolationMetrics metrics;
+
+    @BeforeEach
+    void setUp() {
+        applicationContext = new GenericApplicationContext();
+        applicationContext.registerBean(MeterRegistry.class, () -> meterRegistry);
+        applicationContext.refresh();
+        metrics = MicrometerIsolationMetrics.of(applicationContext);
+        // 只有order-service部署了隔离服务
+        registry.register(LOCAL_IP, ORDER_SERVICE + SUFFIX);
+    }
+
+    @AfterEach
+    void tearDown() {
+        applicationContext.close();
+    }
+
+    @Test
+    void metricsAreDisabledWithoutMeterRegistry() {
+        try (GenericApplicationContext context = new GenericApplicationContext()) {
+            context.refresh();
+            assertSame(IsolationMetrics.NOOP, MicrometerIsolationMetrics.of(context));
+        }
+    }
+
+    @Test
+    void cacheAccessCountsEachResult() throws Exception {
+        IsolationRouteCache routeCache = routeCache(60);
+        // 未加载：miss
+        routeCache.isolated(PAY_SERVICE, PAY_SERVICE + SUFFIX);
+        assertEquals(1, cache(IsolationMetrics.CACHE_MISS));
+
+        routeCache.prefetch(Map.of(ORDER_SERVICE, ORDER_SERVICE + SUFFIX)).get(5, TimeUnit.SECONDS);
+        routeCache.isolated(ORDER_SERVICE, ORDER_SERVICE + SUFFIX);
+        routeCache.isolated(ORDER_SERVICE, ORDER_SERVICE + SUFFIX);
+        // 过滤器确认不存在隔离服务：filtered
+        routeCache.isolated(USER_SERVICE, USER_SERVICE + SUFFIX);
+
+        assertEquals(2, cache(IsolationMetrics.CACHE_HIT));
+        assertEquals(1, cache(IsolationMetrics.CACHE_FILTERED));
+        assertEquals(1, cache(IsolationMetrics.CACHE_MISS));
+        assertEquals(0, cache(IsolationMetrics.CACHE_STALE));
+        routeCache.close();
+    }
+
+    @Test
+    void cacheAccessCountsStaleRoutes() throws Exception {
+        IsolationRouteCache routeCache = routeCache(0);
+        routeCache.prefetch(Map.of(ORDER_SERVICE, ORDER_SERVICE + SUFFIX)).get(5, TimeUnit.SECONDS);
+        TimeUnit.MILLISECONDS.sleep(5);
+
+        routeCache.isolated(ORDER_SERVICE, ORDER_SERVICE + SUFFIX);
+
+        assertEquals(1, cache(IsolationMetrics.CACHE_STALE));
+        assertEquals(0, cache(IsolationMetrics.CACHE_HIT));
+        routeCache.close();
+    }
+
+    @Test
+    void routeDecisionsAreCountedPerTargetAndOutcome() {
+        IsolationMetrics.RouteMeter order = metrics.route(ORDER_SERVICE);
+        IsolationMetrics.RouteMeter user = metrics.route(USER_SERVICE);
+
+        order.record(RouteDecision.REGISTRY_HIT, order.start());
+        order.record(RouteDecision.FORCED, order.start());
+        order.record(RouteDecision.UNHEALTHY, order.start());
+        user.record(RouteDecision.REGISTRY_MISS, user.start());
+        user.record(RouteDecision.SKIPPED, user.start());
+
+        assertEquals(2, decisions(ORDER_SERVICE, "isolated"));
+        assertEquals(1, decisions(ORDER_SERVICE, "demoted"));
+        assertEquals(0, decisions(ORDER_SERVICE, "default"));
+        assertEquals(1, decisions(USER_SERVICE, "default"));
+        assertEquals(1, decisions(USER_SERVICE, "skipped"));
+        assertEquals(0, decisions(USER_SERVICE, "isolated"));
+    }
+
+    @Test
+    void feignCallsRecordCacheAccessAndDecision() throws Exception {
+        IsolationRouteCache routeCache = routeCache(60);
+        routeCache.prefetch(Map.of(ORDER_SERVICE, ORDER_SERVICE + SUFFIX, USER_SERVICE, USER_SERVICE + SUFFIX))
+                .get(5, TimeUnit.SECONDS);
+        FeignBuilderHelper feignBuilderHelper = new FeignBuilderHelper(
+                FeignIsolationTestSupport.settings(MetricsApplication.class), true, routeCache, metrics);
+        feignBuilderHelper.client(okClient());
+        Api order = feignBuilderHelper.target(target(ORDER_SERVICE));
+        Api user = feignBuilderHelper.target(target(USER_SERVICE));
+
+        order.get(1);
+        order.get(2);
+        user.get(1);
+
+        assertEquals(2, decisions(ORDER_SERVICE, "isolated"));
+        assertEquals(1, decisions(USER_SERVICE, "default"));
+        assertEquals(2, cache(IsolationMetrics.CACHE_HIT));
+        assertEquals(1, cache(IsolationMetrics.CACHE_FILTERED));
+        routeCache.close();
+    }
+
+    private IsolationRouteCache routeCache(long ttlSeconds) {
+        return new IsolationRouteCache(registry, LOCAL_IP, ttlSeconds, REGISTRY_TIMEOUT_MILLIS,
+                new IsolationCircuitBreaker(CIRCUIT_BREAKER_FAILURE_THRESHOLD, CIRCUIT_BREAKER_OPEN_SECONDS), metrics);
+    }
+
+    private double cache(String result) {
+        return meterRegistry.get("feign.isolation.route.cache").tag("result", result).counter().count();
+    }
+
+    private double decisions(String target, String outcome) {
+        return meterRegistry.get("feign.isolation.route.decisions").tag("target", target).tag("outcome", outcome)
+                .counter().count();
+    }
+
+    private static Target<Api> target(String service) {
+        return new Target.HardCodedTarget<>(Api.class, service, "http://" + service);
+    }
+
+    private static Client okClient() {
+        return (request, options) -> Response.builder().status(200).request(request).headers(Map.of())
+                .body("ok", StandardCharsets.UTF_8).build();
+    }
+
+    public interface Api {
+
+        @RequestLine("GET /api/{id}")
+        String get(@Param("id") long id);
+
+    }
+
+    @FeignIsolation(prewarmTimeoutMillis = 0)
+    private static final class MetricsApplication {
+    }
+
+}
@@ -0,0 +1,63 @@
+package io.github.hyuga0410.feign.isolation.loadbalancer;
+
+import io.github.hyuga0410.feign.isolation.FeignIsolationConstants;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import reactor.core.publisher.Flux;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * IsolationLoadBalancerConfigurationTest
+ *
+ * @author hyuga
+ * @since 2026/10/17
+ */
+class IsolationLoadBalancerConfigurationTest {
+
+    private static final String SERVICE = "order-service";
+
+    private final BeanPostProcessor postProcessor = IsolationLoadBalancerConfiguration.isolationServiceInstanceListSupplierPostProcessor();
+
+    @Test
+    void existingSupplierIsWrapped() {
+        ServiceInstance defaults = new DefaultServiceInstance("1", SERVICE, "10.0.0.1", 8080, false);
+        ServiceInstance isolated = new DefaultServiceInstance("2", SERVICE, "10.0.0.2", 8080, false,
+                Map.of(FeignIsolationConstants.FEIGN_SUFFIX, "10002"));
+        ServiceInstanceListSupplier supplier = new ServiceInstanceListSupplier() {
+
+            @Override
+            public String getServiceId() {
+                return SERVICE;
+            }
+
+            @Override
+            public Flux<List<ServiceInstance>> get() {
+                return Flux.just(List.of(defaults, isolated));
+            }
+
+        };
+
+        Object wrapped = postProcessor.postProcessAfterInitialization(supplier, "supplier");
+        assertInstanceOf(IsolationServiceInstanceListSupplier.class, wrapped);
+        assertSame(supplier, ((IsolationServiceInstanceListSupplier) wrapped).getDelegate());
+        assertEquals(List.of(defaults), ((ServiceInstanceListSupplier) wrapped).get().blockFirst());
+        // 已包装的实例列表不重复包装
+        assertSame(wrapped, postProcessor.postProcessAfterInitialization(wrapped, "supplier"));
+    }
+
+    @Test
+    void otherBeansAreUntouched() {
+        Object bean = Flux.empty();
+        assertSame(bean, postProcessor.postProcessAfterInitialization(bean, "flux"));
+    }
+
+}
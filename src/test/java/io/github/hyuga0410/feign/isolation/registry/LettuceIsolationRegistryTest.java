@@ -0,0 +1,53 @@
+package io.github.hyuga0410.feign.isolation.registry;
+
+import io.github.hyuga0410.feign.isolation.FakeRedisServer;
+import org.junit.jupiter.api.Test;
+
+import java.net.InetAddress;
+import java.net.ServerSocket;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * LettuceIsolationRegistryTest
+ *
+ * @author hyuga
+ * @since 2026/10/17
+ */
+class LettuceIsolationRegistryTest {
+
+    private static final String HOST = InetAddress.getLoopbackAddress().getHostAddress();
+    private static final String IP = "10.0.0.1";
+    private static final String SERVICE = "order-service-10001";
+
+    @Test
+    void constructionDoesNotConnect() throws Exception {
+        final int port;
+        try (ServerSocket socket = new ServerSocket(0, 1, InetAddress.getLoopbackAddress())) {
+            port = socket.getLocalPort();
+        }
+        // 端口上没有Redis，创建与关闭都不应建立连接
+        LettuceIsolationRegistry registry = new LettuceIsolationRegistry(HOST, port, null, null);
+        registry.register(IP, SERVICE);
+        assertDoesNotThrow(registry::close);
+    }
+
+    @Test
+    void connectsOnFirstAccess() throws Exception {
+        try (FakeRedisServer server = new FakeRedisServer()) {
+            LettuceIsolationRegistry registry = new LettuceIsolationRegistry(HOST, server.port(), null, null);
+            try {
+                assertFalse(registry.lookup(IP, SERVICE));
+                registry.register(IP, SERVICE);
+                registry.heartbeat();
+                assertTrue(registry.lookup(IP, SERVICE));
+                assertTrue(registry.lookupAsync(IP, SERVICE).toCompletableFuture().get());
+            } finally {
+                registry.close();
+            }
+        }
+    }
+
+}
@@ -0,0 +1,147 @@
+package io.github.hyuga0410.feign.isolation.registry;
+
+import com.alibaba.nacos.api.naming.NamingService;
+import com.alibaba.nacos.api.naming.listener.EventListener;
+import com.alibaba.nacos.api.naming.listener.NamingEvent;
+import com.alibaba.nacos.api.naming.pojo.Instance;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * NacosIsolationRegistryTest
+ *
+ * @author hyuga
+ * @since 2026/10/17
+ */
+class NacosIsolationRegistryTest {
+
+    private static final String GROUP = "DEFAULT_GROUP";
+    private static final String IP = "10.0.0.1";
+    private static final String OTHER_IP = "10.0.0.2";
+    private static final String ORDER = "order-service-10001";
+    private static final String USER = "user-service-10001";
+
+    /**
+     * 隔离服务名 -> Nacos实例
+     */
+    private final Map<String, List<Instance>> instances = new ConcurrentHashMap<>();
+    /**
+     * 隔离服务名 -> Nacos订阅
+     */
+    private final Map<String, EventListener> subscriptions = new ConcurrentHashMap<>();
+    private final List<String> calls = new CopyOnWriteArrayList<>();
+    private NacosIsolationRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        registry = new NacosIsolationRegistry(namingService(), GROUP);
+    }
+
+    @Test
+    void registerIsLeftToNacosDiscovery() {
+        registry.register(IP, ORDER);
+        registry.heartbeat();
+
+        // 注册及心跳由Nacos服务发现完成，不访问NamingService
+        assertEquals(List.of(), calls);
+    }
+
+    @Test
+    void lookupSubscribesOnceAndReadsPushedInstances() {
+        instances.put(ORDER, List.of(instance(IP, true), instance(OTHER_IP, false)));
+
+        assertTrue(registry.lookup(IP, ORDER));
+        assertFalse(registry.lookup(OTHER_IP, ORDER));
+        assertFalse(registry.lookup(IP, USER));
+        assertEquals(List.of("subscribe " + ORDER, "selectInstances " + ORDER,
+                "subscribe " + USER, "selectInstances " + USER), calls);
+
+        // 之后的查询读取Nacos推送的状态，不再访问NamingService
+        calls.clear();
+        push(ORDER, List.of(instance(OTHER_IP, true)));
+        push(USER, List.of(instance(IP, true)));
+        assertFalse(registry.lookup(IP, ORDER));
+        assertTrue(registry.lookup(OTHER_IP, ORDER));
+        assertTrue(registry.lookup(IP, USER));
+        assertEquals(List.of(), calls);
+    }
+
+    @Test
+    void pushNotifiesOnlyChangedServices() {
+        final List<String> events = new CopyOnWriteArrayList<>();
+        registry.subscribe(IP, (serviceName, present) -> events.add(serviceName + ":" + present));
+        instances.put(ORDER, List.of(instance(IP, true)));
+
+        registry.lookup(IP, ORDER);
+        push(ORDER, List.of(instance(IP, true), instance(OTHER_IP, true)));
+        push(ORDER, List.of(instance(OTHER_IP, true)));
+
+        assertEquals(List.of(ORDER + ":true", ORDER + ":false"), events);
+    }
+
+    @Test
+    void closeUnsubscribesBeforeShutdown() {
+        instances.put(ORDER, List.of(instance(IP, true)));
+        registry.lookup(IP, ORDER);
+        registry.lookup(IP, USER);
+        assertEquals(Set.of(ORDER, USER), subscriptions.keySet());
+        calls.clear();
+
+        registry.close();
+
+        // 注销订阅的监听与订阅时为同一实例，并在关闭客户端前完成
+        assertTrue(subscriptions.isEmpty());
+        assertEquals(Set.of("unsubscribe " + ORDER, "unsubscribe " + USER), Set.copyOf(calls.subList(0, 2)));
+        assertEquals(List.of("shutDown"), calls.subList(2, calls.size()));
+    }
+
+    private void push(String serviceName, List<Instance> pushed) {
+        subscriptions.get(serviceName).onEvent(new NamingEvent(serviceName, GROUP, "", pushed));
+    }
+
+    private static Instance instance(String ip, boolean healthy) {
+        final Instance instance = new Instance();
+        instance.setIp(ip);
+        instance.setHealthy(healthy);
+        return instance;
+    }
+
+    private NamingService namingService() {
+        return (NamingService) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{NamingService.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "subscribe":
+                            assertEquals(GROUP, args[1]);
+                            calls.add("subscribe " + args[0]);
+                            subscriptions.put((String) args[0], (EventListener) args[2]);
+                            return null;
+                        case "unsubscribe":
+                            calls.add("unsubscribe " + args[0]);
+                            subscriptions.remove((String) args[0], args[2]);
+                            return null;
+                        case "selectInstances":
+                            assertEquals(GROUP, args[1]);
+                            assertEquals(true, args[2]);
+                            calls.add("selectInstances " + args[0]);
+                            return instances.getOrDefault((String) args[0], List.of());
+                        case "shutDown":
+                            calls.add("shutDown");
+                            return null;
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+
+}
@@ -0,0 +1,119 @@
+package io.github.hyuga0410.feign.isolation.registry;
+
+import io.github.hyuga0410.feign.isolation.FakeRedisServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static io.github.hyuga0410.feign.isolation.FeignIsolationConstants.HEARTBEAT_EXPIRE_SECONDS;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * RedisHashIsolationRegistryTest
+ *
+ * @author hyuga
+ * @since 2026/10/17
+ */
+class RedisHashIsolationRegistryTest {
+
+    private static final String IP = "10.0.0.1";
+    private static final String KEY = RedisHashIsolationRegistry.key(IP);
+    private static final String ORDER = "order-service-10001";
+    private static final String USER = "user-service-10001";
+    private static final long HALF_EXPIRE_MILLIS = TimeUnit.SECONDS.toMillis(HEARTBEAT_EXPIRE_SECONDS) / 2 + 1000;
+
+    private FakeRedisServer server;
+    private RedisHashIsolationRegistry order;
+    private RedisHashIsolationRegistry user;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        server = new FakeRedisServer();
+        order = new RedisHashIsolationRegistry(server.jedisTools());
+        order.register(IP, ORDER);
+        user = new RedisHashIsolationRegistry(server.jedisTools());
+        user.register(IP, USER);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        order.close();
+        user.close();
+        server.close();
+    }
+
+    @Test
+    void versionBumpsOnlyWhenServicesChange() {
+        order.heartbeat();
+        final long version = version();
+        assertEquals(Set.of(ORDER), services());
+
+        // 续约不改变服务集合，版本号不变
+        order.heartbeat();
+        assertEquals(version, version());
+
+        user.heartbeat();
+        assertEquals(version + 1, version());
+        assertEquals(Set.of(ORDER, USER), services());
+    }
+
+    @Test
+    void expiredFieldIsPrunedByAnotherHeartbeat() {
+        order.heartbeat();
+        user.heartbeat();
+        final long version = version();
+
+        server.advance(HALF_EXPIRE_MILLIS);
+        user.heartbeat();
+        assertEquals(version, version());
+        assertEquals(Set.of(ORDER, USER), services());
+
+        // order停止心跳超过过期时间，由user的心跳清理
+        server.advance(HALF_EXPIRE_MILLIS);
+        user.heartbeat();
+        assertEquals(version + 1, version());
+        assertEquals(Set.of(USER), services());
+
+        RedisHashIsolationRegistry reader = new RedisHashIsolationRegistry(server.jedisTools());
+        try {
+            assertFalse(reader.lookup(IP, ORDER));
+            assertTrue(reader.lookup(IP, USER));
+            assertEquals(Set.of(USER), reader.snapshot(IP));
+        } finally {
+            reader.close();
+        }
+    }
+
+    @Test
+    void rebuiltHashStartsVersionFromServerTime() {
+        order.heartbeat();
+        user.heartbeat();
+        final long version = version();
+
+        // 所有服务停止心跳，整个Hash随key过期删除
+        server.advance(TimeUnit.SECONDS.toMillis(HEARTBEAT_EXPIRE_SECONDS) + 1000);
+        assertFalse(server.exists(KEY));
+
+        order.heartbeat();
+        assertTrue(version() > version + 1);
+        assertEquals(Set.of(ORDER), services());
+    }
+
+    private long version() {
+        return Long.parseLong(server.hgetAll(KEY).get(RedisHashIsolationRegistry.VERSION_FIELD));
+    }
+
+    private Set<String> services() {
+        final Map<String, String> entries = new HashMap<>(server.hgetAll(KEY));
+        entries.remove(RedisHashIsolationRegistry.VERSION_FIELD);
+        return entries.keySet();
+    }
+
+}
@@ -0,0 +1,172 @@
+package io.github.hyuga0410.feign.isolation.registry;
+
+import io.github.hyuga0410.feign.isolation.FakeRedisServer;
+import io.github.hyuga0410.feign.isolation.JedisTools;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static io.github.hyuga0410.feign.isolation.FeignIsolationConstants.HEARTBEAT_EXPIRE_SECONDS;
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * RedisKeyspaceSubscriberTest
+ *
+ * @author hyuga
+ * @since 2026/10/17
+ */
+class RedisKeyspaceSubscriberTest {
+
+    private static final String IP = "10.0.0.1";
+    private static final String SERVICE = "order-service-1001";
+
+    private FakeRedisServer server;
+    private RedisIsolationRegistry registry;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        server = new FakeRedisServer();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        if (registry != null) {
+            registry.close();
+        }
+        server.close();
+    }
+
+    @Test
+    void keyspaceEventsKeepsExistingFlags() {
+        assertEquals("Kg$x", RedisKeyspaceSubscriber.keyspaceEvents(null));
+        assertEquals("Kg$x", RedisKeyspaceSubscriber.keyspaceEvents(""));
+        assertEquals("Kg$x", RedisKeyspaceSubscriber.keyspaceEvents("Kg$x"));
+        assertEquals("ExKg$", RedisKeyspaceSubscriber.keyspaceEvents("Ex"));
+        assertEquals("Elg$xK", RedisKeyspaceSubscriber.keyspaceEvents("Elg$x"));
+        // A已包含g$x，只需补充K
+        assertEquals("AK", RedisKeyspaceSubscriber.keyspaceEvents("A"));
+        assertEquals("KEA", RedisKeyspaceSubscriber.keyspaceEvents("KEA"));
+    }
+
+    @Test
+    void checkKeyspaceEventsOnlyWarnsByDefault() {
+        List<String> configured = new ArrayList<>();
+        RedisKeyspaceSubscriber.checkKeyspaceEvents(() -> "Ex", configured::add, false);
+        assertTrue(configured.isEmpty());
+
+        RedisKeyspaceSubscriber.checkKeyspaceEvents(() -> "Ex", configured::add, true);
+        assertEquals(List.of("ExKg$"), configured);
+
+        configured.clear();
+        RedisKeyspaceSubscriber.checkKeyspaceEvents(() -> "AK", configured::add, true);
+        assertTrue(configured.isEmpty());
+    }
+
+    @Test
+    void checkKeyspaceEventsToleratesConfigFailure() {
+        // 托管Redis通常禁用CONFIG命令
+        assertDoesNotThrow(() -> RedisKeyspaceSubscriber.checkKeyspaceEvents(() -> {
+            throw new IllegalStateException("ERR unknown command 'CONFIG'");
+        }, events -> {
+            throw new IllegalStateException("unexpected");
+        }, true));
+    }
+
+    @Test
+    void dispatchMapsKeyspaceEvents() {
+        final String prefix = RedisIsolationRegistry.keyPrefix(IP);
+        final String channel = "__keyspace@0__:" + RedisIsolationRegistry.key(IP, SERVICE);
+        RecordingListener listener = new RecordingListener();
+
+        RedisKeyspaceSubscriber.dispatch(prefix, channel, "set", listener);
+        RedisKeyspaceSubscriber.dispatch(prefix, channel, "del", listener);
+        RedisKeyspaceSubscriber.dispatch(prefix, channel, "expired", listener);
+        RedisKeyspaceSubscriber.dispatch(prefix, channel, "expire", listener);
+        RedisKeyspaceSubscriber.dispatch(prefix, "__keyspace@0__:" + RedisIsolationRegistry.key("10.0.0.2", SERVICE), "set", listener);
+
+        assertEquals(List.of(SERVICE + ":true", SERVICE + ":false", SERVICE + ":false"), new ArrayList<>(listener.events));
+    }
+
+    @Test
+    void subscribeDoesNotChangeServerConfigByDefault() throws Exception {
+        registry = new RedisIsolationRegistry(server.jedisTools());
+        RecordingListener listener = new RecordingListener();
+        registry.subscribe(IP, listener);
+
+        listener.awaitResync();
+        assertNull(server.config(RedisKeyspaceSubscriber.NOTIFY_KEYSPACE_EVENTS));
+    }
+
+    @Test
+    void subscribeDispatchesSetDelAndExpired() throws Exception {
+        registry = new RedisIsolationRegistry(server.jedisTools(), true);
+        RecordingListener listener = new RecordingListener();
+        registry.subscribe(IP, listener);
+        listener.awaitResync();
+        assertEquals("Kg$x", server.config(RedisKeyspaceSubscriber.NOTIFY_KEYSPACE_EVENTS));
+
+        // 心跳上线
+        registry.register(IP, SERVICE);
+        registry.heartbeat();
+        assertEquals(SERVICE + ":true", listener.next());
+
+        // 主动下线
+        JedisTools jedisTools = server.jedisTools();
+        jedisTools.del(RedisIsolationRegistry.key(IP, SERVICE));
+        assertEquals(SERVICE + ":false", listener.next());
+
+        // 心跳停止后过期
+        registry.heartbeat();
+        assertEquals(SERVICE + ":true", listener.next());
+        server.advance(TimeUnit.SECONDS.toMillis(HEARTBEAT_EXPIRE_SECONDS) + 1);
+        assertEquals(SERVICE + ":false", listener.next());
+        jedisTools.close();
+    }
+
+    @Test
+    void subscribeResyncsAfterReconnect() throws Exception {
+        registry = new RedisIsolationRegistry(server.jedisTools());
+        RecordingListener listener = new RecordingListener();
+        registry.subscribe(IP, listener);
+        listener.awaitResync();
+
+        server.disconnectAll();
+        // 订阅线程按固定间隔重连，重连成功后再次通知重新同步
+        listener.awaitResync();
+    }
+
+    private static final class RecordingListener implements IsolationRegistry.Listener {
+
+        private final BlockingQueue<String> events = new LinkedBlockingQueue<>();
+        private final BlockingQueue<Boolean> resyncs = new LinkedBlockingQueue<>();
+
+        @Override
+        public void onChange(String serviceName, boolean present) {
+            events.add(serviceName + ":" + present);
+        }
+
+        @Override
+        public void onResync() {
+            resyncs.add(Boolean.TRUE);
+        }
+
+        private String next() throws InterruptedException {
+            return events.poll(5, TimeUnit.SECONDS);
+        }
+
+        private void awaitResync() throws InterruptedException {
+            assertTrue(resyncs.poll(10, TimeUnit.SECONDS) != null, "subscription not established");
+        }
+
+    }
+
+}
@@ -0,0 +1,152 @@
+package io.github.hyuga0410.feign.proxy;
+
+import feign.Client;
+import feign.Param;
+import feign.Request;
+import feign.RequestLine;
+import feign.RequestTemplate;
+import feign.Response;
+import feign.Target;
+import io.github.hyuga0410.feign.isolation.FeignBuilderHelper;
+import io.github.hyuga0410.feign.isolation.FeignIsolation;
+import io.github.hyuga0410.feign.isolation.FeignIsolationTestSupport;
+import io.github.hyuga0410.feign.isolation.registry.IsolationRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * FeignProviderCapabilityTest
+ *
+ * @author hyuga
+ * @since 2026/10/17
+ */
+class FeignProviderCapabilityTest {
+
+    private static final Target<DictClient> TARGET = new Target.HardCodedTarget<>(DictClient.class, "dict-service", "http://dict-service");
+
+    @Test
+    void rewriteReplacesHostOnly() {
+        FeignProviderCapability.Route route = new FeignProviderCapability.Route("hyuga");
+
+        assertEquals("http://dict-service-hyuga/dict/1?type=2", route.rewrite("http://dict-service/dict/1?type=2", TARGET));
+        assertEquals("http://dict-service-hyuga?type=2", route.rewrite("http://dict-service?type=2", TARGET));
+        assertEquals("http://dict-service-hyuga", route.rewrite("http://dict-service", TARGET));
+        // 源地址前缀变化时重新解析host
+        assertEquals("http://dict-service-hyuga/dict", route.rewrite("http://dict-service-v2/dict", TARGET));
+        assertEquals("https://dict-service-hyuga/dict", route.rewrite("https://dict-service/dict", TARGET));
+        assertEquals("/dict", route.rewrite("/dict", TARGET));
+    }
+
+    @Test
+    void defaultEnvironmentKeepsOriginalRequest() throws Exception {
+        FeignProviderCapability capability = new FeignProviderCapability();
+        capability.register(DictClient.class, "");
+        List<Request> executed = new ArrayList<>();
+        Client client = capability.enrich(recording(executed));
+
+        Request request = request("http://dict-service/dict/1");
+        client.execute(request, new Request.Options());
+        assertSame(request, executed.get(0));
+    }
+
+    @Test
+    void providerRequestIsRedirected() throws Exception {
+        FeignProviderCapability capability = new FeignProviderCapability();
+        capability.register(DictClient.class, "hyuga");
+        List<Request> executed = new ArrayList<>();
+        Client client = capability.enrich(recording(executed));
+
+        client.execute(request("http://dict-service/dict/1"), new Request.Options());
+        client.execute(request("http://dict-service/dict/2"), new Request.Options());
+        assertEquals("http://dict-service-hyuga/dict/1", executed.get(0).url());
+        assertEquals("http://dict-service-hyuga/dict/2", executed.get(1).url());
+    }
+
+    @Test
+    void sharedBuilderWrapsClientOnce() throws Exception {
+        FeignProviderCapability capability = new FeignProviderCapability();
+        capability.register(DictApi.class, "hyuga");
+        capability.register(UserApi.class, "hyuga");
+        List<Request> executed = new CopyOnWriteArrayList<>();
+        List<Long> layers = new CopyOnWriteArrayList<>();
+        Client client = (request, options) -> {
+            executed.add(request);
+            layers.add(StackWalker.getInstance().walk(frames -> frames
+                    .filter(frame -> frame.getClassName().endsWith("ProviderClient") && "execute".equals(frame.getMethodName()))
+                    .count()));
+            return Response.builder().status(200).request(request).headers(Map.of()).body("ok", StandardCharsets.UTF_8).build();
+        };
+
+        // 与FeignClientFactoryBean一致：所有客户端共用一个构建器，每次构建都添加一次Capability
+        FeignBuilderHelper builder = new FeignBuilderHelper(FeignIsolationTestSupport.settings(DisabledApplication.class), false, (IsolationRegistry) null);
+        builder.client(client).addCapability(capability);
+        UserApi userApi = builder.target(new Target.HardCodedTarget<>(UserApi.class, "user-service", "http://user-service"));
+        builder.client(client).addCapability(capability);
+        DictApi dictApi = builder.target(new Target.HardCodedTarget<>(DictApi.class, "dict-service", "http://dict-service"));
+
+        userApi.user(1);
+        dictApi.dict(1);
+        final Object rewrite = rewrite(capability, DictApi.class);
+        dictApi.dict(2);
+
+        assertEquals("http://user-service-hyuga/user/1", executed.get(0).url());
+        assertEquals("http://dict-service-hyuga/dict/1", executed.get(1).url());
+        assertEquals("http://dict-service-hyuga/dict/2", executed.get(2).url());
+        assertEquals(List.of(1L, 1L, 1L), layers);
+        // 重定向缓存命中，未重新解析
+        assertSame(rewrite, rewrite(capability, DictApi.class));
+    }
+
+    private static Object rewrite(FeignProviderCapability capability, Class<?> type) throws Exception {
+        final Field routesField = FeignProviderCapability.class.getDeclaredField("routes");
+        routesField.setAccessible(true);
+        final Object route = ((Map<?, ?>) routesField.get(capability)).get(type);
+        final Field rewriteField = FeignProviderCapability.Route.class.getDeclaredField("rewrite");
+        rewriteField.setAccessible(true);
+        return rewriteField.get(route);
+    }
+
+    private static Request request(String url) {
+        RequestTemplate template = new RequestTemplate();
+        template.feignTarget(TARGET);
+        return Request.create(Request.HttpMethod.GET, url, Map.of(), null, StandardCharsets.UTF_8, template);
+    }
+
+    private static Client recording(List<Request> executed) {
+        return (request, options) -> {
+            executed.add(request);
+            return Response.builder().status(200).request(request).headers(Map.of()).build();
+        };
+    }
+
+    interface DictClient {
+    }
+
+    interface DictApi {
+
+        @RequestLine("GET /dict/{id}")
+        String dict(@Param("id") long id);
+
+    }
+
+    interface UserApi {
+
+        @RequestLine("GET /user/{id}")
+        String user(@Param("id") long id);
+
+    }
+
+    @FeignIsolation
+    private static final class DisabledApplication {
+    }
+
+}
@@ -0,0 +1,88 @@
+package io.github.hyuga0410.feign.proxy;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * FeignProviderIndexTest
+ *
+ * @author hyuga
+ * @since 2026/10/17
+ */
+class FeignProviderIndexTest {
+
+    @TempDir
+    Path indexedModule;
+    @TempDir
+    Path plainModule;
+
+    @Test
+    void noIndexFallsBackToScanning() throws Exception {
+        copyClass(Unindexed.class, plainModule);
+        try (URLClassLoader classLoader = classLoader(plainModule)) {
+            assertNull(FeignProviderIndex.load(classLoader));
+        }
+    }
+
+    @Test
+    void indexOnlyCoversItsOwnLocation() throws Exception {
+        copyClass(Indexed.class, indexedModule);
+        copyClass(Skipped.class, indexedModule);
+        copyClass(Unindexed.class, plainModule);
+        final Path index = indexedModule.resolve(FeignProviderIndex.INDEX_LOCATION);
+        Files.createDirectories(index.getParent());
+        Files.writeString(index, Indexed.class.getName() + "\n");
+
+        try (URLClassLoader classLoader = classLoader(indexedModule, plainModule)) {
+            FeignProviderIndex providerIndex = FeignProviderIndex.load(classLoader);
+            assertNotNull(providerIndex);
+
+            assertTrue(providerIndex.isCandidate(classLoader.loadClass(Indexed.class.getName())));
+            // 带索引模块中不在索引里的类跳过
+            assertFalse(providerIndex.isCandidate(classLoader.loadClass(Skipped.class.getName())));
+            // 未启用注解处理器的模块仍需扫描
+            assertTrue(providerIndex.isCandidate(classLoader.loadClass(Unindexed.class.getName())));
+        }
+    }
+
+    private static URLClassLoader classLoader(Path... roots) throws IOException {
+        URL[] urls = new URL[roots.length];
+        for (int i = 0; i < roots.length; i++) {
+            urls[i] = roots[i].toUri().toURL();
+        }
+        // 不委托父加载器，类只从指定位置加载
+        return new URLClassLoader(urls, null);
+    }
+
+    private static void copyClass(Class<?> clazz, Path root) throws IOException {
+        final String resourceName = clazz.getName().replace('.', '/') + ".class";
+        final Path target = root.resolve(resourceName);
+        Files.createDirectories(target.getParent());
+        try (InputStream in = clazz.getClassLoader().getResourceAsStream(resourceName)) {
+            assertNotNull(in);
+            Files.copy(in, target);
+        }
+    }
+
+    static class Indexed {
+    }
+
+    static class Skipped {
+    }
+
+    static class Unindexed {
+    }
+
+}